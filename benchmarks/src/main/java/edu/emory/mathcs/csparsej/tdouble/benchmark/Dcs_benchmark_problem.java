@@ -0,0 +1,162 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_dupl.cs_dupl ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_fkeep.cs_fkeep ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_load.cs_load ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_ifkeep;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Loads the matrices bundled with the CSparseJ tests for benchmarking.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_benchmark_problem {
+
+	/** Location of the test matrices in the CSparseJ test-jar. */
+	protected static final String DIR = "/edu/emory/mathcs/csparsej/tdouble/test/matrix" ;
+
+	/**
+	 * Matrix as stored in the file, in compressed-column form with
+	 * duplicates summed.
+	 */
+	public Dcs A ;
+
+	/**
+	 * A + triu(A,1)' if A is upper triangular, A otherwise.
+	 */
+	public Dcs C ;
+
+	/**
+	 * 1 if A is square & upper tri., -1 if square & lower tri., 0 otherwise
+	 */
+	public int sym ;
+
+	/**
+	 * Loads a test matrix.
+	 *
+	 * @param name
+	 *            name of the matrix file, e.g. "bcsstk16"
+	 * @return problem
+	 */
+	public static Dcs_benchmark_problem get_problem(String name)
+	{
+		Dcs T ;
+		Dcs_benchmark_problem prob = new Dcs_benchmark_problem() ;
+		InputStream in = Dcs_benchmark_problem.class.getResourceAsStream(DIR + "/" + name) ;
+		if (in == null) throw new IllegalArgumentException("unknown matrix: " + name) ;
+		try
+		{
+			T = cs_load (in) ;
+		}
+		finally
+		{
+			try
+			{
+				in.close () ;
+			}
+			catch (IOException e) {}
+		}
+		if (T == null) throw new IllegalArgumentException("unable to load matrix: " + name) ;
+		prob.A = cs_compress (T) ;
+		cs_dupl (prob.A) ;
+		prob.sym = is_sym (prob.A) ;
+		prob.C = prob.sym != 0 ? make_sym (prob.A) : prob.A ;
+		return prob ;
+	}
+
+	/**
+	 * Returns A if m >= n, A' otherwise, so that QR can be applied.
+	 */
+	public Dcs tall()
+	{
+		return A.m < A.n ? cs_transpose (A, true) : A ;
+	}
+
+	/**
+	 * Creates a right-hand side, b[i] = 1 + i/n.
+	 */
+	public static double[] rhs(int n)
+	{
+		double[] b = new double [n] ;
+		for (int i = 0 ; i < n ; i++) b [i] = 1 + ((double) i) / n ;
+		return b ;
+	}
+
+	/**
+	 * 1 if A is square & upper tri., -1 if square & lower tri., 0 otherwise
+	 */
+	protected static int is_sym(Dcs A)
+	{
+		int j, p, n = A.n, m = A.m, Ap[] = A.p, Ai[] = A.i ;
+		boolean is_upper, is_lower ;
+		if (m != n) return (0) ;
+		is_upper = true ;
+		is_lower = true ;
+		for (j = 0 ; j < n ; j++)
+		{
+			for (p = Ap [j] ; p < Ap [j+1] ; p++)
+			{
+				if (Ai [p] > j) is_upper = false ;
+				if (Ai [p] < j) is_lower = false ;
+			}
+		}
+		return (is_upper ? 1 : (is_lower ? -1 : 0)) ;
+	}
+
+	/**
+	 * true for off-diagonal entries
+	 */
+	protected static class Dropdiag implements Dcs_ifkeep {
+
+		public boolean fkeep(int i, int j, double aij, Object other)
+		{
+			return (i != j) ;
+		}
+
+	}
+
+	/**
+	 * C = A + triu(A,1)'
+	 */
+	protected static Dcs make_sym(Dcs A)
+	{
+		Dcs AT ;
+		AT = cs_transpose (A, true) ;		/* AT = A' */
+		cs_fkeep (AT, new Dropdiag(), null) ;	/* drop diagonal entries from AT */
+		return cs_add (A, AT, 1, 1) ;		/* C = A+AT */
+	}
+
+}
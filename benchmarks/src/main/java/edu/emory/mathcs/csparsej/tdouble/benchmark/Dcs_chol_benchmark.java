@@ -0,0 +1,133 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_chol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_chol_refactor;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_parchol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_schol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_ssuper;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_supchol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsrefactor ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper ;
+
+/**
+ * Symbolic (cs_schol, cs_ssuper) and numeric (cs_chol, cs_supchol,
+ * cs_parchol, cs_chol_refactor) Cholesky factorization.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Dcs_chol_benchmark {
+
+	/**
+	 * Symmetric positive definite test matrices.
+	 */
+	@Param({"bcsstk01", "bcsstk16"})
+	public String matrix ;
+
+	/**
+	 * 0: natural, 1: amd(A+A')
+	 */
+	@Param({"1"})
+	public int order ;
+
+	private Dcs C ;
+	private Dcss S ;
+	private Dcssuper SS ;
+	private Dcsn N ;
+	private Dcsrefactor R ;
+
+	@Setup
+	public void setup()
+	{
+		C = Dcs_benchmark_problem.get_problem (matrix).C ;
+		S = Dcs_schol.cs_schol (order, C) ;
+		N = Dcs_chol.cs_chol (C, S) ;
+		if (N == null) throw new IllegalStateException("Cholesky failed: " + matrix) ;
+		R = Dcs_chol_refactor.cs_chol_refactor_alloc (C, S) ;
+		SS = Dcs_ssuper.cs_ssuper (C, S) ;
+	}
+
+	@Benchmark
+	public Dcss cs_schol()
+	{
+		return Dcs_schol.cs_schol (order, C) ;
+	}
+
+	@Benchmark
+	public Dcsn cs_chol()
+	{
+		return Dcs_chol.cs_chol (C, S) ;
+	}
+
+	@Benchmark
+	public boolean cs_chol_refactor()
+	{
+		return Dcs_chol_refactor.cs_chol_refactor (C, S, N, R) ;
+	}
+
+	@Benchmark
+	public Dcssuper cs_ssuper()
+	{
+		return Dcs_ssuper.cs_ssuper (C, S) ;
+	}
+
+	@Benchmark
+	public Dcsn cs_supchol()
+	{
+		return Dcs_supchol.cs_supchol (C, S, SS) ;
+	}
+
+	@Benchmark
+	public Dcsn cs_parchol()
+	{
+		return Dcs_parchol.cs_parchol (C, S, SS, null) ;
+	}
+
+}
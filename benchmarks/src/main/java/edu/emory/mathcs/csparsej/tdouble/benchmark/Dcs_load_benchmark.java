@@ -0,0 +1,120 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_compress;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_load;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_mmread;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Reading a matrix: cs_load followed by cs_compress, and cs_mmread of the
+ * same matrix in Matrix Market format.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Dcs_load_benchmark {
+
+	@Param({"bcsstk16", "mbeacxc"})
+	public String matrix ;
+
+	private byte[] triplet ;
+	private File mtx ;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		InputStream in = Dcs_benchmark_problem.class.getResourceAsStream (Dcs_benchmark_problem.DIR + "/" + matrix) ;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream () ;
+		byte[] buf = new byte [1 << 16] ;
+		for (int len ; (len = in.read (buf)) > 0 ; ) bytes.write (buf, 0, len) ;
+		in.close () ;
+		triplet = bytes.toByteArray () ;
+
+		/* same entries, one-based, with a Matrix Market header */
+		Dcs T = Dcs_load.cs_load (new ByteArrayInputStream (triplet)) ;
+		String[] lines = new String (triplet, "US-ASCII").trim ().split ("\n") ;
+		StringBuilder s = new StringBuilder () ;
+		s.append ("%%MatrixMarket matrix coordinate real general\n") ;
+		s.append (T.m + " " + T.n + " " + T.nz + "\n") ;
+		for (String line : lines)
+		{
+			String[] tokens = line.trim ().split ("\\s+") ;
+			s.append ((Integer.parseInt (tokens [0]) + 1) + " " + (Integer.parseInt (tokens [1]) + 1) + " "
+				+ tokens [2] + "\n") ;
+		}
+		mtx = File.createTempFile ("csparsej", ".mtx") ;
+		FileOutputStream out = new FileOutputStream (mtx) ;
+		out.write (s.toString ().getBytes ("US-ASCII")) ;
+		out.close () ;
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		mtx.delete () ;
+	}
+
+	@Benchmark
+	public Dcs cs_load()
+	{
+		return Dcs_compress.cs_compress (Dcs_load.cs_load (new ByteArrayInputStream (triplet))) ;
+	}
+
+	@Benchmark
+	public Dcs cs_mmread()
+	{
+		return Dcs_mmread.cs_mmread (mtx.getPath (), true) ;
+	}
+
+}
@@ -0,0 +1,176 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_irsol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_ltsolve;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_lu;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_lu_refactor;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_lufact;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_lusol;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_sqr;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_usolve;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_utsolve;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsfact ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Numeric LU factorization (cs_lu), refactorization (cs_lu_refactor), the
+ * four triangular solves applied to its factors, and a full cs_lusol against
+ * a solve with a kept factorization (cs_lufact_solve) and a mixed precision
+ * solve (cs_irsol).
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Dcs_lu_benchmark {
+
+	/**
+	 * Square, nonsingular test matrices.
+	 */
+	@Param({"bcsstk01", "bcsstk16", "fs_183_1", "west0067"})
+	public String matrix ;
+
+	/**
+	 * 0: natural, 1: amd(A+A'), 2: amd(S'*S), 3: amd(A'*A)
+	 */
+	@Param({"2"})
+	public int order ;
+
+	private Dcs C ;
+	private Dcss S ;
+	private Dcsn N ;
+	private Dcsfact F ;
+	private double tol ;
+	private double[] b ;
+	private double[] x ;
+
+	@Setup
+	public void setup()
+	{
+		Dcs_benchmark_problem prob = Dcs_benchmark_problem.get_problem (matrix) ;
+		C = prob.C ;
+		tol = prob.sym != 0 ? 0.001 : 1 ;	/* partial pivoting tolerance */
+		S = Dcs_sqr.cs_sqr (order, C, false) ;
+		N = Dcs_lu.cs_lu (C, S, tol) ;
+		if (N == null) throw new IllegalStateException("LU failed: " + matrix) ;
+		F = Dcs_lufact.cs_lufact_analyze (order, C) ;
+		Dcs_lufact.cs_lufact_factor (F, C, tol) ;
+		b = Dcs_benchmark_problem.rhs (C.n) ;
+		x = new double [C.n] ;
+	}
+
+	@Benchmark
+	public Dcsn cs_lu()
+	{
+		return Dcs_lu.cs_lu (C, S, tol) ;
+	}
+
+	@Benchmark
+	public Dcsn cs_lu_refactor()
+	{
+		return Dcs_lu_refactor.cs_lu_refactor (C, S, N, tol) ;
+	}
+
+	@Benchmark
+	public double[] cs_lusol()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_lusol.cs_lusol (order, C, x, tol) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_irsol()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_irsol.cs_irsol (order, C, x, tol) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_lufact_solve()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_lufact.cs_lufact_solve (F, x) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_lsolve()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_lsolve.cs_lsolve (N.L, x) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_ltsolve()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_ltsolve.cs_ltsolve (N.L, x) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_usolve()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_usolve.cs_usolve (N.U, x) ;
+		return x ;
+	}
+
+	@Benchmark
+	public double[] cs_utsolve()
+	{
+		System.arraycopy (b, 0, x, 0, b.length) ;
+		Dcs_utsolve.cs_utsolve (N.U, x) ;
+		return x ;
+	}
+
+}
@@ -0,0 +1,138 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_multiply;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_pgaxpy;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_pmultiply;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_transpose;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcspmv ;
+
+/**
+ * Basic matrix operations: C = A*A' (cs_multiply, cs_multiply_numeric,
+ * cs_pmultiply), A' (cs_transpose, cs_transpose_values) and y = A*x + y
+ * (cs_gaxpy, cs_pgaxpy).
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Dcs_matrix_benchmark {
+
+	@Param({"ash219", "bcsstk16", "fs_183_1", "lp_afiro", "mbeacxc", "west0067"})
+	public String matrix ;
+
+	private Dcs A ;
+	private Dcs AT ;
+	private Dcs C ;
+	private Dcs AAT ;
+	private double[] w ;
+	private int[] map ;
+	private Dcspmv P ;
+	private double[] x ;
+	private double[] y ;
+
+	@Setup
+	public void setup()
+	{
+		A = Dcs_benchmark_problem.get_problem (matrix).A ;
+		AT = Dcs_transpose.cs_transpose (A, true) ;
+		map = new int [A.p [A.n]] ;
+		C = Dcs_transpose.cs_transpose (A, map) ;
+		AAT = Dcs_multiply.cs_multiply_symbolic (A, AT) ;
+		w = new double [A.m] ;
+		x = Dcs_benchmark_problem.rhs (A.n) ;
+		y = new double [A.m] ;
+		P = Dcs_pgaxpy.cs_pmv (A, 0) ;
+	}
+
+	@Benchmark
+	public Dcs cs_multiply()
+	{
+		return Dcs_multiply.cs_multiply (A, AT) ;
+	}
+
+	@Benchmark
+	public Dcs cs_multiply_numeric()
+	{
+		Dcs_multiply.cs_multiply_numeric (A, AT, AAT, w) ;
+		return AAT ;
+	}
+
+	@Benchmark
+	public Dcs cs_pmultiply()
+	{
+		return Dcs_pmultiply.cs_pmultiply (A, AT) ;
+	}
+
+	@Benchmark
+	public Dcs cs_transpose()
+	{
+		return Dcs_transpose.cs_transpose (A, true) ;
+	}
+
+	@Benchmark
+	public Dcs cs_transpose_values()
+	{
+		Dcs_transpose.cs_transpose_values (A, C, map) ;
+		return C ;
+	}
+
+	@Benchmark
+	public double[] cs_gaxpy()
+	{
+		Dcs_gaxpy.cs_gaxpy (A, x, y) ;
+		return y ;
+	}
+
+	@Benchmark
+	public double[] cs_pgaxpy()
+	{
+		Dcs_pgaxpy.cs_pgaxpy (P, x, y) ;
+		return y ;
+	}
+
+}
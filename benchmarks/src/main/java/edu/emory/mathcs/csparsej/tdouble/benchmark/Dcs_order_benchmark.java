@@ -0,0 +1,95 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble.benchmark ;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_amd;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_sqr;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Fill-reducing orderings (cs_amd) and symbolic analysis (cs_sqr).
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Dcs_order_benchmark {
+
+	@Param({"ash219", "bcsstk16", "fs_183_1", "lp_afiro", "mbeacxc", "west0067"})
+	public String matrix ;
+
+	/**
+	 * 2: amd(S'*S), 3: amd(A'*A), 4: colamd(A)
+	 */
+	@Param({"2", "3", "4"})
+	public int order ;
+
+	private Dcs A ;
+
+	@Setup
+	public void setup()
+	{
+		A = Dcs_benchmark_problem.get_problem (matrix).tall () ;
+	}
+
+	@Benchmark
+	public int[] cs_amd()
+	{
+		return Dcs_amd.cs_amd (order, A) ;
+	}
+
+	@Benchmark
+	public Dcss cs_sqr_lu()
+	{
+		return Dcs_sqr.cs_sqr (order, A, false) ;
+	}
+
+	@Benchmark
+	public Dcss cs_sqr_qr()
+	{
+		return Dcs_sqr.cs_sqr (order, A, true) ;
+	}
+
+}
@@ -58,24 +58,29 @@ public class DZcs_add {
 	{
 		int p, j, nz = 0, anz ;
 		int Cp[], Ci[], Bp[], m, n, bnz, w[] ;
-		DZcsa x, Bx = new DZcsa(), Cx = new DZcsa() ;
+		double Cx[], xx[] ;
+		DZcsa x ;
 		boolean values ;
 		DZcs C ;
 		if (!CS_CSC(A) || !CS_CSC(B)) return null ;		/* check inputs */
 		if (A.m != B.m || A.n != B.n) return null ;
 		m = A.m ; anz = A.p[A.n] ;
-		n = B.n ; Bp = B.p ; Bx.x = B.x ; bnz = Bp[n] ;
+		n = B.n ; Bp = B.p ; bnz = Bp[n] ;
 		w = new int [m] ;					/* get workspace */
-		values = (A.x != null) && (Bx.x != null) ;
+		values = (A.x != null) && (B.x != null) ;
 		x = values ? new DZcsa (m) : null ;			/* get workspace */
 		C = cs_spalloc (m, n, anz + bnz, values, false) ;	/* allocate result*/
-		Cp = C.p ; Ci = C.i ; Cx.x = C.x ;
+		Cp = C.p ; Ci = C.i ; Cx = C.x ;
+		xx = values ? x.x : null ;
 		for (j = 0 ; j < n ; j++)
 		{
 		    Cp[j] = nz ;	/* column j of C starts here */
 		    nz = cs_scatter (A, j, alpha, w, x, j + 1, C, nz) ;		/* alpha*A(:,j)*/
 		    nz = cs_scatter (B, j, beta, w, x, j + 1, C, nz) ;		/* beta*B(:,j) */
-		    if (values) for (p = Cp[j] ; p < nz ; p++) Cx.set (p, x.get (Ci [p])) ;
+		    if (values) for (p = Cp[j] ; p < nz ; p++)
+		    {
+			Cx [2*p] = xx [2*Ci [p]] ; Cx [2*p+1] = xx [2*Ci [p]+1] ;
+		    }
 		}
 		Cp[n] = nz ;			/* finalize the last column of C */
 		cs_sprealloc (C, 0) ;		/* remove extra space from C */
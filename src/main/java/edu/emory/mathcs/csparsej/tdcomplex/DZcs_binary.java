@@ -0,0 +1,547 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdcomplex ;
+
+import java.io.IOException ;
+import java.io.RandomAccessFile ;
+import java.nio.ByteBuffer ;
+import java.nio.ByteOrder ;
+import java.nio.channels.FileChannel ;
+import java.util.zip.CRC32 ;
+
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsn ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcss ;
+
+/**
+ * Read and write matrices, symbolic analyses and numeric factorizations in a
+ * binary format.
+ * <p>
+ * A file is a header of five little-endian ints (magic number, format
+ * version, kind of object, value type, flags), the ints and arrays of the
+ * object, and an optional CRC-32 of everything before it. Each array is its
+ * length (-1 for null) followed by its raw little-endian values, so it is
+ * read back with bulk copies into a single allocation. Only the nnz entries
+ * in use of a matrix are stored.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class DZcs_binary {
+
+	/**
+	 * "CSPJ" as a little-endian int.
+	 */
+	public static final int CS_MAGIC = 0x4a505343 ;
+
+	/**
+	 * Version of the binary format.
+	 */
+	public static final int CS_FORMAT = 1 ;
+
+	private static final int CS_MATRIX = 1, CS_SYMBOLIC = 2, CS_NUMERIC = 3 ; /* kinds of object */
+
+	private static final int CS_COMPLEX = 3 ; /* value type: 1 double, 2 float, 3 complex */
+
+	private static final int CS_CHECKSUM = 1 ; /* flag: file ends with a CRC-32 */
+
+	private static final int CS_CHUNK = 1 << 20 ; /* I/O buffer size */
+
+	/* buffered, optionally checksummed, little-endian file */
+	private static class Cs_bfile
+	{
+		RandomAccessFile file ;
+		FileChannel ch ;
+		ByteBuffer buf ;
+		CRC32 crc ;
+
+		Cs_bfile(String fileName, String mode) throws IOException
+		{
+			file = new RandomAccessFile(fileName, mode) ;
+			ch = file.getChannel() ;
+			buf = ByteBuffer.allocate(CS_CHUNK).order(ByteOrder.LITTLE_ENDIAN) ;
+		}
+
+		/* writes the buffer to the file */
+		void flush() throws IOException
+		{
+			buf.flip() ;
+			if (crc != null)
+				crc.update(buf.array(), 0, buf.limit()) ;
+			while (buf.hasRemaining())
+				ch.write(buf) ;
+			buf.clear() ;
+		}
+
+		/* makes at least len bytes available for reading */
+		void fill(int len) throws IOException
+		{
+			if (buf.remaining() >= len)
+				return ;
+			buf.compact() ;
+			while (buf.position() < len && ch.read(buf) > 0)
+				;
+			buf.flip() ;
+			if (buf.remaining() < len)
+				throw new IOException("unexpected end of file") ;
+		}
+
+		/* marks len bytes as read */
+		void skip(int len)
+		{
+			if (crc != null)
+				crc.update(buf.array(), buf.position(), len) ;
+			buf.position(buf.position() + len) ;
+		}
+
+		/* checks that an array of len values of the given size fits in the rest of the file */
+		void check(int len, int size) throws IOException
+		{
+			if ((long) len * size > ch.size() - ch.position() + buf.remaining())
+				throw new IOException("corrupt file") ;
+		}
+
+		void putInt(int v) throws IOException
+		{
+			if (buf.remaining() < 4)
+				flush() ;
+			buf.putInt(v) ;
+		}
+
+		int getInt() throws IOException
+		{
+			int v ;
+			fill(4) ;
+			v = buf.getInt(buf.position()) ;
+			skip(4) ;
+			return (v) ;
+		}
+
+		void putInts(int[] a, int len) throws IOException
+		{
+			int k, n ;
+			putInt(a == null ? -1 : len) ;
+			for (k = 0; a != null && k < len; k += n)
+			{
+				if (buf.remaining() < 4)
+					flush() ;
+				n = Math.min(len - k, buf.remaining() / 4) ;
+				buf.asIntBuffer().put(a, k, n) ;
+				buf.position(buf.position() + 4 * n) ;
+			}
+		}
+
+		int[] getInts() throws IOException
+		{
+			int k, n, len = getInt() ;
+			int[] a ;
+			if (len < 0)
+				return (null) ;
+			check(len, 4) ;
+			a = new int[len] ;
+			for (k = 0; k < len; k += n)
+			{
+				fill(4) ;
+				n = Math.min(len - k, buf.remaining() / 4) ;
+				buf.asIntBuffer().get(a, k, n) ;
+				skip(4 * n) ;
+			}
+			return (a) ;
+		}
+
+		void putDoubles(double[] a, int len) throws IOException
+		{
+			int k, n ;
+			putInt(a == null ? -1 : len) ;
+			for (k = 0; a != null && k < len; k += n)
+			{
+				if (buf.remaining() < 8)
+					flush() ;
+				n = Math.min(len - k, buf.remaining() / 8) ;
+				buf.asDoubleBuffer().put(a, k, n) ;
+				buf.position(buf.position() + 8 * n) ;
+			}
+		}
+
+		double[] getDoubles() throws IOException
+		{
+			int k, n, len = getInt() ;
+			double[] a ;
+			if (len < 0)
+				return (null) ;
+			check(len, 8) ;
+			a = new double[len] ;
+			for (k = 0; k < len; k += n)
+			{
+				fill(8) ;
+				n = Math.min(len - k, buf.remaining() / 8) ;
+				buf.asDoubleBuffer().get(a, k, n) ;
+				skip(8 * n) ;
+			}
+			return (a) ;
+		}
+
+		void close()
+		{
+			try
+			{
+				file.close() ;
+			}
+			catch (IOException e)
+			{
+			}
+		}
+	}
+
+	/**
+	 * Writes a matrix in binary form. Only the entries in use are written, so
+	 * the matrix read back has nzmax equal to its number of entries.
+	 * 
+	 * @param A
+	 *            column-compressed or triplet matrix
+	 * @param fileName
+	 *            file name
+	 * @param checksum
+	 *            true to append a CRC-32 of the file
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_write(DZcs A, String fileName, boolean checksum)
+	{
+		Cs_bfile f = null ;
+		if (A == null)
+			return (false) ; /* check inputs */
+		try
+		{
+			f = cs_create(fileName, CS_MATRIX, checksum) ;
+			cs_put(f, A) ;
+			cs_finish(f) ;
+			return (true) ;
+		}
+		catch (IOException e)
+		{
+			return (false) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/**
+	 * Reads a matrix written by cs_write.
+	 * 
+	 * @param fileName
+	 *            file name
+	 * @return A if successful, null on error
+	 */
+	public static DZcs cs_read(String fileName)
+	{
+		Cs_bfile f = null ;
+		DZcs A ;
+		try
+		{
+			f = cs_open(fileName, CS_MATRIX) ;
+			A = cs_get(f) ;
+			cs_verify(f) ;
+			return (A) ;
+		}
+		catch (IOException e)
+		{
+			return (null) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/**
+	 * Writes a symbolic analysis in binary form.
+	 * 
+	 * @param S
+	 *            symbolic Cholesky, LU, or QR analysis
+	 * @param fileName
+	 *            file name
+	 * @param checksum
+	 *            true to append a CRC-32 of the file
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_swrite(DZcss S, String fileName, boolean checksum)
+	{
+		Cs_bfile f = null ;
+		if (S == null)
+			return (false) ; /* check inputs */
+		try
+		{
+			f = cs_create(fileName, CS_SYMBOLIC, checksum) ;
+			f.putInt(S.m2) ;
+			f.putInt(S.lnz) ;
+			f.putInt(S.unz) ;
+			f.putInts(S.pinv, S.pinv != null ? S.pinv.length : 0) ;
+			f.putInts(S.q, S.q != null ? S.q.length : 0) ;
+			f.putInts(S.parent, S.parent != null ? S.parent.length : 0) ;
+			f.putInts(S.cp, S.cp != null ? S.cp.length : 0) ;
+			f.putInts(S.leftmost, S.leftmost != null ? S.leftmost.length : 0) ;
+			cs_finish(f) ;
+			return (true) ;
+		}
+		catch (IOException e)
+		{
+			return (false) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/**
+	 * Reads a symbolic analysis written by cs_swrite.
+	 * 
+	 * @param fileName
+	 *            file name
+	 * @return S if successful, null on error
+	 */
+	public static DZcss cs_sread(String fileName)
+	{
+		Cs_bfile f = null ;
+		DZcss S ;
+		try
+		{
+			f = cs_open(fileName, CS_SYMBOLIC) ;
+			S = new DZcss() ;
+			S.m2 = f.getInt() ;
+			S.lnz = f.getInt() ;
+			S.unz = f.getInt() ;
+			S.pinv = f.getInts() ;
+			S.q = f.getInts() ;
+			S.parent = f.getInts() ;
+			S.cp = f.getInts() ;
+			S.leftmost = f.getInts() ;
+			cs_verify(f) ;
+			return (S) ;
+		}
+		catch (IOException e)
+		{
+			return (null) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/**
+	 * Writes a numeric factorization in binary form.
+	 * 
+	 * @param N
+	 *            numeric Cholesky, LU, or QR factorization
+	 * @param fileName
+	 *            file name
+	 * @param checksum
+	 *            true to append a CRC-32 of the file
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_nwrite(DZcsn N, String fileName, boolean checksum)
+	{
+		Cs_bfile f = null ;
+		if (N == null)
+			return (false) ; /* check inputs */
+		try
+		{
+			f = cs_create(fileName, CS_NUMERIC, checksum) ;
+			f.putInt(N.L != null ? 1 : 0) ;
+			if (N.L != null)
+				cs_put(f, N.L) ;
+			f.putInt(N.U != null ? 1 : 0) ;
+			if (N.U != null)
+				cs_put(f, N.U) ;
+			f.putInts(N.pinv, N.pinv != null ? N.pinv.length : 0) ;
+			f.putDoubles(N.B, N.B != null ? N.B.length : 0) ;
+			cs_finish(f) ;
+			return (true) ;
+		}
+		catch (IOException e)
+		{
+			return (false) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/**
+	 * Reads a numeric factorization written by cs_nwrite.
+	 * 
+	 * @param fileName
+	 *            file name
+	 * @return N if successful, null on error
+	 */
+	public static DZcsn cs_nread(String fileName)
+	{
+		Cs_bfile f = null ;
+		DZcsn N ;
+		try
+		{
+			f = cs_open(fileName, CS_NUMERIC) ;
+			N = new DZcsn() ;
+			N.L = f.getInt() != 0 ? cs_get(f) : null ;
+			N.U = f.getInt() != 0 ? cs_get(f) : null ;
+			N.pinv = f.getInts() ;
+			N.B = f.getDoubles() ;
+			cs_verify(f) ;
+			return (N) ;
+		}
+		catch (IOException e)
+		{
+			return (null) ;
+		}
+		finally
+		{
+			if (f != null)
+				f.close() ;
+		}
+	}
+
+	/* creates a file and writes its header */
+	private static Cs_bfile cs_create(String fileName, int kind, boolean checksum) throws IOException
+	{
+		Cs_bfile f = new Cs_bfile(fileName, "rw") ;
+		f.file.setLength(0) ;
+		if (checksum)
+			f.crc = new CRC32() ;
+		f.putInt(CS_MAGIC) ;
+		f.putInt(CS_FORMAT) ;
+		f.putInt(kind) ;
+		f.putInt(CS_COMPLEX) ;
+		f.putInt(checksum ? CS_CHECKSUM : 0) ;
+		return (f) ;
+	}
+
+	/* writes the checksum, if any, and flushes the file */
+	private static void cs_finish(Cs_bfile f) throws IOException
+	{
+		f.flush() ;
+		if (f.crc != null)
+		{
+			int crc = (int) f.crc.getValue() ;
+			f.crc = null ; /* the checksum does not cover itself */
+			f.putInt(crc) ;
+			f.flush() ;
+		}
+	}
+
+	/* opens a file and checks its header */
+	private static Cs_bfile cs_open(String fileName, int kind) throws IOException
+	{
+		Cs_bfile f = new Cs_bfile(fileName, "r") ;
+		try
+		{
+			f.buf.flip() ; /* empty buffer, ready for reading */
+			f.crc = new CRC32() ;
+			if (f.getInt() != CS_MAGIC || f.getInt() != CS_FORMAT || f.getInt() != kind || f.getInt() != CS_COMPLEX)
+				throw new IOException("not a CSparseJ file of this kind") ;
+			if ((f.getInt() & CS_CHECKSUM) == 0)
+				f.crc = null ;
+		}
+		catch (IOException e)
+		{
+			f.close() ; /* short or foreign file */
+			throw e ;
+		}
+		return (f) ;
+	}
+
+	/* reads and compares the checksum, if any */
+	private static void cs_verify(Cs_bfile f) throws IOException
+	{
+		if (f.crc != null)
+		{
+			int crc = (int) f.crc.getValue() ;
+			f.crc = null ;
+			if (f.getInt() != crc)
+				throw new IOException("checksum mismatch") ;
+		}
+	}
+
+	private static void cs_put(Cs_bfile f, DZcs A) throws IOException
+	{
+		int nnz = A.nz < 0 ? A.p[A.n] : A.nz ;
+		f.putInt(A.m) ;
+		f.putInt(A.n) ;
+		f.putInt(A.nz < 0 ? -1 : A.nz) ;
+		f.putInts(A.p, A.nz < 0 ? A.n + 1 : nnz) ;
+		f.putInts(A.i, nnz) ;
+		f.putDoubles(A.x, 2 * nnz) ;
+	}
+
+	private static DZcs cs_get(Cs_bfile f) throws IOException
+	{
+		int j, k, nnz ;
+		DZcs A = new DZcs() ;
+		A.m = f.getInt() ;
+		A.n = f.getInt() ;
+		A.nz = f.getInt() ;
+		A.p = f.getInts() ;
+		A.i = f.getInts() ;
+		A.x = f.getDoubles() ;
+		if (A.m < 0 || A.n < 0 || A.p == null || A.i == null || (A.nz < 0 && A.p.length != A.n + 1))
+			throw new IOException("corrupt matrix") ;
+		nnz = A.nz < 0 ? A.p[A.n] : A.nz ;
+		if ((A.nz >= 0 && A.p.length != nnz) || A.i.length != nnz || (A.x != null && A.x.length != 2 * nnz))
+			throw new IOException("corrupt matrix") ;
+		if (A.nz < 0)
+		{
+			if (A.p[0] != 0)
+				throw new IOException("corrupt matrix") ;
+			for (j = 0 ; j < A.n ; j++)
+			{
+				if (A.p[j] > A.p[j + 1])
+					throw new IOException("corrupt matrix") ; /* column pointers must not decrease */
+			}
+		}
+		else
+		{
+			for (k = 0 ; k < nnz ; k++)
+			{
+				if (A.p[k] < 0 || A.p[k] >= A.n)
+					throw new IOException("corrupt matrix") ; /* column index out of range */
+			}
+		}
+		for (k = 0 ; k < nnz ; k++)
+		{
+			if (A.i[k] < 0 || A.i[k] >= A.m)
+				throw new IOException("corrupt matrix") ; /* row index out of range */
+		}
+		A.nzmax = nnz ;
+		return (A) ;
+	}
+}
@@ -33,12 +33,7 @@ import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.cs_spalloc ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.cs_ndone ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_symperm.cs_symperm ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_ereach.cs_ereach ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_czero ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_conj ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_csqrt ;
 
 /**
  * Sparse Cholesky.
@@ -58,8 +53,8 @@ public class DZcs_chol {
 	 * @return numeric Cholesky factorization, null on error
 	 */
 	public static DZcsn cs_chol(DZcs A, DZcss S) {
-		double[] d, lki ;
-		DZcsa Lx = new DZcsa (), x, Cx = new DZcsa () ;
+		double dr, di, lr, li, Lx[], Cx[], xx[] ;
+		DZcsa x ;
 		int top, i, p, k, n, Li[], Lp[], cp[], pinv[], s[], c[], parent[], Cp[], Ci[] ;
 		DZcs L, C, E ;
 		DZcsn N ;
@@ -74,43 +69,50 @@ public class DZcs_chol {
 		if (N == null || c == null || x == null || C == null) return (cs_ndone (N, E, c, x, false)) ;
 		s = c ;
 		int s_offset = n ;
-		Cp = C.p ; Ci = C.i ; Cx.x = C.x ;
+		Cp = C.p ; Ci = C.i ; Cx = C.x ; xx = x.x ;
 		N.L = L = cs_spalloc (n, n, cp[n], true, false); /* allocate result */
 		if (L == null) return (cs_ndone (N, E, c, x, false)) ;
-		Lp = L.p ; Li = L.i ; Lx.x = L.x ;
+		Lp = L.p ; Li = L.i ; Lx = L.x ;
 		for (k = 0 ; k < n ; k++) Lp [k] = c [k] = cp [k] ;
 		for (k = 0 ; k < n ; k++)	/* compute L(k,:) for L*L' = C */
 		{
 			/* --- Nonzero pattern of L(k,:) ------------------------------------ */
 			top = cs_ereach (C, k, parent, s, s_offset, c) ;		/* find pattern of L(k,:) */
-			x.set(k, cs_czero ()) ;					/* x (0:k) is now zero */
+			xx [2*k] = 0 ; xx [2*k+1] = 0 ;				/* x (0:k) is now zero */
 			for (p = Cp [k] ; p < Cp [k + 1] ; p++)			/* x = full(triu(C(:,k))) */
 			{
-				if (Ci [p] <= k) x.set(Ci [p], Cx.get(p)) ;
+				if (Ci [p] <= k)
+				{
+					xx [2*Ci [p]] = Cx [2*p] ; xx [2*Ci [p]+1] = Cx [2*p+1] ;
+				}
 			}
-			d = x.get(k) ;				/* d = C(k,k) */
-			x.set(k, cs_czero ()) ;			/* clear x for k+1st iteration */
+			dr = xx [2*k] ; di = xx [2*k+1] ;	/* d = C(k,k) */
+			xx [2*k] = 0 ; xx [2*k+1] = 0 ;		/* clear x for k+1st iteration */
 			/* --- Triangular solve --------------------------------------------- */
 			for ( ; top < n ; top++)		/* solve L(0:k-1,0:k-1) * x = C(:,k) */
 			{
 				i = s [s_offset + top] ;	/* s [top..n-1] is pattern of L(k,:) */
-				lki = cs_cdiv (x.get(i), Lx.get(Lp [i])) ; /* L(k,i) = x (i) / L(i,i) */
-				x.set(i, cs_czero ()) ;		/* clear x for k+1st iteration */
+				p = Lp [i] ;
+				cs_cdiv (xx, i, Lx [2*p], Lx [2*p+1]) ;	/* L(k,i) = x (i) / L(i,i) */
+				lr = xx [2*i] ; li = xx [2*i+1] ;
+				xx [2*i] = 0 ; xx [2*i+1] = 0 ;	/* clear x for k+1st iteration */
 				for (p = Lp [i] + 1 ; p < c [i] ; p++)
 				{
-					x.set(Li [p], cs_cminus (x.get(Li [p]), cs_cmult (Lx.get(p), lki))) ;
+					xx [2*Li [p]] -= Lx [2*p] * lr - Lx [2*p+1] * li ;
+					xx [2*Li [p]+1] -= Lx [2*p+1] * lr + Lx [2*p] * li ;
 				}
-				d = cs_cminus (d, cs_cmult (lki, cs_conj (lki))) ;	/* d = d - L(k,i)*L(k,i) */
+				dr -= lr * lr + li * li ;	/* d = d - L(k,i)*conj(L(k,i)) */
+				di -= li * lr - lr * li ;
 				p = c [i]++ ;
-				Li [p] = k ;			/* store L(k,i) in column i */
-				Lx.set(p, cs_conj (lki)) ;
+				Li [p] = k ;			/* store conj(L(k,i)) in column i */
+				Lx [2*p] = lr ; Lx [2*p+1] = -li ;
 			}
 			/* --- Compute L(k,k) ----------------------------------------------- */
-			if (d[0] <= 0 || d[1] != 0)
+			if (dr <= 0 || di != 0)
 				return (cs_ndone (N, E, c, x, false)) ;	/* not pos def */
 			p = c [k]++ ;
 			Li [p] = k ;				/* store L(k,k) = sqrt (d) in column k */
-			Lx.set(p, cs_csqrt (d)) ;
+			Lx [2*p] = Math.sqrt(dr) ; Lx [2*p+1] = 0 ;
 		}
 		Lp [n] = cp [n] ;				/* finalize L */
 		return (cs_ndone (N, E, c, x, true)) ;		/* success: free E,s,x; return N */
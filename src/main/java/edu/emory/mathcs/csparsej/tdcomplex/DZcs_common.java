@@ -31,7 +31,7 @@ import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_print.cs_print;
 /**
  * Common data structures.
  *
- * @author Piotr Wendykier (piotr.wendykier@gmail.com)
+ * @author Piotr Wendykier (piotr.wendykier@gmail.com)
  * @author Richard Lincoln (r.w.lincoln@gmail.com)
  *
  */
@@ -295,6 +295,57 @@ public class DZcs_common {
 
 	};
 
+	/**
+	 *
+	 * Complex matrix in compressed-row form.
+	 *
+	 */
+	public static class DZcsr
+	{
+
+		/**
+		 * maximum number of entries
+		 */
+		public int nzmax ;
+
+		/**
+		 * number of rows
+		 */
+		public int m ;
+
+		/**
+		 * number of columns
+		 */
+		public int n ;
+
+		/**
+		 * row pointers, size m+1
+		 */
+		public int [] p ;
+
+		/**
+		 * column indices, size nzmax
+		 */
+		public int [] j ;
+
+		/**
+		 * numerical values, size 2 * nzmax
+		 */
+		public double [] x ;
+
+		/**
+		 * size nzmax, entry q of this matrix is entry map[q] of the
+		 * source column-compressed matrix
+		 */
+		public int [] map ;
+
+		public DZcsr()
+		{
+
+		}
+
+	};
+
 	/**
 	 *
 	 * Output of Dulmage-Mendelsohn decomposition.
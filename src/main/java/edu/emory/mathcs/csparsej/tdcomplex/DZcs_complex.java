@@ -144,6 +144,27 @@ public class DZcs_complex {
 		return z ;
 	}
 
+	/* x(k) = x(k) / (re + j*im), in place on the interleaved array x */
+	public static final void cs_cdiv(double [] x, int k, double re, double im)
+	{
+		double scalar, xr = x [2*k], xi = x [2*k+1] ;
+
+		if (Math.abs(re) >= Math.abs(im))
+		{
+			scalar = 1.0 / (re + im * (im / re)) ;
+
+			x [2*k] = scalar * (xr + xi * (im / re)) ;
+			x [2*k+1] = scalar * (xi - xr * (im / re)) ;
+		}
+		else
+		{
+			scalar = 1.0 / (re * (re / im) + im) ;
+
+			x [2*k] = scalar * (xr * (re / im) + xi) ;
+			x [2*k+1] = scalar * (xi * (re / im) - xr) ;
+		}
+	}
+
 	public static final double [] cs_cdiv(double [] x, double [] y)
 	{
 		return cs_cdiv (x, y [0], y [1]) ;
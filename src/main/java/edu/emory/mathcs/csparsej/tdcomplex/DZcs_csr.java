@@ -0,0 +1,204 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdcomplex ;
+
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsr ;
+
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
+
+/**
+ * Compressed-row form of a sparse matrix. The conversion keeps a map from the
+ * entries of the result to those of A, so new values of A with the same
+ * pattern are copied in one pass, and converting into an existing result
+ * reuses its arrays.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class DZcs_csr {
+
+	/**
+	 * Converts a column-compressed matrix to compressed-row form. The column
+	 * indices of each row are sorted.
+	 *
+	 * @param A
+	 *            column-compressed matrix
+	 * @return A in compressed-row form, null on error
+	 */
+	public static DZcsr cs_csr (DZcs A)
+	{
+		DZcsr R ;
+		if (!CS_CSC (A)) return (null) ;		/* check inputs */
+		R = new DZcsr () ;
+		cs_csr (A, R) ;
+		return (R) ;
+	}
+
+	/**
+	 * Converts a column-compressed matrix to compressed-row form, in place of
+	 * an earlier conversion. The arrays of R are reused if they are large
+	 * enough, so no memory is allocated if A is no larger than before.
+	 *
+	 * @param A
+	 *            column-compressed matrix
+	 * @param R
+	 *            compressed-row matrix, overwritten with A
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_csr (DZcs A, DZcsr R)
+	{
+		int p, q, i, j, m, n, nz, Ap[], Ai[], Rp[], Rj[], map[] ;
+		double Ax[], Rx[] ;
+		if (!CS_CSC (A) || R == null) return (false) ;	/* check inputs */
+		m = A.m ; n = A.n ; Ap = A.p ; Ai = A.i ; Ax = A.x ; nz = Ap [n] ;
+		if (R.p == null || R.p.length < m + 1) R.p = new int [m + 1] ;
+		if (R.j == null || R.j.length < nz)
+		{
+			R.j = new int [nz] ;
+			R.x = null ;
+		}
+		if (R.map == null || R.map.length < nz) R.map = new int [nz] ;
+		if (Ax == null)
+		{
+			R.x = null ;		/* pattern only, drop any earlier values */
+		}
+		else if (R.x == null || R.x.length < 2 * R.j.length)
+		{
+			R.x = new double [2 * R.j.length] ;
+		}
+		R.m = m ; R.n = n ; R.nzmax = R.j.length ;
+		Rp = R.p ; Rj = R.j ; Rx = (Ax != null) ? R.x : null ; map = R.map ;
+		for (i = 0 ; i <= m ; i++) Rp [i] = 0 ;
+		for (p = 0 ; p < nz ; p++) Rp [Ai [p] + 1]++ ;		/* row counts */
+		for (i = 0 ; i < m ; i++) Rp [i + 1] += Rp [i] ;	/* Rp [i] is the start of row i */
+		for (j = 0 ; j < n ; j++)
+		{
+			for (p = Ap [j] ; p < Ap [j + 1] ; p++)
+			{
+				map [q = Rp [Ai [p]]++] = p ;	/* place A(i,j) as entry q of row i */
+				Rj [q] = j ;
+				if (Rx != null)
+				{
+					Rx [2*q] = Ax [2*p] ;
+					Rx [2*q+1] = Ax [2*p+1] ;
+				}
+			}
+		}
+		for (i = m ; i > 0 ; i--) Rp [i] = Rp [i - 1] ;	/* Rp [i] was the end of row i */
+		Rp [0] = 0 ;
+		return (true) ;
+	}
+
+	/**
+	 * Copies the values of A into R, which was converted from a matrix with
+	 * the same pattern as A. No memory is allocated.
+	 *
+	 * @param A
+	 *            column-compressed matrix
+	 * @param R
+	 *            compressed-row form of a matrix with the pattern of A
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_csr_values (DZcs A, DZcsr R)
+	{
+		int p, q, nz, map[] ;
+		double Ax[], Rx[] ;
+		if (!CS_CSC (A) || A.x == null || R == null || R.map == null || R.x == null
+			|| A.m != R.m || A.n != R.n || A.p [A.n] != R.p [R.m]) return (false) ;	/* check inputs */
+		nz = A.p [A.n] ; Ax = A.x ; Rx = R.x ; map = R.map ;
+		for (q = 0 ; q < nz ; q++)
+		{
+			p = map [q] ;
+			Rx [2*q] = Ax [2*p] ;
+			Rx [2*q+1] = Ax [2*p+1] ;
+		}
+		return (true) ;
+	}
+
+	/**
+	 * Sparse matrix times dense column vector, y = A*x+y, one row at a time.
+	 *
+	 * @param R
+	 *            compressed-row matrix
+	 * @param x
+	 *            size n, vector x
+	 * @param y
+	 *            size m, vector y
+	 * @return true if successful, false on error
+	 */
+	public static boolean cs_csr_gaxpy (DZcsr R, DZcsa x, DZcsa y)
+	{
+		int p, i, j, m, Rp[], Rj[] ;
+		double Rx[], xx[], yx[], sr, si ;
+		if (R == null || R.x == null || x == null || y == null) return (false) ;	/* check inputs */
+		m = R.m ; Rp = R.p ; Rj = R.j ; Rx = R.x ; xx = x.x ; yx = y.x ;
+		for (i = 0 ; i < m ; i++)
+		{
+			sr = yx [2*i] ; si = yx [2*i+1] ;
+			for (p = Rp [i] ; p < Rp [i+1] ; p++)
+			{
+				j = Rj [p] ;
+				sr += Rx [2*p] * xx [2*j] - Rx [2*p+1] * xx [2*j+1] ;
+				si += Rx [2*p+1] * xx [2*j] + Rx [2*p] * xx [2*j+1] ;
+			}
+			yx [2*i] = sr ; yx [2*i+1] = si ;
+		}
+		return (true) ;
+	}
+
+	/**
+	 * Extracts rows lo to hi-1 of a compressed-row matrix.
+	 *
+	 * @param R
+	 *            compressed-row matrix
+	 * @param lo
+	 *            first row
+	 * @param hi
+	 *            one past the last row
+	 * @return R(lo:hi-1,:), without a map, null on error
+	 */
+	public static DZcsr cs_csr_rows (DZcsr R, int lo, int hi)
+	{
+		int i, p0, nz, Rp[], Cp[] ;
+		DZcsr C ;
+		if (R == null || R.p == null || lo < 0 || hi > R.m || lo > hi) return (null) ;	/* check inputs */
+		Rp = R.p ; p0 = Rp [lo] ; nz = Rp [hi] - p0 ;
+		C = new DZcsr () ;
+		C.m = hi - lo ; C.n = R.n ; C.nzmax = nz ;
+		C.p = Cp = new int [hi - lo + 1] ;
+		for (i = lo ; i <= hi ; i++) Cp [i - lo] = Rp [i] - p0 ;
+		C.j = new int [nz] ;
+		System.arraycopy (R.j, p0, C.j, 0, nz) ;
+		if (R.x != null)
+		{
+			C.x = new double [2 * nz] ;
+			System.arraycopy (R.x, 2 * p0, C.x, 0, 2 * nz) ;
+		}
+		return (C) ;
+	}
+
+}
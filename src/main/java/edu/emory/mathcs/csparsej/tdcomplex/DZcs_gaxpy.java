@@ -28,8 +28,6 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cplus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
 
 /**
  * Sparse matrix times dense vector.
@@ -54,14 +52,16 @@ public class DZcs_gaxpy {
 	public static boolean cs_gaxpy (DZcs A, DZcsa x, DZcsa y)
 	{
 		int p, j, n, Ap[], Ai[] ;
-		DZcsa Ax = new DZcsa() ;
+		double Ax[], xx[], yx[], xr, xi ;
 		if (!CS_CSC (A) || x == null || y == null) return (false) ;	/* check inputs */
-		n = A.n ; Ap = A.p ; Ai = A.i ; Ax.x = A.x ;
+		n = A.n ; Ap = A.p ; Ai = A.i ; Ax = A.x ; xx = x.x ; yx = y.x ;
 		for (j = 0 ; j < n ; j++)
 		{
+			xr = xx [2*j] ; xi = xx [2*j+1] ;
 			for (p = Ap [j] ; p < Ap [j+1] ; p++)
 			{
-				y.set(Ai [p], cs_cplus(y.get(Ai [p]), cs_cmult(Ax.get(p), x.get(j)))) ;
+				yx [2*Ai [p]] += Ax [2*p] * xr - Ax [2*p+1] * xi ;
+				yx [2*Ai [p]+1] += Ax [2*p+1] * xr + Ax [2*p] * xi ;
 			}
 		}
 		return (true) ;
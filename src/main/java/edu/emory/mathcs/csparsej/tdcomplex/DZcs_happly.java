@@ -28,11 +28,6 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_czero ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cplus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_conj ;
 
 /**
  * Apply Householder reflection.
@@ -60,18 +55,19 @@ public class DZcs_happly {
 	public static boolean cs_happly(DZcs V, int i, double beta, DZcsa x)
 	{
 		int p, Vp[], Vi[] ;
-		DZcsa Vx = new DZcsa() ;
-		double[] tau = cs_czero() ;
+		double Vx[], xx[], tr = 0, ti = 0 ;
 		if (!CS_CSC (V) || x == null) return (false) ;	/* check inputs */
-		Vp = V.p ; Vi = V.i ; Vx.x = V.x ;
+		Vp = V.p ; Vi = V.i ; Vx = V.x ; xx = x.x ;
 		for (p = Vp [i] ; p < Vp [i+1] ; p++)		/* tau = v'*x */
 		{
-		    tau = cs_cplus(tau, cs_cmult(cs_conj(Vx.get(p)), x.get(Vi [p]))) ;
+			tr += Vx [2*p] * xx [2*Vi [p]] + Vx [2*p+1] * xx [2*Vi [p]+1] ;
+			ti += Vx [2*p] * xx [2*Vi [p]+1] - Vx [2*p+1] * xx [2*Vi [p]] ;
 		}
-		tau = cs_cmult(tau, beta) ;			/* tau = beta*(v'*x) */
+		tr *= beta ; ti *= beta ;			/* tau = beta*(v'*x) */
 		for (p = Vp [i] ; p < Vp [i+1] ; p++) 		/* x = x - v*tau */
 		{
-			x.set(Vi [p], cs_cminus(x.get(Vi [p]), cs_cmult(Vx.get(p), tau))) ;
+			xx [2*Vi [p]] -= Vx [2*p] * tr - Vx [2*p+1] * ti ;
+			xx [2*Vi [p]+1] -= Vx [2*p+1] * tr + Vx [2*p] * ti ;
 		}
 		return (true) ;
 	}
@@ -26,15 +26,7 @@ package edu.emory.mathcs.csparsej.tdcomplex;
 
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa;
 
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_czero ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cplus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_conj ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_csqrt ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cequal ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cabs ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_creal ;
 
 /**
  * Compute Householder reflection.
@@ -61,29 +53,36 @@ public class DZcs_house {
 	 */
 	public static double [] cs_house(DZcsa x, int x_offset, double[] beta, int n)
 	{
-		double[] s = cs_czero() ;
-		int i ;
+		double xx[], sr = 0, si = 0, a, scalar ;
+		int i, k ;
 		if (x == null) return new double [] {-1.0, 0.0} ;	/* check inputs */
-		/* s = norm(x) */
-		for (i = 0 ; i < n ; i++)  // TODO: check i = 1
-			s = cs_cplus(s, cs_cmult(x.get(x_offset + i), cs_conj(x.get(x_offset + i)))) ;
-		s = cs_csqrt(s) ;
-		if (cs_cequal(s, cs_czero()))
+		xx = x.x ;
+		for (i = 0 ; i < n ; i++)		/* s = norm(x), x*conj(x) is real */
+		{
+			k = 2 * (x_offset + i) ;
+			sr += xx [k] * xx [k] + xx [k+1] * xx [k+1] ;
+		}
+		sr = Math.sqrt(sr) ;
+		k = 2 * x_offset ;
+		if (sr <= 1e-14)			/* s == 0 (see cs_cequal) */
 		{
 			beta [0] = 0.0 ;
-			x.set(x_offset + 0, 1.0, 0.0) ;
+			xx [k] = 1.0 ; xx [k+1] = 0.0 ;
 		}
 		else
 		{
 			/* s = sign(x[0]) * norm (x) ; */
-			if (!cs_cequal(x.get(x_offset + 0), cs_czero()))
+			a = cs_cabs(xx [k], xx [k+1]) ;
+			if (a > 1e-14)
 			{
-				s = cs_cmult(s, cs_cdiv(x.get(x_offset + 0), new double [] {cs_cabs(x.get(x_offset + 0)), 0.0})) ;
+				scalar = 1.0 / a ;
+				si = sr * (scalar * xx [k+1]) ;
+				sr = sr * (scalar * xx [k]) ;
 			}
-			x.set(x_offset + 0, cs_cplus(x.get(x_offset + 0), s)) ;
-			beta [0] = 1 / cs_creal( cs_cmult(cs_conj(s), x.get(x_offset + 0)) ) ;
+			xx [k] += sr ; xx [k+1] += si ;
+			beta [0] = 1 / (sr * xx [k] + si * xx [k+1]) ;
 		}
-		return cs_cmult(s, -1) ;
+		return new double [] {-sr, -si} ;
 	}
 
 }
@@ -50,9 +50,16 @@ public class DZcs_ipvec {
 	 */
 	public static boolean cs_ipvec(int [] p, DZcsa b, DZcsa x, int n)
 	{
-		int k ;
+		int k, j ;
+		double bx[], xx[] ;
 		if (x == null || b == null) return (false) ;	/* check inputs */
-		for (k = 0 ; k < n ; k++) x.set(p != null ? p [k] : k, b.get(k)) ;
+		bx = b.x ; xx = x.x ;
+		for (k = 0 ; k < n ; k++)
+		{
+			j = p != null ? p [k] : k ;
+			xx [2*j] = bx [2*k] ;
+			xx [2*j+1] = bx [2*k+1] ;
+		}
 		return (true) ;
 	}
 
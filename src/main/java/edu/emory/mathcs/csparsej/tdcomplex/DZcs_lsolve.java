@@ -29,8 +29,6 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
 
 /**
  * Solve a lower triangular system Lx=b.
@@ -54,15 +52,18 @@ public class DZcs_lsolve {
 	public static boolean cs_lsolve(DZcs L, DZcsa x)
 	{
 		int p, j, n, Lp[], Li[] ;
-		DZcsa Lx = new DZcsa() ;
+		double Lx[], xx[], xr, xi ;
 		if (!CS_CSC (L) || x == null) return (false);	/* check inputs */
-		n = L.n ; Lp = L.p ; Li = L.i ; Lx.x = L.x ;
+		n = L.n ; Lp = L.p ; Li = L.i ; Lx = L.x ; xx = x.x ;
 		for (j = 0 ; j < n ; j++)
 		{
-			x.set(j, cs_cdiv(x.get(j), Lx.get(Lp [j]))) ;
+			p = Lp [j] ;
+			cs_cdiv (xx, j, Lx [2*p], Lx [2*p+1]) ;	/* x(j) /= L(j,j) */
+			xr = xx [2*j] ; xi = xx [2*j+1] ;
 			for (p = Lp [j]+1 ; p < Lp [j+1] ; p++)
 			{
-				x.set(Li [p], cs_cminus(x.get(Li [p]), cs_cmult(Lx.get(p), x.get(j)))) ;
+				xx [2*Li [p]] -= Lx [2*p] * xr - Lx [2*p+1] * xi ;
+				xx [2*Li [p]+1] -= Lx [2*p+1] * xr + Lx [2*p] * xi ;
 			}
 		}
 		return (true) ;
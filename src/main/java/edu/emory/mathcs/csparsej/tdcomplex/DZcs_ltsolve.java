@@ -28,10 +28,7 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_conj ;
 
 /**
  * Solve an upper triangular system L'x=b.
@@ -55,16 +52,20 @@ public class DZcs_ltsolve {
 	public static boolean cs_ltsolve(DZcs L, DZcsa x)
 	{
 		int p, j, n, Lp[], Li[] ;
-		DZcsa Lx = new DZcsa() ;
+		double Lx[], xx[], xr, xi ;
 		if (!CS_CSC (L) || x == null) return (false) ;	/* check inputs */
-		n = L.n ; Lp = L.p ; Li = L.i ; Lx.x = L.x ;
+		n = L.n ; Lp = L.p ; Li = L.i ; Lx = L.x ; xx = x.x ;
 		for (j = n-1 ; j >= 0 ; j--)
 		{
-			for (p = Lp [j] + 1 ; p < Lp [j+1] ; p++)
+			xr = xx [2*j] ; xi = xx [2*j+1] ;
+			for (p = Lp [j] + 1 ; p < Lp [j+1] ; p++)	/* x(j) -= conj(L(i,j)) * x(i) */
 			{
-				x.set(j, cs_cminus(x.get(j), cs_cmult(cs_conj(Lx.get(p)), x.get(Li [p])) )) ;
+				xr -= Lx [2*p] * xx [2*Li [p]] + Lx [2*p+1] * xx [2*Li [p]+1] ;
+				xi -= Lx [2*p] * xx [2*Li [p]+1] - Lx [2*p+1] * xx [2*Li [p]] ;
 			}
-			x.set(j, cs_cdiv(x.get(j), cs_conj( Lx.get(Lp [j]) ))) ;
+			xx [2*j] = xr ; xx [2*j+1] = xi ;
+			p = Lp [j] ;
+			cs_cdiv (xx, j, Lx [2*p], -Lx [2*p+1]) ;	/* x(j) /= conj(L(j,j)) */
 		}
 		return (true) ;
 	}
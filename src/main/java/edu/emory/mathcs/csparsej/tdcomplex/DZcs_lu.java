@@ -33,8 +33,6 @@ import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.cs_spalloc ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.cs_sprealloc ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.cs_ndone ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_czero ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cone ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cabs ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_spsolve.cs_spsolve ;
@@ -63,9 +61,8 @@ public class DZcs_lu {
 	{
 		DZcs L, U ;
 		DZcsn N ;
-		double[] pivot ;
-		DZcsa Lx = new DZcsa(), Ux = new DZcsa(), x ;
-		double a, t ;
+		DZcsa x ;
+		double Lx[], Ux[], xx[], a, t, pr, pim ;
 		int Lp[], Li[], Up[], Ui[], pinv[], xi[], q[], n, ipiv, k, top, p, i, col, lnz, unz ;
 		if (!CS_CSC(A) || S == null) return (null) ;	/* check inputs */
 		n = A.n ;
@@ -76,8 +73,8 @@ public class DZcs_lu {
 		N.L = L = cs_spalloc (n, n, lnz, true, false) ;		/* allocate result L */
 		N.U = U = cs_spalloc (n, n, unz, true, false) ;		/* allocate result U */
 		N.pinv = pinv = new int [n] ;				/* allocate result pinv */
-		Lp = L.p ; Up = U.p ;
-		for (i = 0 ; i < n ; i++) x.set(i, cs_czero()) ;	/* clear workspace */
+		Lp = L.p ; Up = U.p ; xx = x.x ;
+		for (i = 0 ; i < 2 * n ; i++) xx [i] = 0 ;		/* clear workspace */
 		for (i = 0 ; i < n ; i++) pinv [i] = -1 ;		/* no rows pivotal yet */
 		for (k = 0 ; k <= n ; k++) Lp [k] = 0 ;			/* no cols of L yet */
 		lnz = unz = 0 ;
@@ -94,7 +91,7 @@ public class DZcs_lu {
 			{
 				cs_sprealloc(U, 2 * U.nzmax + n) ;
 			}
-			Li = L.i ; Lx.x = L.x ; Ui = U.i ; Ux.x = U.x ;
+			Li = L.i ; Lx = L.x ; Ui = U.i ; Ux = U.x ;
 			col = q != null ? (q [k]) : k ;
 			top = cs_spsolve(L, A, col, xi, x, pinv, true) ;  /* x = L\A(:,col) */
 			/* --- Find pivot --------------------------------------------------- */
@@ -105,7 +102,7 @@ public class DZcs_lu {
 				i = xi [p] ;			/* x(i) is nonzero */
 				if (pinv [i] < 0) /* row i is not yet pivotal */
 				{
-					if ((t = cs_cabs(x.get(i))) > a)
+					if ((t = cs_cabs(xx [2*i], xx [2*i+1])) > a)
 					{
 						a = t;		/* largest pivot candidate so far */
 						ipiv = i ;
@@ -114,27 +111,32 @@ public class DZcs_lu {
 				else 				/* x(i) is the entry U(pinv[i],k) */
 				{
 					Ui [unz] = pinv [i] ;
-					Ux.set(unz++, x.get(i)) ;
+					Ux [2*unz] = xx [2*i] ; Ux [2*unz+1] = xx [2*i+1] ;
+					unz++ ;
 				}
 			}
 			if (ipiv == -1 || a <= 0) return (cs_ndone (N, null, xi, x, false)) ;
-			if (pinv [col] < 0 && cs_cabs(x.get(col)) >= a * tol) ipiv = col ;
+			if (pinv [col] < 0 && cs_cabs(xx [2*col], xx [2*col+1]) >= a * tol) ipiv = col ;
 			/* --- Divide by pivot ---------------------------------------------- */
-			pivot = x.get(ipiv) ;			/* the chosen pivot */
+			pr = xx [2*ipiv] ; pim = xx [2*ipiv+1] ;	/* the chosen pivot */
 			Ui [unz] = k ;				/* last entry in U(:,k) is U(k,k) */
-			Ux.set(unz++, pivot) ;
+			Ux [2*unz] = pr ; Ux [2*unz+1] = pim ;
+			unz++ ;
 			pinv [ipiv] = k ;			/* ipiv is the kth pivot row */
 			Li [lnz] = ipiv ;			/* first entry in L(:,k) is L(k,k) = 1 */
-			Lx.set(lnz++, cs_cone()) ;
+			Lx [2*lnz] = 1 ; Lx [2*lnz+1] = 0 ;
+			lnz++ ;
 			for (p = top ; p < n ; p++)		/* L(k+1:n,k) = x / pivot */
 			{
 				i = xi [p] ;
 				if (pinv [i] < 0)		/* x(i) is an entry in L(:,k) */
 				{
 					Li [lnz] = i ;		/* save unpermuted row in L */
-					Lx.set(lnz++, cs_cdiv(x.get(i), pivot)) ;  /* scale pivot column */
+					cs_cdiv (xx, i, pr, pim) ;	/* scale pivot column */
+					Lx [2*lnz] = xx [2*i] ; Lx [2*lnz+1] = xx [2*i+1] ;
+					lnz++ ;
 				}
-				x.set(i, cs_czero()) ;		/* x [0..n-1] = 0 for next k */
+				xx [2*i] = 0 ; xx [2*i+1] = 0 ;	/* x [0..n-1] = 0 for next k */
 			}
 		}
 		/* --- Finalize L and U ------------------------------------------------- */
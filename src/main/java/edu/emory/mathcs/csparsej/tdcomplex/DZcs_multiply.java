@@ -55,16 +55,18 @@ public class DZcs_multiply {
 	public static DZcs cs_multiply(DZcs A, DZcs B)
 	{
 		int p, j, nz = 0, anz, Cp[], Ci[], Bp[], m, n, bnz, w[], Bi[] ;
-		DZcsa x, Bx = new DZcsa(), Cx = new DZcsa() ;
+		double Bx[], Cx[], xx[], beta[] ;
+		DZcsa x ;
 		boolean values ;
 		DZcs C ;
 		if (!CS_CSC (A) || !CS_CSC (B)) return (null) ;		/* check inputs */
 		if (A.n != B.m) return (null) ;
 		m = A.m ; anz = A.p [A.n] ;
-		n = B.n ; Bp = B.p ; Bi = B.i ; Bx.x = B.x ; bnz = Bp [n] ;
+		n = B.n ; Bp = B.p ; Bi = B.i ; Bx = B.x ; bnz = Bp [n] ;
 		w = new int [m] ;					/* get workspace */
-		values = (A.x != null) && (Bx.x != null) ;
+		values = (A.x != null) && (Bx != null) ;
 		x = values ? new DZcsa (m) : null ;			/* get workspace */
+		beta = cs_cone () ;
 		C = cs_spalloc (m, n, anz + bnz, values, false);	/* allocate result */
 		if (C == null || w == null || (values && x == null)) return (cs_done (C, w, x, false)) ;
 		Cp = C.p ;
@@ -74,13 +76,24 @@ public class DZcs_multiply {
 			{
 				return (cs_done (C, w, x, false)) ;	/* out of memory */
 			}
-			Ci = C.i ; Cx.x = C.x ;				/* C.i and C.x may be reallocated */
+			Ci = C.i ; Cx = C.x ;				/* C.i and C.x may be reallocated */
 			Cp [j] = nz ;					/* column j of C starts here */
 			for (p = Bp [j]; p < Bp [j+1] ; p++)
 			{
-				nz = cs_scatter (A, Bi[p], (Bx.x != null) ? Bx.get(p) : cs_cone(), w, x, j+1, C, nz) ;
+				if (Bx != null)
+				{
+					beta [0] = Bx [2*p] ; beta [1] = Bx [2*p+1] ;
+				}
+				nz = cs_scatter (A, Bi[p], beta, w, x, j+1, C, nz) ;
+			}
+			if (values)
+			{
+				xx = x.x ;
+				for (p = Cp [j]; p < nz; p++)
+				{
+					Cx [2*p] = xx [2*Ci [p]] ; Cx [2*p+1] = xx [2*Ci [p]+1] ;
+				}
 			}
-			if (values) for (p = Cp [j]; p < nz; p++) Cx.set(p, x.get(Ci [p])) ;
 		}
 		Cp [n] = nz ; 						/* finalize the last column of C */
 		cs_sprealloc (C, 0);					/* remove extra space from C */
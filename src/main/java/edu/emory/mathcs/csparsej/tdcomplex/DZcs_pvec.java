@@ -50,9 +50,16 @@ public class DZcs_pvec {
 	 */
 	public static boolean cs_pvec(int [] p, DZcsa b, DZcsa x, int n)
 	{
-		int k ;
+		int k, j ;
+		double bx[], xx[] ;
 		if (x == null || b == null) return (false) ;	/* check inputs */
-		for (k = 0 ; k < n ; k++) x.set(k, b.get(p != null ? p [k] : k)) ;
+		bx = b.x ; xx = x.x ;
+		for (k = 0 ; k < n ; k++)
+		{
+			j = p != null ? p [k] : k ;
+			xx [2*k] = bx [2*j] ;
+			xx [2*k+1] = bx [2*j+1] ;
+		}
 		return (true) ;
 	}
 
@@ -58,7 +58,7 @@ public class DZcs_qr {
 	public static DZcsn cs_qr(DZcs A, DZcss S)
 	{
 		DZcsa Rx = new DZcsa(), Vx = new DZcsa(), Ax = new DZcsa(), x ;
-		double Beta[] ;
+		double Beta[], beta[], zero[] ;
 		int i, k, p, n, vnz, p1, top, m2, len, col, rnz, s[], leftmost[], Ap[], Ai[],
 			parent[], Rp[], Ri[], Vp[], Vi[], w[], pinv[], q[] ;
 		DZcs R, V ;
@@ -71,6 +71,8 @@ public class DZcs_qr {
 		x = new DZcsa (m2) ;			/* get double workspace */
 		N = new DZcsn () ;			/* allocate result */
 		s = new int [n] ; 			/* get int workspace, s is size n */
+		beta = new double [1] ;
+		zero = cs_czero () ;
 		//for (k = 0 ; k < m2 ; k++) x.set(k, cs_czero()) ; 	/* clear workspace x */
 		N.L = V = cs_spalloc(m2, n, vnz, true, false) ;  	/* allocate result V */
 		N.U = R = cs_spalloc(m2, n, rnz, true, false) ;  	/* allocate result R */
@@ -114,7 +116,7 @@ public class DZcs_qr {
 				Rx.set(rnz++, x.real(i), x.imag(i)) ;
 				x.set(i, 0.0, 0.0) ;
 				if (parent [i] == k)
-					vnz = cs_scatter (V, i, cs_czero(), w, null, k, V, vnz) ;
+					vnz = cs_scatter (V, i, zero, w, null, k, V, vnz) ;
 			}
 			for (p = p1 ; p < vnz ; p++)	/* gather V(:,k) = x */
 			{
@@ -122,7 +124,7 @@ public class DZcs_qr {
 				x.set(Vi [p], 0.0, 0.0) ;
 			}
 			Ri [rnz] = k ;			/* R(k,k) = norm (x) */
-			double[] beta = new double[] {Beta [k]} ;
+			beta [0] = Beta [k] ;
 			Rx.set(rnz++, cs_house(Vx, p1, beta, vnz - p1)) ;  /* [v,beta]=house(x) */
 			Beta [k] = beta [0] ;
 		}
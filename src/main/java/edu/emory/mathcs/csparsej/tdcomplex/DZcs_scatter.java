@@ -28,8 +28,6 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cplus ;
 
 /**
  * Scatter a sparse vector.
@@ -65,9 +63,11 @@ public class DZcs_scatter {
 	public static int cs_scatter(DZcs A, int j, double[] beta, int[] w, DZcsa x, int mark, DZcs C, int nz)
 	{
 		int i, p, Ap[], Ai[], Ci[] ;
-		DZcsa Ax = new DZcsa() ;
+		double Ax[], xx[], br, bi ;
 		if (!CS_CSC(A) || (w == null) || !CS_CSC(C)) return (-1) ;	/* check inputs */
-		Ap = A.p ; Ai = A.i ; Ax.x = A.x ; Ci = C.i ;
+		Ap = A.p ; Ai = A.i ; Ax = A.x ; Ci = C.i ;
+		xx = (x != null) ? x.x : null ;
+		br = beta [0] ; bi = beta [1] ;
 		for (p = Ap [j]; p < Ap [j+1] ; p++)
 		{
 			i = Ai [p] ;		/* A(i,j) is nonzero */
@@ -75,12 +75,16 @@ public class DZcs_scatter {
 			{
 				w [i] = mark ;	/* i is new entry in column j */
 				Ci [nz++] = i ;	/* add i to pattern of C(:,j) */
-				if (x != null)
-					x.set(i, cs_cmult(beta, Ax.get(p))) ;  /* x(i) = beta*A(i,j) */
+				if (xx != null)
+				{
+					xx [2*i] = br * Ax [2*p] - bi * Ax [2*p+1] ;  /* x(i) = beta*A(i,j) */
+					xx [2*i+1] = bi * Ax [2*p] + br * Ax [2*p+1] ;
+				}
 			}
-			else if (x != null)
+			else if (xx != null)
 			{
-				x.set(i, cs_cplus(x.get(i), cs_cmult(beta, Ax.get(p))));  /* i exists in C(:,j) already */
+				xx [2*i] += br * Ax [2*p] - bi * Ax [2*p+1] ;  /* i exists in C(:,j) already */
+				xx [2*i+1] += bi * Ax [2*p] + br * Ax [2*p+1] ;
 			}
 		}
 		return (nz) ;
@@ -28,10 +28,7 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_czero ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_reach.cs_reach ;
 
 /**
@@ -67,26 +64,33 @@ public class DZcs_spsolve {
 	public static int cs_spsolve(DZcs G, DZcs B, int k, int[] xi, DZcsa x, int[] pinv, boolean lo)
 	{
 		int j, J, p, q, px, top, n, Gp[], Gi[], Bp[], Bi[] ;
-		DZcsa Gx = new DZcsa(), Bx = new DZcsa() ;
+		double Gx[], Bx[], xx[], re, im ;
 		if (!CS_CSC (G) || !CS_CSC (B) || xi == null || x == null) return (-1) ;
-		Gp = G.p ; Gi = G.i ; Gx.x = G.x ; n = G.n ;
-		Bp = B.p ; Bi = B.i ; Bx.x = B.x ;
+		Gp = G.p ; Gi = G.i ; Gx = G.x ; n = G.n ;
+		Bp = B.p ; Bi = B.i ; Bx = B.x ; xx = x.x ;
 		top = cs_reach (G, B, k, xi, pinv) ;		/* xi[top..n-1]=Reach(B(:,k)) */
 		for (p = top ; p < n ; p++)
-		    x.set(xi [p], cs_czero()) ;			/* clear x */
+		{
+			xx [2*xi [p]] = 0 ; xx [2*xi [p]+1] = 0 ;	/* clear x */
+		}
 		for (p = Bp [k] ; p < Bp [k+1] ; p++)
-		    x.set(Bi [p], Bx.get(p)) ;			/* scatter B */
+		{
+			xx [2*Bi [p]] = Bx [2*p] ; xx [2*Bi [p]+1] = Bx [2*p+1] ;	/* scatter B */
+		}
 		for (px = top ; px < n ; px++)
 		{
 			j = xi [px] ;				/* x(j) is nonzero */
 			J = pinv != null ? (pinv [j]) : j ;	/* j maps to col J of G */
 			if (J < 0) continue ;			/* column J is empty */
-			x.set(j, cs_cdiv (x.get(j), Gx.get(lo ? (Gp [J]) : (Gp [J+1]-1)))) ;  /* x(j) /= G(j,j) */
+			p = lo ? (Gp [J]) : (Gp [J+1]-1) ;
+			cs_cdiv (xx, j, Gx [2*p], Gx [2*p+1]) ;	/* x(j) /= G(j,j) */
+			re = xx [2*j] ; im = xx [2*j+1] ;
 			p = lo ? (Gp [J] + 1) : (Gp [J]) ;	/* lo: L(j,j) 1st entry */
 			q = lo ? (Gp [J + 1]) : (Gp [J+1]-1) ;	/* up: U(j,j) last entry */
 			for ( ; p < q ; p++)
 			{
-				x.set(Gi[p], cs_cminus(x.get(Gi[p]), cs_cmult(Gx.get(p), x.get(j)))) ;  /* x(i) -= G(i,j) * x(j) */
+				xx [2*Gi [p]] -= Gx [2*p] * re - Gx [2*p+1] * im ;  /* x(i) -= G(i,j) * x(j) */
+				xx [2*Gi [p]+1] -= Gx [2*p+1] * re + Gx [2*p] * im ;
 			}
 		}
 		return (top) ;					/* return top of stack */
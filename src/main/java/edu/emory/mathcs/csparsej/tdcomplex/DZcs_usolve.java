@@ -29,8 +29,6 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
 
 /**
  * Solve an upper triangular system Ux=b.
@@ -54,15 +52,18 @@ public class DZcs_usolve {
 	public static boolean cs_usolve(DZcs U, DZcsa x)
 	{
 		int p, j, n, Up[], Ui[] ;
-		DZcsa Ux = new DZcsa() ;
+		double Ux[], xx[], xr, xi ;
 		if (!CS_CSC(U) || x == null) return (false) ;	/* check inputs */
-		n = U.n ; Up = U.p ; Ui = U.i ; Ux.x = U.x ;
+		n = U.n ; Up = U.p ; Ui = U.i ; Ux = U.x ; xx = x.x ;
 		for (j = n - 1 ; j >= 0 ; j--)
 		{
-			x.set(j, cs_cdiv(x.get(j), Ux.get(Up [j+1] - 1))) ;
+			p = Up [j+1] - 1 ;
+			cs_cdiv (xx, j, Ux [2*p], Ux [2*p+1]) ;	/* x(j) /= U(j,j) */
+			xr = xx [2*j] ; xi = xx [2*j+1] ;
 			for (p = Up [j] ; p < Up [j+1] - 1 ; p++)
 			{
-				x.set(Ui [p], cs_cminus(x.get(Ui [p]), cs_cmult(Ux.get(p), x.get(j)))) ;
+				xx [2*Ui [p]] -= Ux [2*p] * xr - Ux [2*p+1] * xi ;
+				xx [2*Ui [p]+1] -= Ux [2*p+1] * xr + Ux [2*p] * xi ;
 			}
 		}
 		return (true) ;
@@ -28,10 +28,7 @@ import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
 import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
 
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_util.CS_CSC ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cmult ;
 import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cdiv ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_cminus ;
-import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_complex.cs_conj ;
 
 /**
  * Solve a lower triangular system U'x=b.
@@ -55,16 +52,20 @@ public class DZcs_utsolve {
 	public static boolean cs_utsolve(DZcs U, DZcsa x)
 	{
 		int p, j, n, Up[], Ui[] ;
-		DZcsa Ux = new DZcsa() ;
+		double Ux[], xx[], xr, xi ;
 		if (!CS_CSC(U) || x == null) return (false) ;		/* check inputs */
-		n = U.n ; Up = U.p ; Ui = U.i ; Ux.x = U.x ;
+		n = U.n ; Up = U.p ; Ui = U.i ; Ux = U.x ; xx = x.x ;
 		for (j = 0 ; j < n ; j++)
 		{
-			for (p = Up [j] ; p < Up [j+1] - 1 ; p++)
+			xr = xx [2*j] ; xi = xx [2*j+1] ;
+			for (p = Up [j] ; p < Up [j+1] - 1 ; p++)	/* x(j) -= conj(U(i,j)) * x(i) */
 			{
-				x.set(j, cs_cminus(x.get(j), cs_cmult(cs_conj(Ux.get(p)), x.get(Ui [p])))) ;
+				xr -= Ux [2*p] * xx [2*Ui [p]] + Ux [2*p+1] * xx [2*Ui [p]+1] ;
+				xi -= Ux [2*p] * xx [2*Ui [p]+1] - Ux [2*p+1] * xx [2*Ui [p]] ;
 			}
-			x.set(j, cs_cdiv(x.get(j), cs_conj(Ux.get(Up [j + 1] - 1)))) ;
+			xx [2*j] = xr ; xx [2*j+1] = xi ;
+			p = Up [j+1] - 1 ;
+			cs_cdiv (xx, j, Ux [2*p], -Ux [2*p+1]) ;	/* x(j) /= conj(U(j,j)) */
 		}
 		return (true) ;
 	}
@@ -82,4 +82,110 @@ public class Dcs_add {
         return C; /* success; free workspace, return C */
     }
 
+    /**
+     * Symbolic sparse matrix addition, the pattern of C = A + B. C has the
+     * same pattern as the result of cs_add, allocated to its exact size, and
+     * zero values to be filled in by cs_add_numeric.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @return pattern of C = A + B, null on error
+     */
+    public static Dcs cs_add_symbolic(Dcs A, Dcs B) {
+        int p, j, nz, Ap[], Ai[], Bp[], Bi[], Cp[], m, n, w[];
+        Dcs C;
+        if (!Dcs_util.CS_CSC(A) || !Dcs_util.CS_CSC(B))
+            return (null); /* check inputs */
+        if (A.m != B.m || A.n != B.n)
+            return (null);
+        m = A.m;
+        n = B.n;
+        Ap = A.p;
+        Ai = A.i;
+        Bp = B.p;
+        Bi = B.i;
+        w = new int[m]; /* get workspace */
+        for (j = 0, nz = 0; j < n; j++) /* count the entries of C */
+        {
+            for (p = Ap[j]; p < Ap[j + 1]; p++) {
+                if (w[Ai[p]] < j + 1) {
+                    w[Ai[p]] = j + 1;
+                    nz++;
+                }
+            }
+            for (p = Bp[j]; p < Bp[j + 1]; p++) {
+                if (w[Bi[p]] < j + 1) {
+                    w[Bi[p]] = j + 1;
+                    nz++;
+                }
+            }
+        }
+        C = Dcs_util.cs_spalloc(m, n, nz, true, false); /* allocate result */
+        Cp = C.p;
+        for (p = 0; p < m; p++)
+            w[p] = 0; /* clear workspace */
+        for (j = 0, nz = 0; j < n; j++) {
+            Cp[j] = nz; /* column j of C starts here */
+            nz = Dcs_scatter.cs_scatter(A, j, 1, w, null, j + 1, C, nz); /* A(:,j) */
+            nz = Dcs_scatter.cs_scatter(B, j, 1, w, null, j + 1, C, nz); /* B(:,j) */
+        }
+        Cp[n] = nz; /* finalize the last column of C */
+        return (C);
+    }
+
+    /**
+     * Numeric sparse matrix addition, C = alpha*A + beta*B, with the pattern
+     * of C from cs_add_symbolic of matrices with the patterns of A and B. The
+     * values of C are overwritten; no memory is allocated if x is given.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @param alpha
+     *            scalar alpha
+     * @param beta
+     *            scalar beta
+     * @param C
+     *            pattern of A + B from cs_add_symbolic, values overwritten
+     *            with alpha*A + beta*B
+     * @param x
+     *            size A.m workspace, null to allocate one
+     * @return true if successful, false on error
+     */
+    public static boolean cs_add_numeric(Dcs A, Dcs B, double alpha, double beta, Dcs C, double[] x) {
+        int p, j, n, Ap[], Ai[], Bp[], Bi[], Cp[], Ci[];
+        double Ax[], Bx[], Cx[];
+        if (!Dcs_util.CS_CSC(A) || !Dcs_util.CS_CSC(B) || !Dcs_util.CS_CSC(C))
+            return (false); /* check inputs */
+        if (A.x == null || B.x == null || C.x == null || A.m != B.m || A.n != B.n || C.m != A.m || C.n != A.n
+                || (x != null && x.length < A.m))
+            return (false);
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        Bp = B.p;
+        Bi = B.i;
+        Bx = B.x;
+        Cp = C.p;
+        Ci = C.i;
+        Cx = C.x;
+        if (x == null)
+            x = new double[A.m]; /* get workspace */
+        for (j = 0; j < n; j++) {
+            for (p = Cp[j]; p < Cp[j + 1]; p++)
+                x[Ci[p]] = 0; /* clear x on the pattern of C(:,j) */
+            for (p = Ap[j]; p < Ap[j + 1]; p++)
+                x[Ai[p]] += alpha * Ax[p]; /* alpha*A(:,j) */
+            for (p = Bp[j]; p < Bp[j + 1]; p++)
+                x[Bi[p]] += beta * Bx[p]; /* beta*B(:,j) */
+            for (p = Cp[j]; p < Cp[j + 1]; p++)
+                Cx[p] = x[Ci[p]];
+        }
+        return (true);
+    }
+
 }
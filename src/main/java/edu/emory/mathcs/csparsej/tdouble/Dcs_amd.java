@@ -54,23 +54,52 @@ public class Dcs_amd {
     }
 
     /**
-     * Minimum degree ordering of A+A' (if A is symmetric) or A'A.
+     * Minimum degree ordering of A+A' (if A is symmetric) or A'A. For order 4
+     * the rows of A are used as the initial elements of the quotient graph
+     * (as in COLAMD), so A'A is never formed. This needs memory proportional
+     * to nnz(A) rather than nnz(A'A), which is much less for matrices with
+     * long rows.
      *
      * @param order
-     *            0:natural, 1:Chol, 2:LU, 3:QR
+     *            0:natural, 1:Chol, 2:LU, 3:QR, 4:LU or QR without forming A'A
      * @param A
      *            column-compressed matrix
      * @return amd(A+A') if A is symmetric, or amd(A'A) otherwise, null on error
      *         or for natural ordering
      */
     public static int[] cs_amd(int order, Dcs A) {
+        Dcs C;
+        int Cp[], dense, cnz, n, t;
+        if (!Dcs_util.CS_CSC(A) || order <= 0 || order > 4)
+            return (null); /* check */
+        if (order == 4)
+            return (cs_colamd(A));
+        C = cs_graph(order, A);
+        if (C == null)
+            return (null);
+        n = A.n;
+        dense = Math.max(16, 10 * (int) Math.sqrt(n)); /* find dense threshold */
+        dense = Math.min(n - 2, dense);
+        Cp = C.p;
+        cnz = Cp[n];
+        t = cnz + cnz / 5 + 2 * n; /* add elbow room to C */
+        Dcs_util.cs_sprealloc(C, t);
+        return (cs_amd(n, 0, Cp, C.i, cnz, dense));
+    }
+
+    /**
+     * Graph of A+A' (if A is symmetric) or A'A, as ordered by cs_amd.
+     *
+     * @param order
+     *            1:Chol, 2:LU, 3:QR
+     * @param A
+     *            column-compressed matrix
+     * @return pattern of A+A' or A'A with no diagonal entries, null on error
+     */
+    protected static Dcs cs_graph(int order, Dcs A) {
         Dcs C, A2, AT;
-        int Cp[], Ci[], last[], W[], len[], nv[], next[], P[], head[], elen[], degree[], w[], hhead[], ATp[], ATi[], d, dk, dext, lemax = 0, e, elenk, eln, i, j, k, k1, k2, k3, jlast, ln, dense, nzmax, mindeg = 0, nvi, nvj, nvk, mark, wnvi, cnz, nel = 0, p, p1, p2, p3, p4, pj, pk, pk1, pk2, pn, q, n, m, t;
-        int h;
-        boolean ok;
+        int ATp[], ATi[], dense, j, p, p2, n, m;
         /* --- Construct matrix C ----------------------------------------------- */
-        if (!Dcs_util.CS_CSC(A) || order <= 0 || order > 3)
-            return (null); /* check */
         AT = Dcs_transpose.cs_transpose(A, false); /* compute A' */
         if (AT == null)
             return (null);
@@ -102,34 +131,84 @@ public class Dcs_amd {
         if (C == null)
             return (null);
         Dcs_fkeep.cs_fkeep(C, new Cs_diag(), null); /* drop diagonal entries */
-        Cp = C.p;
-        cnz = Cp[n];
+        return (C);
+    }
+
+    /* quotient graph of A'A with the rows of A as elements, then amd */
+    private static int[] cs_colamd(Dcs A) {
+        int Ap[], Ai[], Cp[], Ci[], w[], dense, cnz, i, j, p, q, r, n, m;
+        m = A.m;
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        dense = Math.max(16, 10 * (int) Math.sqrt(n)); /* find dense threshold */
+        dense = Math.min(n - 2, dense);
+        w = new int[m]; /* get workspace */
+        for (p = 0; p < Ap[n]; p++)
+            w[Ai[p]]++; /* row counts */
+        Cp = new int[n + m + 2]; /* variables 0..n-1, element n, rows n+1..n+m */
+        for (cnz = 0, j = 0; j < n; j++) {
+            Cp[j] = cnz; /* list of rows in column j starts here */
+            for (p = Ap[j]; p < Ap[j + 1]; p++)
+                if (w[Ai[p]] <= dense)
+                    cnz++; /* skip dense rows */
+        }
+        Cp[n] = cnz;
+        for (i = 0; i < m; i++) {
+            Cp[n + 1 + i] = cnz; /* list of columns in row i starts here */
+            if (w[i] <= dense)
+                cnz += w[i];
+        }
+        Cp[n + m + 1] = cnz;
+        Ci = new int[cnz + cnz / 5 + 2 * n]; /* with elbow room */
+        for (i = 0; i < m; i++)
+            w[i] = Cp[n + 1 + i]; /* next entry in row i */
+        for (j = 0; j < n; j++) {
+            for (q = Cp[j], p = Ap[j]; p < Ap[j + 1]; p++) {
+                i = Ai[p];
+                r = n + 1 + i; /* element of row i */
+                if (Cp[r + 1] > Cp[r]) /* skip dense rows */
+                {
+                    Ci[q++] = r; /* row i is an element of column j */
+                    Ci[w[i]++] = j; /* column j is a node of row i */
+                }
+            }
+        }
+        return (cs_amd(n, m, Cp, Ci, cnz, dense));
+    }
+
+    /*
+     * Minimum degree on the quotient graph in Cp and Ci (with elbow room), for
+     * n nodes, and for m elements n+1 to n+m if m > 0. Node n is a dead
+     * element that absorbs dense nodes. Cp and Ci are destroyed.
+     */
+    private static int[] cs_amd(int n, int m, int[] Cp, int[] Ci, int cnz, int dense) {
+        int last[], W[], len[], nv[], next[], P[], head[], elen[], degree[], w[], hhead[], d, dk, dext, lemax = 0, e, elenk, eln, i, j, k, k1, k2, k3, jlast, ln, nzmax, mindeg = 0, nvi, nvj, nvk, mark, wnvi, nel = 0, p, p1, p2, p3, p4, pj, pk, pk1, pk2, pn, q, N;
+        int h;
+        boolean ok;
+        N = n + 1 + m; /* # of nodes and elements */
         P = new int[n + 1]; /* allocate result */
-        W = new int[8 * (n + 1)]; /* get workspace */
-        t = cnz + cnz / 5 + 2 * n; /* add elbow room to C */
-        Dcs_util.cs_sprealloc(C, t);
+        W = new int[8 * N]; /* get workspace */
         len = W;
         nv = W;
-        int nv_offset = n + 1;
+        int nv_offset = N;
         next = W;
-        int next_offset = 2 * (n + 1);
+        int next_offset = 2 * N;
         head = W;
-        int head_offset = 3 * (n + 1);
+        int head_offset = 3 * N;
         elen = W;
-        int elen_offset = 4 * (n + 1);
+        int elen_offset = 4 * N;
         degree = W;
-        int degree_offset = 5 * (n + 1);
+        int degree_offset = 5 * N;
         w = W;
-        int w_offset = 6 * (n + 1);
+        int w_offset = 6 * N;
         hhead = W;
-        int hhead_offset = 7 * (n + 1);
+        int hhead_offset = 7 * N;
         last = P; /* use P as workspace for last */
         /* --- Initialize quotient graph ---------------------------------------- */
-        for (k = 0; k < n; k++)
-            len[k] = Cp[k + 1] - Cp[k];
-        len[n] = 0;
-        nzmax = C.nzmax;
-        Ci = C.i;
+        for (k = 0; k < N; k++)
+            len[k] = (k == n) ? 0 : Cp[k + 1] - Cp[k];
+        nzmax = Ci.length;
         for (i = 0; i <= n; i++) {
             head[head_offset + i] = -1; /* degree list i is empty */
             last[i] = -1;
@@ -140,7 +219,26 @@ public class Dcs_amd {
             elen[elen_offset + i] = 0; /* Ek of node i is empty */
             degree[degree_offset + i] = len[i]; /* degree of node i */
         }
-        mark = cs_wclear(0, 0, w, w_offset, n); /* clear w */
+        for (i = n + 1; i < N; i++) /* row elements, if any */
+        {
+            nv[nv_offset + i] = 1;
+            w[w_offset + i] = 1; /* element i is alive */
+            elen[elen_offset + i] = -2; /* i is an element */
+            if (len[i] == 0) {
+                Cp[i] = -1; /* empty or dense row */
+                w[w_offset + i] = 0;
+            }
+        }
+        if (m > 0) {
+            for (i = 0; i < n; i++) /* node i is adjacent only to elements */
+            {
+                elen[elen_offset + i] = len[i];
+                for (d = 0, p = Cp[i]; p < Cp[i] + len[i] && d < n; p++)
+                    d += len[Ci[p]] - 1; /* |Le\i| summed over e in Ei */
+                degree[degree_offset + i] = Math.min(d, n - 1);
+            }
+        }
+        mark = cs_wclear(0, 0, w, w_offset, N); /* clear w */
         elen[elen_offset + n] = -2; /* n is a dead element */
         Cp[n] = -1; /* n is a root of assembly tree */
         w[w_offset + n] = 0; /* n is a dead element */
@@ -153,7 +251,7 @@ public class Dcs_amd {
                 nel++;
                 Cp[i] = -1; /* i is a root of assembly tree */
                 w[w_offset + i] = 0;
-            } else if (d > dense) /* node i is dense */
+            } else if ((m > 0 ? len[i] : d) > dense) /* node i is dense */
             {
                 nv[nv_offset + i] = 0; /* absorb i into element n */
                 elen[elen_offset + i] = -1; /* node i is dead */
@@ -167,6 +265,13 @@ public class Dcs_amd {
                 head[head_offset + d] = i;
             }
         }
+        for (e = n + 1; e < N; e++) /* |Le| of row elements, without dense nodes */
+        {
+            for (d = 0, p = Cp[e]; p < Cp[e] + len[e]; p++)
+                d += nv[nv_offset + Ci[p]];
+            degree[degree_offset + e] = d;
+            lemax = Math.max(lemax, d);
+        }
         while (nel < n) /* while (selecting pivots) do */
         {
             /* --- Select node of minimum approximate degree -------------------- */
@@ -180,7 +285,7 @@ public class Dcs_amd {
             nel += nvk; /* nv[nv_offset+k] nodes of A eliminated */
             /* --- Garbage collection ------------------------------------------- */
             if (elenk > 0 && cnz + mindeg >= nzmax) {
-                for (j = 0; j < n; j++) {
+                for (j = 0; j < N; j++) {
                     if ((p = Cp[j]) >= 0) /* j is a live node or element */
                     {
                         Cp[j] = Ci[p]; /* save first entry of object */
@@ -243,7 +348,7 @@ public class Dcs_amd {
             len[k] = pk2 - pk1;
             elen[elen_offset + k] = -2; /* k is now an element */
             /* --- Find set differences ----------------------------------------- */
-            mark = cs_wclear(mark, lemax, w, w_offset, n); /* clear w if necessary */
+            mark = cs_wclear(mark, lemax, w, w_offset, N); /* clear w if necessary */
             for (pk = pk1; pk < pk2; pk++) /* scan 1: find |Le\Lk| */
             {
                 i = Ci[pk];
@@ -312,7 +417,7 @@ public class Dcs_amd {
                     Ci[p3] = Ci[p1]; /* move 1st el. to end of Ei */
                     Ci[p1] = k; /* add k as 1st element in of Ei */
                     len[i] = pn - p1 + 1; /* new len of adj. list of node i */
-                    h %= n; /* finalize hash of i */
+                    h = (h & Integer.MAX_VALUE) % n; /* finalize hash of i */
                     next[next_offset + i] = hhead[hhead_offset + h]; /* place i in hash bucket */
                     hhead[hhead_offset + h] = i;
                     last[i] = h; /* save hash of i in last[i] */
@@ -320,7 +425,7 @@ public class Dcs_amd {
             } /* scan2 is done */
             degree[degree_offset + k] = dk; /* finalize |Lk| */
             lemax = Math.max(lemax, dk);
-            mark = cs_wclear(mark + lemax, lemax, w, w_offset, n); /* clear w */
+            mark = cs_wclear(mark + lemax, lemax, w, w_offset, N); /* clear w */
             /* --- Supernode detection ------------------------------------------ */
             for (pk = pk1; pk < pk2; pk++) {
                 i = Ci[pk];
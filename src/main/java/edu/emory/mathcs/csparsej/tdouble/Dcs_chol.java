@@ -45,8 +45,8 @@ public class Dcs_chol {
      * @return numeric Cholesky factorization, null on error
      */
     public static Dcsn cs_chol(Dcs A, Dcss S) {
-        double d, lki, Lx[], x[], Cx[];
-        int top, i, p, k, n, Li[], Lp[], cp[], pinv[], s[], c[], parent[], Cp[], Ci[];
+        double x[];
+        int n, c[], pinv[];
         Dcs L, C;
         Dcsn N;
         if (!Dcs_util.CS_CSC(A) || S == null || S.cp == null || S.parent == null)
@@ -55,16 +55,40 @@ public class Dcs_chol {
         N = new Dcsn(); /* allocate result */
         c = new int[2 * n]; /* get int workspace */
         x = new double[n]; /* get double workspace */
-        cp = S.cp;
         pinv = S.pinv;
-        parent = S.parent;
         C = pinv != null ? Dcs_symperm.cs_symperm(A, pinv, true) : A;
+        N.L = L = Dcs_util.cs_spalloc(n, n, S.cp[n], true, false); /* allocate result */
+        return cs_chol(C, S, L, c, x) ? N : null;
+    }
+
+    /**
+     * Numeric Cholesky factorization LL=C, where C=PAP' is already permuted,
+     * into preallocated storage.
+     * 
+     * @param C
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis
+     * @param L
+     *            lower triangular factor with room for S.cp[n] entries,
+     *            overwritten with the factor of C
+     * @param c
+     *            int workspace of size 2*n
+     * @param x
+     *            double workspace of size n
+     * @return true if successful, false if C is not positive definite
+     */
+    protected static boolean cs_chol(Dcs C, Dcss S, Dcs L, int[] c, double[] x) {
+        double d, lki, Lx[], Cx[];
+        int top, i, p, k, n, Li[], Lp[], cp[], s[], parent[], Cp[], Ci[];
+        n = C.n;
+        cp = S.cp;
+        parent = S.parent;
         s = c;
         int s_offset = n;
         Cp = C.p;
         Ci = C.i;
         Cx = C.x;
-        N.L = L = Dcs_util.cs_spalloc(n, n, cp[n], true, false); /* allocate result */
         Lp = L.p;
         Li = L.i;
         Lx = L.x;
@@ -98,12 +122,12 @@ public class Dcs_chol {
             }
             /* --- Compute L(k,k) ----------------------------------------------- */
             if (d <= 0)
-                return null; /* not pos def */
+                return (false); /* not pos def */
             p = c[k]++;
             Li[p] = k; /* store L(k,k) = sqrt (d) in column k */
             Lx[p] = Math.sqrt(d);
         }
         Lp[n] = cp[n]; /* finalize L */
-        return N;
+        return (true);
     }
 }
@@ -0,0 +1,153 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsrefactor;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Sparse Cholesky refactorization.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_chol_refactor {
+
+    /**
+     * Allocates the permuted matrix C=PAP', the map from the entries of A to
+     * the entries of C, and the workspace needed to refactorize matrices with
+     * the same pattern as A.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @return refactorization workspace, null on error
+     */
+    public static Dcsrefactor cs_chol_refactor_alloc(Dcs A, Dcss S) {
+        int i, j, p, i2, j2, n, nz, Ap[], Ai[], map[], w[], pinv[];
+        Dcsrefactor R;
+        if (!Dcs_util.CS_CSC(A) || S == null)
+            return (null); /* check inputs */
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        nz = Ap[n];
+        pinv = S.pinv;
+        R = new Dcsrefactor(); /* allocate result */
+        R.C = Dcs_symperm.cs_symperm(A, pinv, true); /* C = A(p,p) */
+        R.map = map = new int[nz];
+        R.Ap = new int[n + 1]; /* keep the pattern of A */
+        R.Ai = new int[nz];
+        System.arraycopy(Ap, 0, R.Ap, 0, n + 1);
+        System.arraycopy(Ai, 0, R.Ai, 0, nz);
+        R.w = w = new int[2 * n]; /* get int workspace */
+        R.x = new double[n]; /* get double workspace */
+        System.arraycopy(R.C.p, 0, w, 0, n);
+        for (j = 0; j < n; j++) /* same traversal as cs_symperm */
+        {
+            j2 = pinv != null ? pinv[j] : j;
+            for (p = Ap[j]; p < Ap[j + 1]; p++) {
+                i = Ai[p];
+                if (i > j) {
+                    map[p] = -1; /* lower triangular part of A is not used */
+                    continue;
+                }
+                i2 = pinv != null ? pinv[i] : i;
+                map[p] = w[Math.max(i2, j2)]++;
+            }
+        }
+        return (R);
+    }
+
+    /**
+     * Numeric Cholesky refactorization LL=PAP', overwriting the values of an
+     * existing factor L of a matrix with the same pattern as A. Allocates the
+     * permutation map and workspace on each call.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @param N
+     *            numeric Cholesky factorization, N.L is overwritten
+     * @return true if successful, false on error or if A is not positive
+     *         definite
+     */
+    public static boolean cs_chol_refactor(Dcs A, Dcss S, Dcsn N) {
+        return (cs_chol_refactor(A, S, N, cs_chol_refactor_alloc(A, S)));
+    }
+
+    /**
+     * Numeric Cholesky refactorization LL=PAP', overwriting the values of an
+     * existing factor L of a matrix with the same pattern as A. The values of
+     * A are scattered into the cached C=PAP' and no memory is allocated. The
+     * pattern of A is compared with the one given to cs_chol_refactor_alloc.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @param N
+     *            numeric Cholesky factorization, N.L is overwritten
+     * @param R
+     *            refactorization workspace from cs_chol_refactor_alloc
+     * @return true if successful, false on error, if the pattern of A has
+     *         changed, or if A is not positive definite (N.L is undefined in
+     *         that case)
+     */
+    public static boolean cs_chol_refactor(Dcs A, Dcss S, Dcsn N, Dcsrefactor R) {
+        int j, p, n, nz, Ap[], Ai[], map[];
+        double Ax[], Cx[];
+        if (!Dcs_util.CS_CSC(A) || A.x == null || S == null || S.cp == null || S.parent == null || N == null
+                || N.L == null || R == null || A.n != R.C.n)
+            return (false); /* check inputs */
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        nz = Ap[n];
+        if (R.Ai.length != nz || N.L.nzmax < S.cp[n])
+            return (false); /* pattern has changed */
+        for (j = 0; j <= n; j++) {
+            if (Ap[j] != R.Ap[j])
+                return (false); /* pattern has changed */
+        }
+        for (p = 0; p < nz; p++) {
+            if (Ai[p] != R.Ai[p])
+                return (false); /* pattern has changed */
+        }
+        map = R.map;
+        Ax = A.x;
+        Cx = R.C.x;
+        for (p = 0; p < nz; p++) /* C.x = A.x permuted */
+        {
+            if (map[p] >= 0)
+                Cx[map[p]] = Ax[p];
+        }
+        return (Dcs_chol.cs_chol(R.C, S, N.L, R.w, R.x));
+    }
+}
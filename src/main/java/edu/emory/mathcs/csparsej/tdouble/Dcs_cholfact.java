@@ -0,0 +1,202 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsfact;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcswork;
+
+/**
+ * Sparse Cholesky factorization with separate analysis, factorization and
+ * solve.
+ * <p>
+ * The solve functions do not modify the factorization object except to take
+ * an idle workspace from it and give it back when they return, so any number
+ * of threads may solve with one factorization at the same time. Workspaces are
+ * only allocated when more solves run at once than ever before, and are freed
+ * with the factorization object. Analysis, factorization and
+ * refactorization modify it, and must not run concurrently with each other or
+ * with a solve; a factorization handed to other threads after it is computed
+ * (through an executor, a volatile field or a lock) is safe to solve with.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_cholfact {
+
+    /**
+     * Ordering and symbolic Cholesky analysis of a symmetric matrix. The
+     * result is factorized with cs_cholfact_factor before it can be used to
+     * solve.
+     * 
+     * @param order
+     *            ordering method to use (0, 1, or 5)
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @return Cholesky factorization object, null on error
+     */
+    public static Dcsfact cs_cholfact_analyze(int order, Dcs A) {
+        return (cs_cholfact_analyze(order, A, null));
+    }
+
+    /**
+     * Ordering and symbolic Cholesky analysis of a symmetric matrix, taken
+     * from the cache if A has the same pattern as an earlier analysis.
+     * 
+     * @param order
+     *            ordering method to use (0, 1, or 5)
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return Cholesky factorization object, null on error
+     */
+    public static Dcsfact cs_cholfact_analyze(int order, Dcs A, Dcscache cache) {
+        Dcsfact F;
+        if (!Dcs_util.CS_CSC(A) || A.m != A.n)
+            return (null); /* check inputs */
+        F = new Dcsfact(); /* allocate result */
+        F.m = A.m;
+        F.n = A.n;
+        F.S = (cache != null) ? Dcs_scache.cs_schol(cache, order, A) : Dcs_schol.cs_schol(order, A);
+        F.work = new ConcurrentLinkedQueue<Dcswork>(); /* workspaces are allocated by the solves */
+        return (F.S != null ? F : null);
+    }
+
+    /**
+     * Numeric Cholesky factorization, LL' = PAP', of a matrix with the
+     * pattern given to cs_cholfact_analyze.
+     * 
+     * @param F
+     *            Cholesky factorization object
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @return true if successful, false on error or if A is not positive
+     *         definite
+     */
+    public static boolean cs_cholfact_factor(Dcsfact F, Dcs A) {
+        if (F == null || !Dcs_util.CS_CSC(A) || A.m != F.m || A.n != F.n)
+            return (false); /* check inputs */
+        F.N = Dcs_chol.cs_chol(A, F.S); /* numeric Cholesky factorization */
+        return (F.N != null);
+    }
+
+    /**
+     * Numeric Cholesky refactorization of a matrix with the same pattern as
+     * the last one factorized, overwriting the values of L in place. The
+     * refactorization workspace is allocated on the first call only. Falls
+     * back to cs_cholfact_factor if F is not yet factorized.
+     * 
+     * @param F
+     *            Cholesky factorization object
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @return true if successful, false on error or if A is not positive
+     *         definite
+     */
+    public static boolean cs_cholfact_refactor(Dcsfact F, Dcs A) {
+        if (F == null || !Dcs_util.CS_CSC(A) || A.m != F.m || A.n != F.n)
+            return (false); /* check inputs */
+        if (F.N == null)
+            return (cs_cholfact_factor(F, A));
+        if (F.R == null)
+            F.R = Dcs_chol_refactor.cs_chol_refactor_alloc(A, F.S);
+        if (!Dcs_chol_refactor.cs_chol_refactor(A, F.S, F.N, F.R)) {
+            F.N = null; /* L is undefined */
+            return (false);
+        }
+        return (true);
+    }
+
+    /**
+     * Solves Ax=b using the Cholesky factorization of A; b is overwritten with
+     * the solution. No memory is allocated unless more threads solve at once
+     * than before. Safe to call concurrently with the same F.
+     * 
+     * @param F
+     *            Cholesky factorization object
+     * @param b
+     *            size n, b on input, x on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_cholfact_solve(Dcsfact F, double[] b) {
+        int n;
+        double[] x;
+        Dcswork W;
+        if (F == null || F.N == null || b == null)
+            return (false); /* check inputs */
+        n = F.n;
+        W = Dcs_util.cs_walloc(F); /* take an idle workspace */
+        try {
+            x = W.x;
+            Dcs_ipvec.cs_ipvec(F.S.pinv, b, x, n); /* x = P*b */
+            Dcs_lsolve.cs_lsolve(F.N.L, x); /* x = L\x */
+            Dcs_ltsolve.cs_ltsolve(F.N.L, x); /* x = L'\x */
+            Dcs_pvec.cs_pvec(F.S.pinv, x, b, n); /* b = P'*x */
+            return (true);
+        } finally {
+            Dcs_util.cs_wfree(F, W); /* give the workspace back */
+        }
+    }
+
+    /**
+     * Solves AX=B for k right hand sides using the Cholesky factorization of
+     * A; each B[r] is overwritten with its solution. Memory is only allocated
+     * if k is larger than in any earlier solve that used the same workspace.
+     * Safe to call concurrently with the same F.
+     * 
+     * @param F
+     *            Cholesky factorization object
+     * @param B
+     *            k right hand sides of size n, overwritten with solutions
+     * @return true if successful, false on error
+     */
+    public static boolean cs_cholfact_solve(Dcsfact F, double[][] B) {
+        int n, k;
+        double[] X;
+        Dcswork W;
+        if (F == null || F.N == null || B == null)
+            return (false); /* check inputs */
+        n = F.n;
+        k = B.length;
+        W = Dcs_util.cs_walloc(F); /* take an idle workspace */
+        try {
+            if (W.X == null || W.X.length < n * k)
+                W.X = new double[n * k]; /* grow workspace */
+            X = W.X;
+            Dcs_ipvec.cs_ipvec(F.S.pinv, B, X, n); /* X = P*B */
+            Dcs_lsolve.cs_lsolve(F.N.L, X, k); /* X = L\X */
+            Dcs_ltsolve.cs_ltsolve(F.N.L, X, k); /* X = L'\X */
+            Dcs_pvec.cs_pvec(F.S.pinv, X, B, n); /* B = P'*X */
+            return (true);
+        } finally {
+            Dcs_util.cs_wfree(F, W); /* give the workspace back */
+        }
+    }
+
+}
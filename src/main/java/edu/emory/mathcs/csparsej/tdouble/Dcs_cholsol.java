@@ -25,6 +25,7 @@
 package edu.emory.mathcs.csparsej.tdouble;
 
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
 
@@ -41,7 +42,7 @@ public class Dcs_cholsol {
      * solution.
      * 
      * @param order
-     *            ordering method to use (0 or 1)
+     *            ordering method to use (0, 1, or 5)
      * @param A
      *            column-compressed matrix, symmetric positive definite, only
      *            upper triangular part is used
@@ -50,6 +51,26 @@ public class Dcs_cholsol {
      * @return true if successful, false on error
      */
     public static boolean cs_cholsol(int order, Dcs A, double[] b) {
+        return (cs_cholsol(order, A, b, null));
+    }
+
+    /**
+     * Solves Ax=b where A is symmetric positive definite; b is overwritten with
+     * solution. The symbolic analysis is taken from the cache if A has the
+     * same pattern as an earlier solve.
+     * 
+     * @param order
+     *            ordering method to use (0, 1, or 5)
+     * @param A
+     *            column-compressed matrix, symmetric positive definite, only
+     *            upper triangular part is used
+     * @param b
+     *            right hand side, b is overwritten with solution
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_cholsol(int order, Dcs A, double[] b, Dcscache cache) {
         double x[];
         Dcss S;
         Dcsn N;
@@ -58,7 +79,7 @@ public class Dcs_cholsol {
         if (!Dcs_util.CS_CSC(A) || b == null)
             return (false); /* check inputs */
         n = A.n;
-        S = Dcs_schol.cs_schol(order, A); /* ordering and symbolic analysis */
+        S = (cache != null) ? Dcs_scache.cs_schol(cache, order, A) : Dcs_schol.cs_schol(order, A); /* ordering and symbolic analysis */
         N = Dcs_chol.cs_chol(A, S); /* numeric Cholesky factorization */
         x = new double[n]; /* get workspace */
         ok = (S != null && N != null);
@@ -71,4 +92,62 @@ public class Dcs_cholsol {
         return (ok);
     }
 
+    /**
+     * Solves AX=B for k right hand sides, where A is symmetric positive
+     * definite. Each B[r] is overwritten with its solution. One factorization
+     * is used for all right hand sides, which are solved together.
+     * 
+     * @param order
+     *            ordering method to use (0, 1, or 5)
+     * @param A
+     *            column-compressed matrix, symmetric positive definite, only
+     *            upper triangular part is used
+     * @param B
+     *            k right hand sides of size n, overwritten with solutions
+     * @return true if successful, false on error
+     */
+    public static boolean cs_cholsol(int order, Dcs A, double[][] B) {
+        return (cs_cholsol(order, A, B, null));
+    }
+
+    /**
+     * Solves AX=B for k right hand sides, where A is symmetric positive
+     * definite. Each B[r] is overwritten with its solution. The symbolic
+     * analysis is taken from the cache if A has the same pattern as an earlier
+     * solve.
+     * 
+     * @param order
+     *            ordering method to use (0, 1, or 5)
+     * @param A
+     *            column-compressed matrix, symmetric positive definite, only
+     *            upper triangular part is used
+     * @param B
+     *            k right hand sides of size n, overwritten with solutions
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_cholsol(int order, Dcs A, double[][] B, Dcscache cache) {
+        double X[];
+        Dcss S;
+        Dcsn N;
+        int n, k;
+        boolean ok;
+        if (!Dcs_util.CS_CSC(A) || B == null)
+            return (false); /* check inputs */
+        n = A.n;
+        k = B.length;
+        S = (cache != null) ? Dcs_scache.cs_schol(cache, order, A) : Dcs_schol.cs_schol(order, A); /* ordering and symbolic analysis */
+        N = Dcs_chol.cs_chol(A, S); /* numeric Cholesky factorization */
+        X = new double[n * k]; /* get workspace, X(i,r) = X[i*k+r] */
+        ok = (S != null && N != null);
+        if (ok) {
+            Dcs_ipvec.cs_ipvec(S.pinv, B, X, n); /* X = P*B */
+            Dcs_lsolve.cs_lsolve(N.L, X, k); /* X = L\X */
+            Dcs_ltsolve.cs_ltsolve(N.L, X, k); /* X = L'\X */
+            Dcs_pvec.cs_pvec(S.pinv, X, B, n); /* B = P'*X */
+        }
+        return (ok);
+    }
+
 }
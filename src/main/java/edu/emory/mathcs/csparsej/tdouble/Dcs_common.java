@@ -24,6 +24,9 @@
 
 package edu.emory.mathcs.csparsej.tdouble;
 
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * Common data structures.
  * 
@@ -162,11 +165,345 @@ public class Dcs_common {
          */
         public double[] B;
 
+        /**
+         * level schedules for L\x, L'\x, U\x and U'\x, built on first use
+         */
+        public Dcslevel[] sched;
+
         public Dcsn() {
         }
 
     };
 
+    /**
+     * 
+     * Level schedule of a triangular solve. Each unknown x(j) is computed from
+     * its off-diagonal entries and the unknowns they multiply; the unknowns in
+     * one level do not depend on each other.
+     * 
+     */
+    public static class Dcslevel {
+        /**
+         * # of levels
+         */
+        public int nlev;
+
+        /**
+         * size nlev+1, level k is unknowns li[lp[k]..lp[k+1]-1]
+         */
+        public int[] lp;
+
+        /**
+         * size n, unknowns in level order
+         */
+        public int[] li;
+
+        /**
+         * size n+1, wp[k] is the # of entries used by li[0..k-1]
+         */
+        public int[] wp;
+
+        /**
+         * size n+1, x(j) uses off-diagonal entries gp[j] to gp[j+1]-1
+         */
+        public int[] gp;
+
+        /**
+         * unknown multiplied by each off-diagonal entry
+         */
+        public int[] gi;
+
+        /**
+         * position of each off-diagonal entry in the values of the factor
+         */
+        public int[] gx;
+
+        /**
+         * size n, position of the diagonal of x(j) in the values of the factor
+         */
+        public int[] dx;
+
+        public Dcslevel() {
+        }
+    };
+
+    /**
+     * 
+     * Output of supernodal Cholesky analysis.
+     * 
+     */
+    public static class Dcssuper {
+        /**
+         * # of supernodes
+         */
+        public int nsuper;
+
+        /**
+         * size nsuper+1, supernode s is columns sup[s] to sup[s+1]-1 of L
+         */
+        public int[] sup;
+
+        /**
+         * size n, colsup[j] is the supernode containing column j
+         */
+        public int[] colsup;
+
+        /**
+         * size nsuper, supernodal elimination tree
+         */
+        public int[] parent;
+
+        /**
+         * size nsuper+1, row indices of supernode s are ri[rp[s]..rp[s+1]-1]
+         */
+        public int[] rp;
+
+        /**
+         * row indices of each supernode, sorted, diagonal block first
+         */
+        public int[] ri;
+
+        /**
+         * size nsuper+1, dense panel of supernode s starts at xp[s]
+         */
+        public int[] xp;
+
+        /**
+         * size nsuper+1, updates to supernode s are up[s] to up[s+1]-1
+         */
+        public int[] up;
+
+        /**
+         * descendant supernode of each update
+         */
+        public int[] uk;
+
+        /**
+         * first row (offset into the descendant's rows) of each update
+         */
+        public int[] ulo;
+
+        /**
+         * size of the dense update workspace
+         */
+        public int wsize;
+
+        public Dcssuper() {
+        }
+    };
+
+    /**
+     * 
+     * Cached permutation and workspace for numeric refactorization.
+     * 
+     */
+    public static class Dcsrefactor {
+        /**
+         * permuted matrix C=PAP', values refreshed on each refactorization
+         */
+        public Dcs C;
+
+        /**
+         * size nnz(A), A.x[p] is stored in C.x[map[p]], -1 if not used
+         */
+        public int[] map;
+
+        /**
+         * copy of A.p, to check the pattern of later matrices
+         */
+        public int[] Ap;
+
+        /**
+         * copy of A.i, to check the pattern of later matrices
+         */
+        public int[] Ai;
+
+        /**
+         * int workspace
+         */
+        public int[] w;
+
+        /**
+         * double workspace
+         */
+        public double[] x;
+
+        public Dcsrefactor() {
+        }
+    };
+
+    /**
+     * 
+     * Row-partitioned form of a matrix for parallel matrix-vector products.
+     * 
+     */
+    public static class Dcspmv {
+        /**
+         * A' in compressed-column form, i.e. A in compressed-row form
+         */
+        public Dcs AT;
+
+        /**
+         * # of row blocks
+         */
+        public int nparts;
+
+        /**
+         * size nparts+1, block k is rows rp[k] to rp[k+1]-1 of A
+         */
+        public int[] rp;
+
+        public Dcspmv() {
+        }
+    };
+
+    /**
+     * 
+     * Matrix in compressed-row form.
+     * 
+     */
+    public static class Dcsr {
+        /**
+         * maximum number of entries
+         */
+        public int nzmax;
+
+        /**
+         * number of rows
+         */
+        public int m;
+
+        /**
+         * number of columns
+         */
+        public int n;
+
+        /**
+         * row pointers, size m+1
+         */
+        public int[] p;
+
+        /**
+         * column indices, size nzmax
+         */
+        public int[] j;
+
+        /**
+         * numerical values, size nzmax
+         */
+        public double[] x;
+
+        /**
+         * size nzmax, entry q of this matrix is entry map[q] of the
+         * source column-compressed matrix, as for cs_transpose
+         */
+        public int[] map;
+
+        public Dcsr() {
+        }
+    };
+
+    /**
+     * 
+     * Cache of symbolic analyses, keyed by sparsity pattern. The analyses it
+     * returns are shared by all their users and are read-only.
+     * 
+     */
+    public static class Dcscache {
+        /**
+         * maximum # of analyses kept
+         */
+        public int size;
+
+        /**
+         * analyses by pattern, least recently used first
+         */
+        public LinkedHashMap<Object, Dcss> map;
+
+        /**
+         * # of analyses found in the cache
+         */
+        public long hits;
+
+        /**
+         * # of analyses computed and added to the cache
+         */
+        public long misses;
+
+        public Dcscache() {
+        }
+    };
+
+    /**
+     * 
+     * Factorization of a matrix with its analysis and solve workspace.
+     * 
+     */
+    public static class Dcsfact {
+        /**
+         * # of rows of A
+         */
+        public int m;
+
+        /**
+         * # of columns of A
+         */
+        public int n;
+
+        /**
+         * symbolic analysis, shared and read-only if it came from a cache
+         */
+        public Dcss S;
+
+        /**
+         * numeric factorization, null if not factorized
+         */
+        public Dcsn N;
+
+        /**
+         * partial pivoting tolerance for LU
+         */
+        public double tol;
+
+        /**
+         * refactorization workspace for Cholesky
+         */
+        public Dcsrefactor R;
+
+        /**
+         * solve workspaces not in use
+         */
+        public ConcurrentLinkedQueue<Dcswork> work;
+
+        public Dcsfact() {
+        }
+    };
+
+    /**
+     * 
+     * Solve workspace, used by one solve at a time.
+     * 
+     */
+    public static class Dcswork {
+        /**
+         * size n (S.m2 for QR)
+         */
+        public double[] x;
+
+        /**
+         * multiple right hand side workspace, grown as needed
+         */
+        public double[] X;
+
+        /**
+         * Householder workspace for QR, grown as needed
+         */
+        public double[] w;
+
+        public Dcswork() {
+        }
+    };
+
     /**
      * 
      * Output of Dulmage-Mendelsohn decomposition.
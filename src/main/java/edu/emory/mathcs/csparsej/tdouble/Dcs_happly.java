@@ -68,4 +68,51 @@ public class Dcs_happly {
         return (true);
     }
 
+    /**
+     * Applies a Householder reflection to a dense m-by-k matrix stored by rows
+     * (X(i,r) is X[i*k+r]), X = (I - beta*v*v')*X.
+     * 
+     * @param V
+     *            column-compressed matrix of Householder vectors
+     * @param i
+     *            v = V(:,i), the ith column of V
+     * @param beta
+     *            scalar beta
+     * @param X
+     *            matrix X of size m*k
+     * @param k
+     *            number of columns of X
+     * @param w
+     *            workspace of size k
+     * @return true if successful, false on error
+     */
+    public static boolean cs_happly(Dcs V, int i, double beta, double[] X, int k, double[] w) {
+        int p, r, xi, Vp[], Vi[];
+        double Vx[], v;
+        if (!Dcs_util.CS_CSC(V) || X == null || w == null || k < 0)
+            return (false); /* check inputs */
+        Vp = V.p;
+        Vi = V.i;
+        Vx = V.x;
+        for (r = 0; r < k; r++)
+            w[r] = 0;
+        for (p = Vp[i]; p < Vp[i + 1]; p++) /* w = v'*X */
+        {
+            xi = Vi[p] * k;
+            v = Vx[p];
+            for (r = 0; r < k; r++)
+                w[r] += v * X[xi + r];
+        }
+        for (r = 0; r < k; r++) /* w = beta*(v'*X) */
+            w[r] *= beta;
+        for (p = Vp[i]; p < Vp[i + 1]; p++) /* X = X - v*w */
+        {
+            xi = Vi[p] * k;
+            v = Vx[p];
+            for (r = 0; r < k; r++)
+                X[xi + r] -= v * w[r];
+        }
+        return (true);
+    }
+
 }
@@ -0,0 +1,234 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.Arrays;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Incomplete Cholesky factorization, IC(0) and threshold ICT.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_ichol {
+
+    /**
+     * Incomplete Cholesky factorization with zero fill-in, LL' ~ PAP', where
+     * L has the pattern of the lower triangular part of PAP'. Solve with L as
+     * with a Cholesky factor: x=P*b, cs_lsolve, cs_ltsolve, b=P'*x.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, only pinv is used; null for the
+     *            natural ordering
+     * @return incomplete Cholesky factorization, null on error or if a pivot
+     *         is not positive (A may be shifted to avoid this)
+     */
+    public static Dcsn cs_ichol0(Dcs A, Dcss S) {
+        return (cs_ichol(A, S, true, 0, -1));
+    }
+
+    /**
+     * Threshold incomplete Cholesky factorization, LL' ~ PAP'. Entries of
+     * L(:,j) smaller than droptol times the 2-norm of the lower triangular
+     * part of (PAP')(:,j) are dropped, and only the lfil largest off-diagonal
+     * entries of each column are kept. With droptol = 0 and lfil = -1 this is
+     * the complete factorization. Solve with L as with a Cholesky factor.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, only pinv is used; null for the
+     *            natural ordering
+     * @param droptol
+     *            relative drop tolerance
+     * @param lfil
+     *            maximum # of off-diagonal entries in each column of L, -1 for
+     *            no limit
+     * @return incomplete Cholesky factorization, null on error or if a pivot
+     *         is not positive (A may be shifted to avoid this)
+     */
+    public static Dcsn cs_ichol(Dcs A, Dcss S, double droptol, int lfil) {
+        if (droptol < 0 || lfil < -1)
+            return (null); /* check inputs */
+        return (cs_ichol(A, S, false, droptol, lfil));
+    }
+
+    /* left-looking IC(0) or ICT, one column of L at a time */
+    private static Dcsn cs_ichol(Dcs A, Dcss S, boolean ic0, double droptol, int lfil) {
+        double d, ljk, nrm, tol, w[], Lx[], Cx[];
+        int i, j, k, p, p0, t, n, cnt, keep, nz, knext, Lp[], Li[], Cp[], Ci[], pinv[], mark[], pat[], head[],
+                next[], first[];
+        Dcs C, L;
+        Dcsn N;
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (null); /* check inputs */
+        n = A.n;
+        pinv = (S != null) ? S.pinv : null;
+        C = pinv != null ? Dcs_symperm.cs_symperm(A, pinv, true) : A;
+        C = Dcs_transpose.cs_transpose(C, true); /* C(j:n-1,j) is the lower part of PAP' */
+        Cp = C.p;
+        Ci = C.i;
+        Cx = C.x;
+        N = new Dcsn(); /* allocate result */
+        N.L = L = Dcs_util.cs_spalloc(n, n, Cp[n] + n, true, false);
+        w = new double[n]; /* get double workspace */
+        mark = new int[n]; /* get int workspace */
+        pat = new int[n];
+        head = new int[n];
+        next = new int[n];
+        first = new int[n];
+        for (i = 0; i < n; i++) {
+            mark[i] = -1;
+            head[i] = -1; /* head[i]: columns k whose next entry is L(i,k) */
+        }
+        nz = 0;
+        for (j = 0; j < n; j++) {
+            Lp = L.p;
+            Lp[j] = nz;
+            /* --- Scatter the lower part of C(:,j) ----------------------------- */
+            mark[j] = j;
+            w[j] = 0;
+            cnt = 0;
+            nrm = 0;
+            for (p = Cp[j]; p < Cp[j + 1]; p++) {
+                i = Ci[p];
+                if (i < j)
+                    continue; /* only the upper part of A is used */
+                if (mark[i] != j) {
+                    mark[i] = j;
+                    pat[cnt++] = i;
+                    w[i] = 0;
+                }
+                w[i] += Cx[p];
+                nrm += Cx[p] * Cx[p];
+            }
+            nrm = Math.sqrt(nrm);
+            /* --- w -= L(j:n-1,k)*L(j,k) for each k with L(j,k) nonzero -------- */
+            Li = L.i;
+            Lx = L.x;
+            for (k = head[j]; k != -1; k = knext) {
+                knext = next[k];
+                p0 = first[k]; /* L(j,k) is entry p0 */
+                ljk = Lx[p0];
+                w[j] -= ljk * ljk;
+                for (p = p0 + 1; p < Lp[k + 1]; p++) {
+                    i = Li[p];
+                    if (mark[i] != j) {
+                        if (ic0)
+                            continue; /* drop fill-in */
+                        mark[i] = j;
+                        pat[cnt++] = i;
+                        w[i] = 0;
+                    }
+                    w[i] -= Lx[p] * ljk;
+                }
+                first[k] = ++p0;
+                if (p0 < Lp[k + 1]) /* move k to the list of its next row */
+                {
+                    next[k] = head[Li[p0]];
+                    head[Li[p0]] = k;
+                }
+            }
+            head[j] = -1;
+            /* --- Drop small entries, keep the lfil largest -------------------- */
+            d = w[j];
+            if (!(d > 0))
+                return (null); /* not pos def */
+            d = Math.sqrt(d);
+            if (ic0) {
+                keep = cnt;
+            } else {
+                tol = droptol * nrm;
+                for (t = 0, keep = 0; t < cnt; t++) {
+                    i = pat[t];
+                    if (Math.abs(w[i]) >= tol && w[i] != 0)
+                        pat[keep++] = i;
+                }
+                if (lfil >= 0 && keep > lfil) {
+                    cs_select(pat, keep, lfil, w);
+                    keep = lfil;
+                }
+            }
+            Arrays.sort(pat, 0, keep); /* keep the rows of each column sorted */
+            /* --- Store L(:,j) ------------------------------------------------- */
+            if (nz + 1 + keep > L.nzmax && !Dcs_util.cs_sprealloc(L, 2 * L.nzmax + 1 + keep))
+                return (null); /* out of memory */
+            Li = L.i;
+            Lx = L.x;
+            Li[nz] = j; /* L(j,j) first */
+            Lx[nz++] = d;
+            for (t = 0; t < keep; t++) {
+                i = pat[t];
+                Li[nz] = i;
+                Lx[nz++] = w[i] / d;
+            }
+            first[j] = Lp[j] + 1;
+            if (keep > 0) {
+                next[j] = head[pat[0]];
+                head[pat[0]] = j;
+            }
+        }
+        L.p[n] = nz;
+        Dcs_util.cs_sprealloc(L, 0); /* remove extra space from L */
+        return (N);
+    }
+
+    /* reorders pat[0..n-1] so that pat[0..k-1] are the k entries with largest |w| */
+    protected static void cs_select(int[] pat, int n, int k, double[] w) {
+        int lo, hi, i, j, t;
+        double pivot;
+        lo = 0;
+        hi = n - 1;
+        while (lo < hi) {
+            pivot = Math.abs(w[pat[(lo + hi) >>> 1]]);
+            i = lo;
+            j = hi;
+            while (i <= j) {
+                while (Math.abs(w[pat[i]]) > pivot)
+                    i++;
+                while (Math.abs(w[pat[j]]) < pivot)
+                    j--;
+                if (i <= j) {
+                    t = pat[i];
+                    pat[i++] = pat[j];
+                    pat[j--] = t;
+                }
+            }
+            if (k - 1 <= j)
+                hi = j;
+            else if (k - 1 >= i)
+                lo = i;
+            else
+                break;
+        }
+    }
+
+}
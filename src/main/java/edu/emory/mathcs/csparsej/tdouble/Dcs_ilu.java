@@ -0,0 +1,287 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.Arrays;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Incomplete LU factorization, ILU(0) and threshold ILUT.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_ilu {
+
+    /**
+     * Incomplete LU factorization with zero fill-in, PAQ ~ LU, where P = Q'
+     * and L+U has the pattern of PAQ. Solve with L and U as with cs_lu:
+     * x=b(p), cs_lsolve, cs_usolve, b(q)=x.
+     * 
+     * @param A
+     *            column-compressed matrix with a nonzero diagonal
+     * @param S
+     *            symbolic LU analysis, only q is used; null for the natural
+     *            ordering
+     * @return incomplete LU factorization, null on error or if a pivot is
+     *         zero
+     */
+    public static Dcsn cs_ilu0(Dcs A, Dcss S) {
+        Dcs L, U;
+        Dcsn N;
+        double pivot, xj, Lx[], Ux[], Ax[], x[];
+        int Lp[], Li[], Up[], Ui[], Ap[], Ai[], pinv[], prow[], mark[], xi[], js[], q[], n, k, i, j, J, p, t, col,
+                cnt, npiv, lnz, unz;
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (null); /* check inputs */
+        n = A.n;
+        q = (S != null) ? S.q : null;
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        x = new double[n]; /* get double workspace */
+        mark = new int[n]; /* get int workspace */
+        xi = new int[n];
+        js = new int[n];
+        prow = new int[n];
+        N = new Dcsn(); /* allocate result */
+        N.L = L = Dcs_util.cs_spalloc(n, n, Ap[n] + n, true, false); /* L+U has the pattern of A */
+        N.U = U = Dcs_util.cs_spalloc(n, n, Ap[n] + n, true, false);
+        N.pinv = pinv = new int[n];
+        Lp = L.p;
+        Li = L.i;
+        Lx = L.x;
+        Up = U.p;
+        Ui = U.i;
+        Ux = U.x;
+        for (i = 0; i < n; i++) {
+            pinv[i] = -1; /* no rows pivotal yet */
+            mark[i] = -1;
+        }
+        lnz = unz = 0;
+        for (k = 0; k < n; k++) /* compute L(:,k) and U(:,k) */
+        {
+            Lp[k] = lnz; /* L(:,k) starts here */
+            Up[k] = unz; /* U(:,k) starts here */
+            col = q != null ? (q[k]) : k;
+            /* --- Scatter A(:,col), pivotal rows in pivot order ---------------- */
+            cnt = npiv = 0;
+            for (p = Ap[col]; p < Ap[col + 1]; p++) {
+                i = Ai[p];
+                if (mark[i] != k) {
+                    mark[i] = k;
+                    x[i] = 0;
+                    xi[cnt++] = i;
+                    if (pinv[i] >= 0)
+                        js[npiv++] = pinv[i];
+                }
+                x[i] += Ax[p];
+            }
+            if (mark[col] != k)
+                return (null); /* zero diagonal */
+            Arrays.sort(js, 0, npiv);
+            /* --- Triangular solve on the pattern of A(:,col) ------------------ */
+            for (t = 0; t < npiv; t++) {
+                J = js[t];
+                j = prow[J];
+                xj = x[j];
+                Ui[unz] = J; /* U(J,k) = x(j) */
+                Ux[unz++] = xj;
+                for (p = Lp[J] + 1; p < Lp[J + 1]; p++) {
+                    i = Li[p];
+                    if (mark[i] == k)
+                        x[i] -= Lx[p] * xj; /* fill-in is dropped */
+                }
+            }
+            /* --- Divide by pivot ---------------------------------------------- */
+            pivot = x[col];
+            if (pivot == 0)
+                return (null);
+            Ui[unz] = k; /* last entry in U(:,k) is U(k,k) */
+            Ux[unz++] = pivot;
+            pinv[col] = k; /* col is the kth pivot row */
+            prow[k] = col;
+            Li[lnz] = col; /* first entry in L(:,k) is L(k,k) = 1 */
+            Lx[lnz++] = 1;
+            for (t = 0; t < cnt; t++) {
+                i = xi[t];
+                if (pinv[i] < 0) /* x(i) is an entry in L(:,k) */
+                {
+                    Li[lnz] = i;
+                    Lx[lnz++] = x[i] / pivot;
+                }
+            }
+        }
+        /* --- Finalize L and U ------------------------------------------------- */
+        Lp[n] = lnz;
+        Up[n] = unz;
+        for (p = 0; p < lnz; p++) /* fix row indices of L for final pinv */
+            Li[p] = pinv[Li[p]];
+        Dcs_util.cs_sprealloc(L, 0); /* remove extra space from L and U */
+        Dcs_util.cs_sprealloc(U, 0);
+        return (N);
+    }
+
+    /**
+     * Threshold incomplete LU factorization of a square matrix, PAQ ~ LU,
+     * computed as in cs_lu with entries dropped from each column once it is
+     * known. Entries of U(:,k) and of L(:,k) (before scaling by the pivot)
+     * smaller than droptol times the 2-norm of A(:,q(k)) are dropped, and only
+     * the lfil largest off-diagonal entries of each are kept. With droptol = 0
+     * and lfil = -1 this is the complete factorization. Solve with L and U as
+     * with cs_lu.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param S
+     *            symbolic LU analysis, only q is used; null for the natural
+     *            ordering
+     * @param droptol
+     *            relative drop tolerance
+     * @param lfil
+     *            maximum # of off-diagonal entries in each column of L and of
+     *            U, -1 for no limit
+     * @param tol
+     *            partial pivoting threshold (1 for partial pivoting, 0 to
+     *            prefer the diagonal)
+     * @return incomplete LU factorization, null on error or if no nonzero
+     *         pivot is left in a column
+     */
+    public static Dcsn cs_ilu(Dcs A, Dcss S, double droptol, int lfil, double tol) {
+        Dcs L, U;
+        Dcsn N;
+        double pivot, nrm, dtol, Lx[], Ux[], Ax[], x[], a, t;
+        int Lp[], Li[], Up[], Ui[], Ap[], pinv[], xi[], upat[], lpat[], q[], n, ipiv, k, top, p, i, col, nu, nl,
+                lnz, unz;
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n || droptol < 0 || lfil < -1)
+            return (null); /* check inputs */
+        n = A.n;
+        q = (S != null) ? S.q : null;
+        Ap = A.p;
+        Ax = A.x;
+        x = new double[n]; /* get double workspace */
+        xi = new int[2 * n]; /* get int workspace */
+        upat = new int[n];
+        lpat = new int[n];
+        N = new Dcsn(); /* allocate result */
+        N.L = L = Dcs_util.cs_spalloc(n, n, Ap[n] + n, true, false); /* allocate result L */
+        N.U = U = Dcs_util.cs_spalloc(n, n, Ap[n] + n, true, false); /* allocate result U */
+        N.pinv = pinv = new int[n]; /* allocate result pinv */
+        Lp = L.p;
+        Up = U.p;
+        for (i = 0; i < n; i++)
+            pinv[i] = -1; /* no rows pivotal yet */
+        lnz = unz = 0;
+        for (k = 0; k < n; k++) /* compute L(:,k) and U(:,k) */
+        {
+            /* --- Triangular solve --------------------------------------------- */
+            Lp[k] = lnz; /* L(:,k) starts here */
+            Up[k] = unz; /* U(:,k) starts here */
+            if (lnz + n > L.nzmax && !Dcs_util.cs_sprealloc(L, 2 * L.nzmax + n))
+                return (null); /* out of memory */
+            if (unz + n > U.nzmax && !Dcs_util.cs_sprealloc(U, 2 * U.nzmax + n))
+                return (null);
+            Li = L.i;
+            Lx = L.x;
+            Ui = U.i;
+            Ux = U.x;
+            col = q != null ? (q[k]) : k;
+            for (p = Ap[col], nrm = 0; p < Ap[col + 1]; p++)
+                nrm += Ax[p] * Ax[p];
+            dtol = droptol * Math.sqrt(nrm);
+            top = Dcs_spsolve.cs_spsolve(L, A, col, xi, x, pinv, true); /* x = L\A(:,col) */
+            /* --- Find pivot, drop small entries ------------------------------- */
+            ipiv = -1;
+            a = -1;
+            nu = nl = 0;
+            for (p = top; p < n; p++) {
+                i = xi[p]; /* x(i) is nonzero */
+                t = Math.abs(x[i]);
+                if (pinv[i] < 0) /* row i is not yet pivotal */
+                {
+                    if (t > a) {
+                        a = t; /* largest pivot candidate so far */
+                        ipiv = i;
+                    }
+                    if (t >= dtol)
+                        lpat[nl++] = i;
+                } else if (t >= dtol) /* x(i) is the entry U(pinv[i],k) */
+                {
+                    upat[nu++] = i;
+                }
+            }
+            if (ipiv == -1 || a <= 0)
+                return (null);
+            if (pinv[col] < 0 && Math.abs(x[col]) >= a * tol)
+                ipiv = col;
+            if (lfil >= 0 && nu > lfil) {
+                Dcs_ichol.cs_select(upat, nu, lfil, x);
+                nu = lfil;
+            }
+            for (p = 0; p < nu; p++) {
+                i = upat[p];
+                Ui[unz] = pinv[i];
+                Ux[unz++] = x[i];
+            }
+            /* --- Divide by pivot ---------------------------------------------- */
+            pivot = x[ipiv]; /* the chosen pivot */
+            for (p = 0, i = 0; p < nl; p++) {
+                if (lpat[p] != ipiv)
+                    lpat[i++] = lpat[p]; /* the pivot is not an entry of L(k+1:n,k) */
+            }
+            nl = i;
+            if (lfil >= 0 && nl > lfil) {
+                Dcs_ichol.cs_select(lpat, nl, lfil, x);
+                nl = lfil;
+            }
+            Ui[unz] = k; /* last entry in U(:,k) is U(k,k) */
+            Ux[unz++] = pivot;
+            pinv[ipiv] = k; /* ipiv is the kth pivot row */
+            Li[lnz] = ipiv; /* first entry in L(:,k) is L(k,k) = 1 */
+            Lx[lnz++] = 1;
+            for (p = 0; p < nl; p++) /* L(k+1:n,k) = x / pivot */
+            {
+                i = lpat[p];
+                Li[lnz] = i; /* save unpermuted row in L */
+                Lx[lnz++] = x[i] / pivot; /* scale pivot column */
+            }
+            for (p = top; p < n; p++)
+                x[xi[p]] = 0; /* x [0..n-1] = 0 for next k */
+        }
+        /* --- Finalize L and U ------------------------------------------------- */
+        Lp[n] = lnz;
+        Up[n] = unz;
+        Li = L.i; /* fix row indices of L for final pinv */
+        for (p = 0; p < lnz; p++)
+            Li[p] = pinv[Li[p]];
+        Dcs_util.cs_sprealloc(L, 0); /* remove extra space from L and U */
+        Dcs_util.cs_sprealloc(U, 0);
+        return (N);
+    }
+
+}
@@ -52,4 +52,60 @@ public class Dcs_ipvec {
             x[p != null ? p[k] : k] = b[k];
         return (true);
     }
+
+    /**
+     * Permutes k vectors into a dense n-by-k matrix stored by rows, X = P'B
+     * where column r of B is the vector B[r] and X(i,r) is X[i*k+r].
+     * 
+     * @param p
+     *            permutation vector, p=null denotes identity
+     * @param B
+     *            k input vectors, each of length at least n
+     * @param X
+     *            output matrix of size n*k, X = P'B
+     * @param n
+     *            length of p, and number of rows of B and X
+     * @return true if successful, false on error
+     */
+    public static boolean cs_ipvec(int[] p, double[][] B, double[] X, int n) {
+        int i, r, k, xi;
+        if (X == null || B == null)
+            return (false); /* check inputs */
+        k = B.length;
+        for (i = 0; i < n; i++) {
+            xi = (p != null ? p[i] : i) * k;
+            for (r = 0; r < k; r++)
+                X[xi + r] = B[r][i];
+        }
+        return (true);
+    }
+
+    /**
+     * Permutes a dense n-by-k matrix stored by rows into k vectors, B = P'X
+     * where column r of B is the vector B[r] and X(i,r) is X[i*k+r].
+     * 
+     * @param p
+     *            permutation vector, p=null denotes identity
+     * @param X
+     *            input matrix of size n*k
+     * @param B
+     *            k output vectors, each of length at least n, B = P'X
+     * @param n
+     *            length of p, and number of rows of X and B
+     * @return true if successful, false on error
+     */
+    public static boolean cs_ipvec(int[] p, double[] X, double[][] B, int n) {
+        int i, r, k, pi, xi;
+        if (X == null || B == null)
+            return (false); /* check inputs */
+        k = B.length;
+        for (i = 0; i < n; i++) {
+            pi = p != null ? p[i] : i;
+            xi = i * k;
+            for (r = 0; r < k; r++)
+                B[r][pi] = X[xi + r];
+        }
+        return (true);
+    }
+
 }
@@ -0,0 +1,183 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+import edu.emory.mathcs.csparsej.tfloat.Scs_ipvec;
+import edu.emory.mathcs.csparsej.tfloat.Scs_lsolve;
+import edu.emory.mathcs.csparsej.tfloat.Scs_lu;
+import edu.emory.mathcs.csparsej.tfloat.Scs_usolve;
+import edu.emory.mathcs.csparsej.tfloat.Scs_common.Scs;
+import edu.emory.mathcs.csparsej.tfloat.Scs_common.Scsn;
+import edu.emory.mathcs.csparsej.tfloat.Scs_common.Scss;
+
+/**
+ * Solve Ax=b using a single precision sparse LU factorization and iterative
+ * refinement in double precision.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_irsol {
+
+    /**
+     * Maximum # of refinement steps before falling back to a double precision
+     * factorization.
+     */
+    public static final int CS_ITERMAX = 30;
+
+    /**
+     * Solves Ax=b, where A is square and nonsingular. b overwritten with
+     * solution. Partial pivoting if tol = 1. A is factorized in single
+     * precision with Scs_lu and the solution is refined with residuals
+     * computed in double precision, until norm(b-A*x,inf) <=
+     * norm(x,inf)*norm(A,1)*eps*sqrt(n). If the single precision factorization
+     * fails, or the refinement does not converge within CS_ITERMAX steps, A is
+     * factorized again in double precision as in cs_lusol.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param b
+     *            size n, b on input, x on output
+     * @param tol
+     *            partial pivoting tolerance
+     * @return true if successful, false on error
+     */
+    public static boolean cs_irsol(int order, Dcs A, double[] b, double tol) {
+        return (cs_irsol(order, A, b, tol, null));
+    }
+
+    /**
+     * Solves Ax=b as cs_irsol above. The symbolic analysis is taken from the
+     * cache if A has the same pattern as an earlier solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param b
+     *            size n, b on input, x on output
+     * @param tol
+     *            partial pivoting tolerance
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_irsol(int order, Dcs A, double[] b, double tol, Dcscache cache) {
+        double x[], r[], Ax[], anrm, cte, rnrm, xnrm;
+        float xf[], rf[], Sx[];
+        int p, k, n, nz;
+        Dcss S;
+        Dcsn N;
+        Scs C;
+        Scss SS;
+        Scsn NS;
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n || b == null)
+            return (false); /* check inputs */
+        n = A.n;
+        S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, A, false) : Dcs_sqr.cs_sqr(order, A, false); /* ordering and symbolic analysis */
+        if (S == null)
+            return (false);
+        /* --- Single precision factorization ----------------------------------- */
+        nz = A.p[n];
+        Ax = A.x;
+        C = new Scs(); /* C = single(A), sharing the pattern of A */
+        C.m = A.m;
+        C.n = n;
+        C.nzmax = nz;
+        C.nz = -1;
+        C.p = A.p;
+        C.i = A.i;
+        C.x = Sx = new float[nz];
+        for (p = 0; p < nz; p++) {
+            Sx[p] = (float) Ax[p];
+            if (Float.isInfinite(Sx[p]))
+                break; /* A is out of single precision range */
+        }
+        NS = null;
+        SS = null;
+        if (p == nz) {
+            SS = new Scss(); /* the LU analysis of A is the same in single precision */
+            SS.q = S.q;
+            SS.lnz = S.lnz;
+            SS.unz = S.unz;
+            NS = Scs_lu.cs_lu(C, SS, (float) tol); /* numeric LU factorization */
+        }
+        /* --- Iterative refinement --------------------------------------------- */
+        if (NS != null) {
+            x = new double[n]; /* get workspace */
+            r = new double[n];
+            xf = new float[n];
+            rf = new float[n];
+            anrm = Dcs_norm.cs_norm(A);
+            cte = anrm * Math.ulp(1.0) * Math.sqrt(n);
+            for (p = 0; p < n; p++)
+                r[p] = -b[p]; /* r = A*x-b with x = 0 */
+            xnrm = 0;
+            for (k = 0;; k++) {
+                rnrm = 0;
+                for (p = 0; p < n; p++)
+                    rnrm = Math.max(rnrm, Math.abs(r[p]));
+                if (rnrm <= xnrm * cte) /* converged */
+                {
+                    for (p = 0; p < n; p++)
+                        b[p] = x[p];
+                    return (true);
+                }
+                if (k == CS_ITERMAX || Double.isNaN(rnrm) || Double.isInfinite(rnrm))
+                    break; /* no convergence, or the single precision solve overflowed */
+                for (p = 0; p < n; p++)
+                    rf[p] = (float) (-r[p] / rnrm); /* scale -r to avoid single precision underflow */
+                Scs_ipvec.cs_ipvec(NS.pinv, rf, xf, n); /* d = -A\r in single precision */
+                Scs_lsolve.cs_lsolve(NS.L, xf);
+                Scs_usolve.cs_usolve(NS.U, xf);
+                Scs_ipvec.cs_ipvec(SS.q, xf, rf, n);
+                xnrm = 0;
+                for (p = 0; p < n; p++) {
+                    x[p] += rnrm * rf[p]; /* x = x + d */
+                    xnrm = Math.max(xnrm, Math.abs(x[p]));
+                    r[p] = -b[p];
+                }
+                Dcs_gaxpy.cs_gaxpy(A, x, r); /* r = A*x-b in double precision */
+            }
+        }
+        /* --- Double precision fallback ---------------------------------------- */
+        N = Dcs_lu.cs_lu(A, S, tol); /* numeric LU factorization */
+        if (N == null)
+            return (false);
+        x = new double[n]; /* get workspace */
+        Dcs_ipvec.cs_ipvec(N.pinv, b, x, n); /* x = b(p) */
+        Dcs_lsolve.cs_lsolve(N.L, x); /* x = L\x */
+        Dcs_usolve.cs_usolve(N.U, x); /* x = U\x */
+        Dcs_ipvec.cs_ipvec(S.q, x, b, n); /* b(q) = x */
+        return (true);
+    }
+
+}
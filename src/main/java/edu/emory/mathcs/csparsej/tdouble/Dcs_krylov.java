@@ -0,0 +1,421 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcspmv;
+
+/**
+ * Krylov subspace solvers for Ax=b: preconditioned conjugate gradient,
+ * BiCGSTAB and restarted GMRES. A is given as a column-compressed matrix
+ * (products with cs_gaxpy) or in row-partitioned form (products with
+ * cs_pgaxpy). On input x is the initial guess, on output the solution. All
+ * vectors are allocated once per call. Iterations stop when
+ * norm(b-A*x) <= tol*norm(b).
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_krylov {
+
+    /**
+     * Preconditioned conjugate gradient method.
+     * 
+     * @param A
+     *            column-compressed, symmetric positive definite matrix
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            symmetric positive definite preconditioner, null for none
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_pcg(Dcs A, double[] b, double[] x, Dcs_iprecond M, double tol, int maxit) {
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (-1); /* check inputs */
+        return (cs_pcg(A, null, A.n, b, x, M, tol, maxit));
+    }
+
+    /**
+     * Preconditioned conjugate gradient method, with parallel matrix-vector
+     * products.
+     * 
+     * @param P
+     *            row-partitioned, symmetric positive definite A, from cs_pmv
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            symmetric positive definite preconditioner, null for none
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_pcg(Dcspmv P, double[] b, double[] x, Dcs_iprecond M, double tol, int maxit) {
+        if (P == null || P.AT == null || P.AT.m != P.AT.n)
+            return (-1); /* check inputs */
+        return (cs_pcg(null, P, P.AT.n, b, x, M, tol, maxit));
+    }
+
+    private static int cs_pcg(Dcs A, Dcspmv P, int n, double[] b, double[] x, Dcs_iprecond M, double tol,
+            int maxit) {
+        double r[], z[], p[], q[], bnrm, rho, rho1 = 0, pq, alpha, beta;
+        int i, k;
+        if (b == null || x == null || tol < 0 || maxit < 0)
+            return (-1); /* check inputs */
+        r = new double[n]; /* get workspace */
+        z = new double[n];
+        p = new double[n];
+        q = new double[n];
+        if ((bnrm = cs_resid(A, P, b, x, r)) < 0)
+            return (-1); /* r = b-A*x */
+        if (cs_norm2(r, n) <= tol * bnrm)
+            return (0);
+        for (k = 1; k <= maxit; k++) {
+            if (!cs_msolve(M, r, z, n))
+                return (-1); /* z = M\r */
+            rho = cs_dot(r, z, n);
+            if (rho == 0)
+                return (-1); /* breakdown */
+            if (k == 1) {
+                for (i = 0; i < n; i++)
+                    p[i] = z[i];
+            } else {
+                beta = rho / rho1;
+                for (i = 0; i < n; i++)
+                    p[i] = z[i] + beta * p[i];
+            }
+            cs_amul(A, P, p, q); /* q = A*p */
+            pq = cs_dot(p, q, n);
+            if (pq <= 0)
+                return (-1); /* A or M is not positive definite */
+            alpha = rho / pq;
+            for (i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+            }
+            if (cs_norm2(r, n) <= tol * bnrm)
+                return (k);
+            rho1 = rho;
+        }
+        return (-1);
+    }
+
+    /**
+     * Right-preconditioned BiCGSTAB method.
+     * 
+     * @param A
+     *            column-compressed, square matrix
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            preconditioner, null for none
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_bicgstab(Dcs A, double[] b, double[] x, Dcs_iprecond M, double tol, int maxit) {
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (-1); /* check inputs */
+        return (cs_bicgstab(A, null, A.n, b, x, M, tol, maxit));
+    }
+
+    /**
+     * Right-preconditioned BiCGSTAB method, with parallel matrix-vector
+     * products.
+     * 
+     * @param P
+     *            row-partitioned, square A, from cs_pmv
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            preconditioner, null for none
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_bicgstab(Dcspmv P, double[] b, double[] x, Dcs_iprecond M, double tol, int maxit) {
+        if (P == null || P.AT == null || P.AT.m != P.AT.n)
+            return (-1); /* check inputs */
+        return (cs_bicgstab(null, P, P.AT.n, b, x, M, tol, maxit));
+    }
+
+    private static int cs_bicgstab(Dcs A, Dcspmv P, int n, double[] b, double[] x, Dcs_iprecond M, double tol,
+            int maxit) {
+        double r[], rt[], p[], v[], ph[], sh[], t[], bnrm, rho, rho1 = 1, alpha = 1, omega = 1, beta, tt;
+        int i, k;
+        if (b == null || x == null || tol < 0 || maxit < 0)
+            return (-1); /* check inputs */
+        r = new double[n]; /* get workspace */
+        rt = new double[n];
+        p = new double[n];
+        v = new double[n];
+        ph = new double[n];
+        sh = new double[n];
+        t = new double[n];
+        if ((bnrm = cs_resid(A, P, b, x, r)) < 0)
+            return (-1); /* r = b-A*x */
+        if (cs_norm2(r, n) <= tol * bnrm)
+            return (0);
+        for (i = 0; i < n; i++)
+            rt[i] = r[i]; /* shadow residual */
+        for (k = 1; k <= maxit; k++) {
+            rho = cs_dot(rt, r, n);
+            if (rho == 0 || omega == 0)
+                return (-1); /* breakdown */
+            if (k == 1) {
+                for (i = 0; i < n; i++)
+                    p[i] = r[i];
+            } else {
+                beta = (rho / rho1) * (alpha / omega);
+                for (i = 0; i < n; i++)
+                    p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            if (!cs_msolve(M, p, ph, n))
+                return (-1); /* ph = M\p */
+            cs_amul(A, P, ph, v); /* v = A*ph */
+            if ((tt = cs_dot(rt, v, n)) == 0)
+                return (-1); /* breakdown */
+            alpha = rho / tt;
+            for (i = 0; i < n; i++)
+                r[i] -= alpha * v[i]; /* s = r - alpha*v, held in r */
+            if (cs_norm2(r, n) <= tol * bnrm) {
+                for (i = 0; i < n; i++)
+                    x[i] += alpha * ph[i];
+                return (k);
+            }
+            if (!cs_msolve(M, r, sh, n))
+                return (-1); /* sh = M\s */
+            cs_amul(A, P, sh, t); /* t = A*sh */
+            if ((tt = cs_dot(t, t, n)) == 0)
+                return (-1); /* breakdown */
+            omega = cs_dot(t, r, n) / tt;
+            for (i = 0; i < n; i++) {
+                x[i] += alpha * ph[i] + omega * sh[i];
+                r[i] -= omega * t[i];
+            }
+            if (cs_norm2(r, n) <= tol * bnrm)
+                return (k);
+            rho1 = rho;
+        }
+        return (-1);
+    }
+
+    /**
+     * Right-preconditioned GMRES method, restarted every m iterations.
+     * 
+     * @param A
+     *            column-compressed, square matrix
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            preconditioner, null for none
+     * @param m
+     *            restart length, the # of basis vectors kept
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations, counting all restarts
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_gmres(Dcs A, double[] b, double[] x, Dcs_iprecond M, int m, double tol, int maxit) {
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (-1); /* check inputs */
+        return (cs_gmres(A, null, A.n, b, x, M, m, tol, maxit));
+    }
+
+    /**
+     * Right-preconditioned GMRES method, restarted every m iterations, with
+     * parallel matrix-vector products.
+     * 
+     * @param P
+     *            row-partitioned, square A, from cs_pmv
+     * @param b
+     *            size n, right-hand side
+     * @param x
+     *            size n, initial guess on input, solution on output
+     * @param M
+     *            preconditioner, null for none
+     * @param m
+     *            restart length, the # of basis vectors kept
+     * @param tol
+     *            relative residual tolerance
+     * @param maxit
+     *            maximum # of iterations, counting all restarts
+     * @return # of iterations, -1 on error, breakdown or if not converged
+     */
+    public static int cs_gmres(Dcspmv P, double[] b, double[] x, Dcs_iprecond M, int m, double tol, int maxit) {
+        if (P == null || P.AT == null || P.AT.m != P.AT.n)
+            return (-1); /* check inputs */
+        return (cs_gmres(null, P, P.AT.n, b, x, M, m, tol, maxit));
+    }
+
+    private static int cs_gmres(Dcs A, Dcspmv P, int n, double[] b, double[] x, Dcs_iprecond M, int m,
+            double tol, int maxit) {
+        double V[][], H[], c[], s[], g[], w[], z[], v[], bnrm, beta, h, d, tmp;
+        int i, j, l, k;
+        if (b == null || x == null || m < 1 || tol < 0 || maxit < 0)
+            return (-1); /* check inputs */
+        V = new double[m + 1][n]; /* get workspace */
+        H = new double[(m + 1) * m]; /* H(i,j) is H[i+j*(m+1)] */
+        c = new double[m];
+        s = new double[m];
+        g = new double[m + 1];
+        w = new double[n];
+        z = new double[n];
+        if ((bnrm = cs_resid(A, P, b, x, V[0])) < 0)
+            return (-1); /* V(:,0) = b-A*x */
+        beta = cs_norm2(V[0], n);
+        k = 0;
+        while (beta > tol * bnrm) {
+            if (k >= maxit)
+                return (-1);
+            /* --- Arnoldi process ---------------------------------------------- */
+            for (i = 0; i < n; i++)
+                V[0][i] /= beta;
+            for (i = 1; i <= m; i++)
+                g[i] = 0;
+            g[0] = beta;
+            for (j = 0; j < m && k < maxit;) {
+                k++;
+                if (!cs_msolve(M, V[j], w, n))
+                    return (-1); /* w = M\V(:,j) */
+                v = V[j + 1];
+                cs_amul(A, P, w, v); /* v = A*w */
+                for (i = 0; i <= j; i++) /* modified Gram-Schmidt */
+                {
+                    H[i + j * (m + 1)] = h = cs_dot(v, V[i], n);
+                    for (l = 0; l < n; l++)
+                        v[l] -= h * V[i][l];
+                }
+                h = cs_norm2(v, n);
+                for (i = 0; i < j; i++) /* apply previous rotations to H(:,j) */
+                {
+                    tmp = c[i] * H[i + j * (m + 1)] + s[i] * H[i + 1 + j * (m + 1)];
+                    H[i + 1 + j * (m + 1)] = -s[i] * H[i + j * (m + 1)] + c[i] * H[i + 1 + j * (m + 1)];
+                    H[i + j * (m + 1)] = tmp;
+                }
+                d = Math.hypot(H[j + j * (m + 1)], h);
+                if (d == 0)
+                    return (-1); /* breakdown */
+                c[j] = H[j + j * (m + 1)] / d; /* rotation to eliminate H(j+1,j) */
+                s[j] = h / d;
+                H[j + j * (m + 1)] = d;
+                g[j + 1] = -s[j] * g[j];
+                g[j] = c[j] * g[j];
+                j++;
+                if (h == 0 || Math.abs(g[j]) <= tol * bnrm)
+                    break; /* converged, or the Krylov subspace is invariant */
+                for (l = 0; l < n; l++)
+                    v[l] /= h;
+            }
+            /* --- Update x with the least-squares solution --------------------- */
+            for (i = j - 1; i >= 0; i--) /* g(0:j-1) = H(0:j-1,0:j-1)\g(0:j-1) */
+            {
+                g[i] /= H[i + i * (m + 1)];
+                for (l = 0; l < i; l++)
+                    g[l] -= H[l + i * (m + 1)] * g[i];
+            }
+            for (l = 0; l < n; l++)
+                z[l] = 0;
+            for (i = 0; i < j; i++) {
+                for (l = 0; l < n; l++)
+                    z[l] += g[i] * V[i][l];
+            }
+            if (!cs_msolve(M, z, w, n))
+                return (-1); /* w = M\(V*g) */
+            for (l = 0; l < n; l++)
+                x[l] += w[l];
+            cs_resid(A, P, b, x, V[0]); /* restart with the true residual */
+            beta = cs_norm2(V[0], n);
+        }
+        return (k);
+    }
+
+    /* r = b-A*x, returns norm(b), -1 on error */
+    private static double cs_resid(Dcs A, Dcspmv P, double[] b, double[] x, double[] r) {
+        int i, n = r.length;
+        if (b.length < n || x.length < n)
+            return (-1);
+        for (i = 0; i < n; i++)
+            r[i] = 0;
+        cs_amul(A, P, x, r);
+        for (i = 0; i < n; i++)
+            r[i] = b[i] - r[i];
+        return (cs_norm2(b, n));
+    }
+
+    /* y = A*x */
+    private static void cs_amul(Dcs A, Dcspmv P, double[] x, double[] y) {
+        int i, n = y.length;
+        for (i = 0; i < n; i++)
+            y[i] = 0;
+        if (P != null)
+            Dcs_pgaxpy.cs_pgaxpy(P, x, y);
+        else
+            Dcs_gaxpy.cs_gaxpy(A, x, y);
+    }
+
+    /* z = M\r, or z = r if there is no preconditioner */
+    private static boolean cs_msolve(Dcs_iprecond M, double[] r, double[] z, int n) {
+        int i;
+        if (M != null)
+            return (M.psolve(r, z));
+        for (i = 0; i < n; i++)
+            z[i] = r[i];
+        return (true);
+    }
+
+    private static double cs_dot(double[] x, double[] y, int n) {
+        int i;
+        double s = 0;
+        for (i = 0; i < n; i++)
+            s += x[i] * y[i];
+        return (s);
+    }
+
+    private static double cs_norm2(double[] x, int n) {
+        return (Math.sqrt(cs_dot(x, x, n)));
+    }
+
+}
@@ -61,4 +61,40 @@ public class Dcs_lsolve {
         return true;
     }
 
+    /**
+     * Solves a lower triangular system LX=B where X and B are dense n-by-k,
+     * stored by rows (X(i,r) is X[i*k+r]). X=B on input, solution on output.
+     * 
+     * @param L
+     *            column-compressed, lower triangular matrix
+     * @param X
+     *            size n*k, right hand sides on input, solutions on output
+     * @param k
+     *            number of right hand sides
+     * @return true if successful, false on error
+     */
+    public static boolean cs_lsolve(Dcs L, double[] X, int k) {
+        int p, j, n, r, xi, xj, Lp[], Li[];
+        double Lx[], d;
+        if (!Dcs_util.CS_CSC(L) || X == null || k < 0)
+            return (false); /* check inputs */
+        n = L.n;
+        Lp = L.p;
+        Li = L.i;
+        Lx = L.x;
+        for (j = 0; j < n; j++) {
+            xj = j * k;
+            d = Lx[Lp[j]];
+            for (r = 0; r < k; r++)
+                X[xj + r] /= d;
+            for (p = Lp[j] + 1; p < Lp[j + 1]; p++) {
+                xi = Li[p] * k;
+                d = Lx[p];
+                for (r = 0; r < k; r++)
+                    X[xi + r] -= d * X[xj + r]; /* X(i,:) -= L(i,j)*X(j,:) */
+            }
+        }
+        return (true);
+    }
+
 }
@@ -61,4 +61,40 @@ public class Dcs_ltsolve {
         return (true);
     }
 
+    /**
+     * Solves an upper triangular system L'X=B where X and B are dense n-by-k,
+     * stored by rows (X(i,r) is X[i*k+r]). X=B on input, solution on output.
+     * 
+     * @param L
+     *            column-compressed, lower triangular matrix
+     * @param X
+     *            size n*k, right hand sides on input, solutions on output
+     * @param k
+     *            number of right hand sides
+     * @return true if successful, false on error
+     */
+    public static boolean cs_ltsolve(Dcs L, double[] X, int k) {
+        int p, j, n, r, xi, xj, Lp[], Li[];
+        double Lx[], d;
+        if (!Dcs_util.CS_CSC(L) || X == null || k < 0)
+            return (false); /* check inputs */
+        n = L.n;
+        Lp = L.p;
+        Li = L.i;
+        Lx = L.x;
+        for (j = n - 1; j >= 0; j--) {
+            xj = j * k;
+            for (p = Lp[j] + 1; p < Lp[j + 1]; p++) {
+                xi = Li[p] * k;
+                d = Lx[p];
+                for (r = 0; r < k; r++)
+                    X[xj + r] -= d * X[xi + r]; /* X(j,:) -= L(i,j)*X(i,:) */
+            }
+            d = Lx[Lp[j]];
+            for (r = 0; r < k; r++)
+                X[xj + r] /= d;
+        }
+        return (true);
+    }
+
 }
@@ -24,6 +24,8 @@
 
 package edu.emory.mathcs.csparsej.tdouble;
 
+import java.util.Arrays;
+
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
@@ -36,6 +38,87 @@ import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
  */
 public class Dcs_lu {
 
+    /**
+     * Number of chunks the symbolic estimates of nnz(L) and nnz(U) are split
+     * into, at most. L and U are built in chunks and copied once into their
+     * final, exact size, so no chunk is ever reallocated. A chunk holds a
+     * quarter of the factor computed so far (plus n), up to this limit, and a
+     * column larger than that gets a chunk of its own.
+     */
+    public static final int CS_CHUNKS = 8;
+
+    /* depth-first search of the graph of L held in chunks, starting at node j */
+    private static int cs_dfs(int j, int[] Lp, int[] Le, int[] Lc, int[][] Lic, int top, int[] xi, int n,
+            int[] pinv, int[] w, int mark) {
+        int i, p, p2, jnew, head = 0, Li[];
+        boolean done;
+        xi[0] = j; /* initialize the recursion stack */
+        while (head >= 0) {
+            j = xi[head]; /* get j from the top of the recursion stack */
+            jnew = pinv[j];
+            if (w[j] != mark) {
+                w[j] = mark; /* mark node j as visited */
+                xi[n + head] = (jnew < 0) ? 0 : Lp[jnew];
+            }
+            done = true; /* node j done if no unvisited neighbors */
+            p2 = (jnew < 0) ? 0 : Le[jnew];
+            Li = (jnew < 0) ? null : Lic[Lc[jnew]];
+            for (p = xi[n + head]; p < p2; p++) /* examine all neighbors of j */
+            {
+                i = Li[p]; /* consider neighbor node i */
+                if (w[i] == mark)
+                    continue; /* skip visited node i */
+                xi[n + head] = p; /* pause depth-first search of node j */
+                xi[++head] = i; /* start dfs at node i */
+                done = false; /* node j is not done */
+                break; /* break, to start dfs (i) */
+            }
+            if (done) /* depth-first search at node j is done */
+            {
+                head--; /* remove j from the recursion stack */
+                xi[--top] = j; /* and place in the output stack */
+            }
+        }
+        return (top);
+    }
+
+    /* x = L\A(:,col) with L held in chunks, as cs_spsolve; L(:,J) is
+     * Lic[Lc[J]][Lp[J]..Le[J]-1], with L(J,J) = 1 first */
+    private static int cs_spsolve(int[] Lp, int[] Le, int[] Lc, int[][] Lic, double[][] Lxc, Dcs A, int col,
+            int[] xi, double[] x, int[] pinv, int[] w, int mark) {
+        int j, J, p, q, px, top, n, Ap[], Ai[], Li[];
+        double Ax[], Lx[];
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        top = n;
+        for (p = Ap[col]; p < Ap[col + 1]; p++) {
+            if (w[Ai[p]] != mark) /* start a dfs at unmarked node i */
+            {
+                top = cs_dfs(Ai[p], Lp, Le, Lc, Lic, top, xi, n, pinv, w, mark);
+            }
+        }
+        for (p = top; p < n; p++)
+            x[xi[p]] = 0; /* clear x */
+        for (p = Ap[col]; p < Ap[col + 1]; p++)
+            x[Ai[p]] = Ax[p]; /* scatter A(:,col) */
+        for (px = top; px < n; px++) {
+            j = xi[px]; /* x(j) is nonzero */
+            J = pinv[j]; /* j maps to col J of L */
+            if (J < 0)
+                continue; /* column J is empty */
+            Li = Lic[Lc[J]];
+            Lx = Lxc[Lc[J]];
+            q = Le[J];
+            for (p = Lp[J] + 1; p < q; p++) /* L(j,j) = 1 is the 1st entry */
+            {
+                x[Li[p]] -= Lx[p] * x[j]; /* x(i) -= L(i,j) * x(j) */
+            }
+        }
+        return (top); /* return top of stack */
+    }
+
     /**
      * Sparse LU factorization of a square matrix, PAQ = LU.
      * 
@@ -50,46 +133,71 @@ public class Dcs_lu {
     public static Dcsn cs_lu(Dcs A, Dcss S, double tol) {
         Dcs L, U;
         Dcsn N;
-        double pivot, Lx[], Ux[], x[], a, t;
-        int Lp[], Li[], Up[], Ui[], pinv[], xi[], q[], n, ipiv, k, top, p, i, col, lnz, unz;
+        double pivot, Lx[], Ux[], x[], Lxc[][], Uxc[][], a, t;
+        int Lp[], Le[], Lc[], Li[], Up[], Ue[], Uc[], Ui[], Lic[][], Uic[][], pinv[], xi[], w[], q[], n, ipiv, k,
+                top, p, i, col, lnz, unz, lsize, usize, nl, nu, cnz, ltot, utot;
         if (!Dcs_util.CS_CSC(A) || S == null)
             return (null); /* check inputs */
         n = A.n;
         q = S.q;
-        lnz = S.lnz;
-        unz = S.unz;
+        lsize = S.lnz / CS_CHUNKS; /* largest chunk sizes */
+        usize = S.unz / CS_CHUNKS;
         x = new double[n]; /* get double workspace */
         xi = new int[2 * n]; /* get int workspace */
+        w = new int[n];
+        Lp = new int[n]; /* L(:,k) is Lic[Lc[k]][Lp[k]..Le[k]-1] */
+        Le = new int[n];
+        Lc = new int[n];
+        Up = new int[n]; /* U(:,k) is Uic[Uc[k]][Up[k]..Ue[k]-1] */
+        Ue = new int[n];
+        Uc = new int[n];
+        Lic = new int[CS_CHUNKS][];
+        Lxc = new double[CS_CHUNKS][];
+        Uic = new int[CS_CHUNKS][];
+        Uxc = new double[CS_CHUNKS][];
+        nl = nu = 0; /* no chunks yet */
+        Li = Ui = null;
+        Lx = Ux = null;
         N = new Dcsn(); /* allocate result */
-        N.L = L = Dcs_util.cs_spalloc(n, n, lnz, true, false); /* allocate result L */
-        N.U = U = Dcs_util.cs_spalloc(n, n, unz, true, false); /* allocate result U */
         N.pinv = pinv = new int[n]; /* allocate result pinv */
-        Lp = L.p;
-        Up = U.p;
         for (i = 0; i < n; i++)
             x[i] = 0; /* clear workspace */
         for (i = 0; i < n; i++)
             pinv[i] = -1; /* no rows pivotal yet */
-        for (k = 0; k <= n; k++)
-            Lp[k] = 0; /* no cols of L yet */
-        lnz = unz = 0;
+        for (i = 0; i < n; i++)
+            w[i] = -1; /* no nodes marked yet */
+        lnz = unz = ltot = utot = 0;
         for (k = 0; k < n; k++) /* compute L(:,k) and U(:,k) */
         {
             /* --- Triangular solve --------------------------------------------- */
-            Lp[k] = lnz; /* L(:,k) starts here */
-            Up[k] = unz; /* U(:,k) starts here */
-            if (lnz + n > L.nzmax) {
-                Dcs_util.cs_sprealloc(L, 2 * L.nzmax + n);
+            col = q != null ? (q[k]) : k;
+            top = cs_spsolve(Lp, Le, Lc, Lic, Lxc, A, col, xi, x, pinv, w, k); /* x = L\A(:,col) */
+            /* --- Start new chunks if L(:,k) or U(:,k) does not fit ------------ */
+            cnz = n - top + 1; /* nnz(L(:,k)) and nnz(U(:,k)) are at most this */
+            if (Li == null || lnz + cnz > Li.length) {
+                if (nl == Lic.length) {
+                    Lic = Arrays.copyOf(Lic, 2 * nl);
+                    Lxc = Arrays.copyOf(Lxc, 2 * nl);
+                }
+                ltot += lnz; /* chunks grow with L, up to lsize */
+                Lic[nl] = Li = new int[Math.max(Math.min(lsize, ltot / 4 + n), cnz)];
+                Lxc[nl++] = Lx = new double[Li.length];
+                lnz = 0;
             }
-            if (unz + n > U.nzmax) {
-                Dcs_util.cs_sprealloc(U, 2 * U.nzmax + n);
+            if (Ui == null || unz + cnz > Ui.length) {
+                if (nu == Uic.length) {
+                    Uic = Arrays.copyOf(Uic, 2 * nu);
+                    Uxc = Arrays.copyOf(Uxc, 2 * nu);
+                }
+                utot += unz;
+                Uic[nu] = Ui = new int[Math.max(Math.min(usize, utot / 4 + n), cnz)];
+                Uxc[nu++] = Ux = new double[Ui.length];
+                unz = 0;
             }
-            Li = L.i;
-            Lx = L.x;
-            Ui = U.i;
-            Ux = U.x;
-            col = q != null ? (q[k]) : k;
-            top = Dcs_spsolve.cs_spsolve(L, A, col, xi, x, pinv, true); /* x = L\A(:,col) */
+            Lc[k] = nl - 1;
+            Lp[k] = lnz; /* L(:,k) starts here */
+            Uc[k] = nu - 1;
+            Up[k] = unz; /* U(:,k) starts here */
             /* --- Find pivot --------------------------------------------------- */
             ipiv = -1;
             a = -1;
@@ -128,15 +236,45 @@ public class Dcs_lu {
                 }
                 x[i] = 0; /* x [0..n-1] = 0 for next k */
             }
+            Le[k] = lnz; /* L(:,k) ends here */
+            Ue[k] = unz; /* U(:,k) ends here */
+        }
+        /* --- Copy L and U into their exact size, one array at a time --------- */
+        for (lnz = unz = 0, k = 0; k < n; k++) {
+            lnz += Le[k] - Lp[k];
+            unz += Ue[k] - Up[k];
+        }
+        N.L = L = Dcs_util.cs_spalloc(n, n, lnz, false, false); /* allocate pattern of L */
+        for (lnz = 0, k = 0; k < n; k++) {
+            Li = Lic[Lc[k]];
+            L.p[k] = lnz;
+            for (p = Lp[k]; p < Le[k]; p++)
+                L.i[lnz++] = pinv[Li[p]]; /* fix row indices of L for final pinv */
+            if (k == n - 1 || Lc[k + 1] != Lc[k])
+                Lic[Lc[k]] = null; /* chunk copied, release it */
+        }
+        L.p[n] = lnz;
+        L.x = new double[L.nzmax]; /* then the values of L */
+        for (k = 0; k < n; k++) {
+            System.arraycopy(Lxc[Lc[k]], Lp[k], L.x, L.p[k], Le[k] - Lp[k]);
+            if (k == n - 1 || Lc[k + 1] != Lc[k])
+                Lxc[Lc[k]] = null;
+        }
+        N.U = U = Dcs_util.cs_spalloc(n, n, unz, false, false); /* allocate pattern of U */
+        for (unz = 0, k = 0; k < n; k++) {
+            U.p[k] = unz;
+            System.arraycopy(Uic[Uc[k]], Up[k], U.i, unz, Ue[k] - Up[k]);
+            unz += Ue[k] - Up[k];
+            if (k == n - 1 || Uc[k + 1] != Uc[k])
+                Uic[Uc[k]] = null;
+        }
+        U.p[n] = unz;
+        U.x = new double[U.nzmax]; /* then the values of U */
+        for (k = 0; k < n; k++) {
+            System.arraycopy(Uxc[Uc[k]], Up[k], U.x, U.p[k], Ue[k] - Up[k]);
+            if (k == n - 1 || Uc[k + 1] != Uc[k])
+                Uxc[Uc[k]] = null;
         }
-        /* --- Finalize L and U ------------------------------------------------- */
-        Lp[n] = lnz;
-        Up[n] = unz;
-        Li = L.i; /* fix row indices of L for final pinv */
-        for (p = 0; p < lnz; p++)
-            Li[p] = pinv[Li[p]];
-        Dcs_util.cs_sprealloc(L, 0); /* remove extra space from L and U */
-        Dcs_util.cs_sprealloc(U, 0);
         return N;
     }
 
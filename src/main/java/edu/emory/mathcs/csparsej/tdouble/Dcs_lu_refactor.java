@@ -0,0 +1,129 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Sparse LU refactorization.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_lu_refactor {
+
+    /**
+     * Numeric LU refactorization of a square matrix, PAQ = LU, reusing the
+     * row permutation and the patterns of L and U of a prior factorization of
+     * a matrix with the same pattern. Only the values of L and U are
+     * recomputed, in place. If a pivot fails the partial pivoting test of
+     * cs_lu, or A has entries outside the pattern of L+U, the matrix is
+     * factorized from scratch with cs_lu instead.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param S
+     *            symbolic LU analysis
+     * @param N
+     *            numeric LU factorization of a matrix with the same pattern as
+     *            A, overwritten with the factorization of A (its contents are
+     *            undefined if a new factorization is returned)
+     * @param tol
+     *            partial pivoting threshold (1 for partial pivoting)
+     * @return N if refactorized in place, a new numeric LU factorization if
+     *         the pivot sequence was unstable, null on error
+     */
+    public static Dcsn cs_lu_refactor(Dcs A, Dcss S, Dcsn N, double tol) {
+        double pivot, ujk, a, t, Lx[], Ux[], Ax[], x[];
+        int n, k, p, q, i, j, col, Lp[], Li[], Up[], Ui[], Ap[], Ai[], pinv[], w[];
+        if (!Dcs_util.CS_CSC(A) || S == null || N == null || N.L == null || N.U == null || N.pinv == null)
+            return (null); /* check inputs */
+        n = A.n;
+        if (N.L.n != n || N.U.n != n)
+            return (null);
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        Lp = N.L.p;
+        Li = N.L.i;
+        Lx = N.L.x;
+        Up = N.U.p;
+        Ui = N.U.i;
+        Ux = N.U.x;
+        pinv = N.pinv;
+        x = new double[n]; /* get double workspace */
+        w = new int[n]; /* get int workspace */
+        for (i = 0; i < n; i++)
+            w[i] = -1;
+        for (k = 0; k < n; k++) /* compute L(:,k) and U(:,k) */
+        {
+            /* --- Scatter A(:,col) into x, in pivotal order -------------------- */
+            for (p = Up[k]; p < Up[k + 1]; p++)
+                w[Ui[p]] = k; /* mark the pattern of L(:,k) and U(:,k) */
+            for (p = Lp[k]; p < Lp[k + 1]; p++)
+                w[Li[p]] = k;
+            col = S.q != null ? (S.q[k]) : k;
+            for (p = Ap[col]; p < Ap[col + 1]; p++) {
+                i = pinv[Ai[p]];
+                if (w[i] != k)
+                    return (Dcs_lu.cs_lu(A, S, tol)); /* pattern has changed */
+                x[i] += Ax[p];
+            }
+            /* --- Triangular solve, in the topological order of U(:,k) --------- */
+            for (p = Up[k]; p < Up[k + 1] - 1; p++) {
+                j = Ui[p];
+                Ux[p] = ujk = x[j]; /* U(j,k) = x(j) */
+                x[j] = 0;
+                if (ujk == 0)
+                    continue;
+                for (q = Lp[j] + 1; q < Lp[j + 1]; q++)
+                    x[Li[q]] -= Lx[q] * ujk;
+            }
+            /* --- Check and divide by pivot ------------------------------------ */
+            pivot = x[k];
+            x[k] = 0;
+            a = Math.abs(pivot);
+            for (q = Lp[k] + 1; q < Lp[k + 1]; q++) {
+                if ((t = Math.abs(x[Li[q]])) > a)
+                    a = t; /* largest pivot candidate */
+            }
+            if (a <= 0 || Math.abs(pivot) < a * tol) {
+                return (Dcs_lu.cs_lu(A, S, tol)); /* pivot is no longer stable */
+            }
+            Ux[Up[k + 1] - 1] = pivot; /* last entry in U(:,k) is U(k,k) */
+            Lx[Lp[k]] = 1; /* first entry in L(:,k) is L(k,k) = 1 */
+            for (q = Lp[k] + 1; q < Lp[k + 1]; q++) /* L(k+1:n,k) = x / pivot */
+            {
+                i = Li[q];
+                Lx[q] = x[i] / pivot;
+                x[i] = 0;
+            }
+        }
+        return N;
+    }
+
+}
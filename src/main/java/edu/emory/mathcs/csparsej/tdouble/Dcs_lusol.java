@@ -25,6 +25,7 @@
 package edu.emory.mathcs.csparsej.tdouble;
 
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
 
@@ -41,7 +42,7 @@ public class Dcs_lusol {
      * solution. Partial pivoting if tol = 1.
      * 
      * @param order
-     *            ordering method to use (0 to 3)
+     *            ordering method to use (0 to 5)
      * @param A
      *            column-compressed matrix
      * @param b
@@ -51,6 +52,27 @@ public class Dcs_lusol {
      * @return true if successful, false on error
      */
     public static boolean cs_lusol(int order, Dcs A, double[] b, double tol) {
+        return (cs_lusol(order, A, b, tol, null));
+    }
+
+    /**
+     * Solves Ax=b, where A is square and nonsingular. b overwritten with
+     * solution. Partial pivoting if tol = 1. The symbolic analysis is taken
+     * from the cache if A has the same pattern as an earlier solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param b
+     *            size n, b on input, x on output
+     * @param tol
+     *            partial pivoting tolerance
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_lusol(int order, Dcs A, double[] b, double tol, Dcscache cache) {
         double[] x;
         Dcss S;
         Dcsn N;
@@ -59,7 +81,7 @@ public class Dcs_lusol {
         if (!Dcs_util.CS_CSC(A) || b == null)
             return (false); /* check inputs */
         n = A.n;
-        S = Dcs_sqr.cs_sqr(order, A, false); /* ordering and symbolic analysis */
+        S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, A, false) : Dcs_sqr.cs_sqr(order, A, false); /* ordering and symbolic analysis */
         N = Dcs_lu.cs_lu(A, S, tol); /* numeric LU factorization */
         x = new double[n]; /* get workspace */
         ok = (S != null && N != null);
@@ -72,4 +94,65 @@ public class Dcs_lusol {
         return (ok);
     }
 
+    /**
+     * Solves AX=B for k right hand sides, where A is square and nonsingular.
+     * Each B[r] is overwritten with its solution. Partial pivoting if tol = 1.
+     * One factorization is used for all right hand sides, which are solved
+     * together.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            k right hand sides of size n, overwritten with solutions
+     * @param tol
+     *            partial pivoting tolerance
+     * @return true if successful, false on error
+     */
+    public static boolean cs_lusol(int order, Dcs A, double[][] B, double tol) {
+        return (cs_lusol(order, A, B, tol, null));
+    }
+
+    /**
+     * Solves AX=B for k right hand sides, where A is square and nonsingular.
+     * Each B[r] is overwritten with its solution. Partial pivoting if tol = 1.
+     * The symbolic analysis is taken from the cache if A has the same pattern
+     * as an earlier solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            k right hand sides of size n, overwritten with solutions
+     * @param tol
+     *            partial pivoting tolerance
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_lusol(int order, Dcs A, double[][] B, double tol, Dcscache cache) {
+        double[] X;
+        Dcss S;
+        Dcsn N;
+        int n, k;
+        boolean ok;
+        if (!Dcs_util.CS_CSC(A) || B == null)
+            return (false); /* check inputs */
+        n = A.n;
+        k = B.length;
+        S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, A, false) : Dcs_sqr.cs_sqr(order, A, false); /* ordering and symbolic analysis */
+        N = Dcs_lu.cs_lu(A, S, tol); /* numeric LU factorization */
+        X = new double[n * k]; /* get workspace, X(i,r) = X[i*k+r] */
+        ok = (S != null && N != null);
+        if (ok) {
+            Dcs_ipvec.cs_ipvec(N.pinv, B, X, n); /* X = B(p,:) */
+            Dcs_lsolve.cs_lsolve(N.L, X, k); /* X = L\X */
+            Dcs_usolve.cs_usolve(N.U, X, k); /* X = U\X */
+            Dcs_ipvec.cs_ipvec(S.q, X, B, n); /* B(q,:) = X */
+        }
+        return (ok);
+    }
+
 }
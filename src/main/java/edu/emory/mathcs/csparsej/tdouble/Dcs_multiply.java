@@ -83,4 +83,145 @@ public class Dcs_multiply {
         return C;
     }
 
+    /**
+     * Symbolic sparse matrix multiplication, the pattern of C = A*B. C has
+     * the same pattern as the result of cs_multiply, allocated to its exact
+     * size, and zero values to be filled in by cs_multiply_numeric.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @return pattern of C = A*B, null on error
+     */
+    public static Dcs cs_multiply_symbolic(Dcs A, Dcs B) {
+        int p, j, c, nz, Bp[], Bi[], Cp[], m, n, w[];
+        long cnz;
+        Dcs C;
+        if (!Dcs_util.CS_CSC(A) || !Dcs_util.CS_CSC(B))
+            return (null); /* check inputs */
+        if (A.n != B.m)
+            return (null);
+        m = A.m;
+        n = B.n;
+        Bp = B.p;
+        Bi = B.i;
+        w = new int[m]; /* get workspace */
+        C = Dcs_util.cs_spalloc(m, n, 0, true, false); /* pattern allocated below */
+        Cp = C.p;
+        cs_multiply_counts(A, B, Cp, w, 0, n); /* count entries in C */
+        for (j = 0, cnz = 0; j < n; j++) {
+            c = Cp[j];
+            Cp[j] = (int) cnz; /* column j of C starts here */
+            cnz += c;
+            if (cnz > Integer.MAX_VALUE)
+                return (null); /* C too large */
+        }
+        Cp[n] = (int) cnz;
+        C.nzmax = (int) cnz; /* allocate C once, at its exact size */
+        C.i = new int[C.nzmax];
+        C.x = new double[C.nzmax];
+        for (j = 0; j < n; j++) {
+            nz = Cp[j];
+            for (p = Bp[j]; p < Bp[j + 1]; p++) {
+                nz = Dcs_scatter.cs_scatter(A, Bi[p], 1, w, null, n + j + 1, C, nz);
+            }
+        }
+        return (C);
+    }
+
+    /**
+     * Counts the entries in columns j0 to j1-1 of C = A*B, the symbolic pass
+     * shared by cs_multiply_symbolic and cs_pmultiply. Uses marks j0+1 to j1
+     * in w, so marks above n are free for a later pass with the same w.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @param Cp
+     *            size B.n+1, on output Cp[j] = nnz(C(:,j)) for j0 <= j < j1
+     * @param w
+     *            size A.m workspace, entries no larger than j0 on input
+     * @param j0
+     *            first column
+     * @param j1
+     *            one past the last column
+     */
+    protected static void cs_multiply_counts(Dcs A, Dcs B, int[] Cp, int[] w, int j0, int j1) {
+        int i, j, p, q, c, Ap[], Ai[], Bp[], Bi[];
+        Ap = A.p;
+        Ai = A.i;
+        Bp = B.p;
+        Bi = B.i;
+        for (j = j0; j < j1; j++) {
+            c = 0;
+            for (p = Bp[j]; p < Bp[j + 1]; p++) {
+                for (q = Ap[Bi[p]]; q < Ap[Bi[p] + 1]; q++) {
+                    i = Ai[q];
+                    if (w[i] < j + 1) {
+                        w[i] = j + 1; /* A(i,k) is the first contribution to C(i,j) */
+                        c++;
+                    }
+                }
+            }
+            Cp[j] = c;
+        }
+    }
+
+    /**
+     * Numeric sparse matrix multiplication, C = A*B, with the pattern of C
+     * from cs_multiply_symbolic of matrices with the patterns of A and B. The
+     * values of C are overwritten; no memory is allocated if x is given. The
+     * workspace is only cleared on the pattern of each C(:,j), so the result
+     * is wrong if the pattern of A*B(:,j) is not contained in it.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix, with the pattern given to
+     *            cs_multiply_symbolic (or a subset of it)
+     * @param C
+     *            pattern of A*B from cs_multiply_symbolic, exactly C.nzmax
+     *            entries, values overwritten with A*B
+     * @param x
+     *            size A.m workspace, null to allocate one
+     * @return true if successful, false on error
+     */
+    public static boolean cs_multiply_numeric(Dcs A, Dcs B, Dcs C, double[] x) {
+        int p, q, j, k, m, n, Ap[], Ai[], Bp[], Bi[], Cp[], Ci[];
+        double b, Ax[], Bx[], Cx[];
+        if (!Dcs_util.CS_CSC(A) || !Dcs_util.CS_CSC(B) || !Dcs_util.CS_CSC(C))
+            return (false); /* check inputs */
+        if (A.x == null || B.x == null || C.x == null || A.n != B.m || C.m != A.m || C.n != B.n
+                || C.p[C.n] != C.nzmax || (x != null && x.length < A.m))
+            return (false);
+        m = A.m;
+        n = B.n;
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        Bp = B.p;
+        Bi = B.i;
+        Bx = B.x;
+        Cp = C.p;
+        Ci = C.i;
+        Cx = C.x;
+        if (x == null)
+            x = new double[m]; /* get workspace */
+        for (j = 0; j < n; j++) {
+            for (p = Cp[j]; p < Cp[j + 1]; p++)
+                x[Ci[p]] = 0; /* clear x on the pattern of C(:,j) */
+            for (p = Bp[j]; p < Bp[j + 1]; p++) {
+                k = Bi[p];
+                b = Bx[p];
+                for (q = Ap[k]; q < Ap[k + 1]; q++)
+                    x[Ai[q]] += b * Ax[q]; /* x = x + B(k,j)*A(:,k) */
+            }
+            for (p = Cp[j]; p < Cp[j + 1]; p++)
+                Cx[p] = x[Ci[p]];
+        }
+        return (true);
+    }
+
 }
@@ -0,0 +1,650 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+
+/**
+ * Nested dissection ordering.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_nd {
+
+    /**
+     * Subgraphs with at most this many nodes are ordered with cs_amd.
+     */
+    public static final int CS_ND_LEAF = 512;
+
+    /**
+     * Graphs are coarsened until they have at most this many nodes.
+     */
+    public static final int CS_ND_COARSE = 64;
+
+    /**
+     * Number of initial bisections tried on the coarsest graph.
+     */
+    public static final int CS_ND_TRIES = 4;
+
+    /* undirected graph with node and edge weights */
+    private static class Cs_graph {
+        /* # of nodes */
+        int n;
+        /* size n+1, node j is adjacent to nodes i[p[j]..p[j+1]-1] */
+        int[] p;
+        /* adjacent nodes */
+        int[] i;
+        /* edge weights */
+        int[] ew;
+        /* size n, node weights */
+        int[] vw;
+        /* size n, node of the coarser graph that each node is merged into */
+        int[] cmap;
+    }
+
+    /**
+     * Nested dissection ordering of A+A' (if A is symmetric) or A'A. The graph
+     * is split recursively by small vertex separators, which are ordered
+     * after the two parts they separate. The separators are found by
+     * multilevel bisection: the graph is coarsened by heavy-edge matching,
+     * bisected by graph growing, and the bisection is refined at each level
+     * (Fiduccia-Mattheyses) as it is projected back to the original graph.
+     * The cut edges are then covered by a minimum set of nodes, from a
+     * maximum matching. Subgraphs with at most CS_ND_LEAF nodes are ordered
+     * with cs_amd.
+     * 
+     * @param order
+     *            1:Chol, 2:LU, 3:QR (the graph ordered, as for cs_amd)
+     * @param A
+     *            column-compressed matrix
+     * @return nd(A+A') if A is symmetric, or nd(A'A) otherwise, null on error
+     */
+    public static int[] cs_nd(int order, Dcs A) {
+        int j, n, nz, P[], label[];
+        Dcs C;
+        Cs_graph G;
+        if (!Dcs_util.CS_CSC(A) || order <= 0 || order > 3)
+            return (null); /* check inputs */
+        C = Dcs_amd.cs_graph(order, A);
+        if (C == null)
+            return (null);
+        n = A.n;
+        nz = C.p[n];
+        G = new Cs_graph();
+        G.n = n;
+        G.p = C.p;
+        G.i = C.i;
+        G.ew = new int[nz];
+        G.vw = new int[n];
+        label = new int[n];
+        for (j = 0; j < nz; j++)
+            G.ew[j] = 1;
+        for (j = 0; j < n; j++) {
+            G.vw[j] = 1;
+            label[j] = j;
+        }
+        P = new int[n];
+        cs_dissect(G, label, P, 0, new Random(1)); /* fixed seed, so P is repeatable */
+        return (P);
+    }
+
+    /* orders the nodes of G as P[k..k+n-1], with label[j] the node of A */
+    private static int cs_dissect(Cs_graph G, int[] label, int[] P, int k, Random rand) {
+        int j, s, where[], sublabel[];
+        Cs_graph S;
+        if (G.n <= CS_ND_LEAF)
+            return (cs_leaf(G, label, P, k));
+        where = cs_separate(G, rand);
+        if (where == null)
+            return (cs_leaf(G, label, P, k)); /* no useful separator */
+        for (s = 0; s < 2; s++) {
+            sublabel = new int[G.n];
+            S = cs_subgraph(G, where, s, label, sublabel);
+            k = cs_dissect(S, sublabel, P, k, rand); /* order part s */
+        }
+        for (j = 0; j < G.n; j++)
+            if (where[j] == 2)
+                P[k++] = label[j]; /* order the separator last */
+        return (k);
+    }
+
+    /* minimum degree ordering of a small subgraph */
+    private static int cs_leaf(Cs_graph G, int[] label, int[] P, int k) {
+        int j, q[];
+        Dcs C;
+        if (G.n == 0)
+            return (k);
+        C = new Dcs();
+        C.m = C.n = G.n;
+        C.p = G.p;
+        C.i = G.i;
+        C.nzmax = Math.max(G.p[G.n], 1);
+        C.nz = -1;
+        q = Dcs_amd.cs_amd(1, C);
+        for (j = 0; j < G.n; j++)
+            P[k++] = label[q != null ? q[j] : j];
+        return (k);
+    }
+
+    /* induced subgraph of the nodes in part s, sublabel[j] is set for its nodes */
+    private static Cs_graph cs_subgraph(Cs_graph G, int[] where, int s, int[] label, int[] sublabel) {
+        int j, p, n, nz, Gp[], Gi[], map[], Sp[], Si[];
+        Cs_graph S;
+        Gp = G.p;
+        Gi = G.i;
+        map = new int[G.n];
+        for (n = 0, j = 0; j < G.n; j++) {
+            map[j] = (where[j] == s) ? n++ : -1; /* new index of node j */
+        }
+        for (nz = 0, j = 0; j < G.n; j++) {
+            if (map[j] < 0)
+                continue;
+            for (p = Gp[j]; p < Gp[j + 1]; p++)
+                if (map[Gi[p]] >= 0)
+                    nz++;
+        }
+        S = new Cs_graph();
+        S.n = n;
+        S.p = Sp = new int[n + 1];
+        S.i = Si = new int[nz];
+        S.ew = new int[nz];
+        S.vw = new int[n];
+        for (nz = 0, j = 0; j < G.n; j++) {
+            if (map[j] < 0)
+                continue;
+            Sp[map[j]] = nz;
+            sublabel[map[j]] = label[j];
+            S.vw[map[j]] = 1;
+            for (p = Gp[j]; p < Gp[j + 1]; p++) {
+                if (map[Gi[p]] >= 0) {
+                    S.ew[nz] = 1;
+                    Si[nz++] = map[Gi[p]];
+                }
+            }
+        }
+        Sp[n] = nz;
+        return (S);
+    }
+
+    /*
+     * vertex separator of G: where[j] is 0 or 1 for the two parts and 2 for the
+     * separator, or null if G cannot be split
+     */
+    private static int[] cs_separate(Cs_graph G, Random rand) {
+        int j, k, n0, n1, c[], where[];
+        Cs_graph C, F;
+        ArrayList<Cs_graph> levels = new ArrayList<Cs_graph>();
+        levels.add(G);
+        for (C = G; C.n > CS_ND_COARSE;) /* coarsen */
+        {
+            F = C;
+            C = cs_coarsen(F, rand);
+            if (C.n > 0.9 * F.n) {
+                F.cmap = null; /* too little progress, stop at F */
+                C = F;
+                break;
+            }
+            levels.add(C);
+        }
+        where = cs_bisect(C, rand);
+        for (k = levels.size() - 2; k >= 0; k--) /* project and refine */
+        {
+            F = levels.get(k);
+            c = where;
+            where = new int[F.n];
+            for (j = 0; j < F.n; j++)
+                where[j] = c[F.cmap[j]];
+            F.cmap = null;
+            cs_refine(F, where);
+        }
+        cs_cover(G, where);
+        for (n0 = 0, n1 = 0, j = 0; j < G.n; j++) {
+            if (where[j] == 0)
+                n0++;
+            else if (where[j] == 1)
+                n1++;
+        }
+        return ((n0 == G.n || n1 == G.n || n0 + n1 == 0) ? null : where);
+    }
+
+    /* coarsens G by heavy-edge matching, setting G.cmap */
+    private static Cs_graph cs_coarsen(Cs_graph G, Random rand) {
+        int j, k, p, u, v, c, w, cn, nz, best, bw, n, Gp[], Gi[], Gw[], match[], perm[], cmap[], pos[], Cp[], Ci[], Cw[], Cv[];
+        Cs_graph C;
+        n = G.n;
+        Gp = G.p;
+        Gi = G.i;
+        Gw = G.ew;
+        match = new int[n];
+        perm = new int[n];
+        for (j = 0; j < n; j++) {
+            match[j] = -1;
+            perm[j] = j;
+        }
+        for (j = n - 1; j > 0; j--) /* random order of the nodes */
+        {
+            k = rand.nextInt(j + 1);
+            u = perm[j];
+            perm[j] = perm[k];
+            perm[k] = u;
+        }
+        for (k = 0; k < n; k++) {
+            u = perm[k];
+            if (match[u] != -1)
+                continue; /* u already matched */
+            best = u;
+            bw = 0;
+            for (p = Gp[u]; p < Gp[u + 1]; p++) {
+                v = Gi[p];
+                if (match[v] == -1 && v != u && Gw[p] > bw) {
+                    best = v; /* heaviest edge to an unmatched node */
+                    bw = Gw[p];
+                }
+            }
+            match[u] = best;
+            match[best] = u;
+        }
+        G.cmap = cmap = new int[n];
+        for (cn = 0, u = 0; u < n; u++) {
+            if (match[u] >= u)
+                cmap[u] = cmap[match[u]] = cn++; /* u and its match become node cn */
+        }
+        C = new Cs_graph();
+        C.n = cn;
+        C.p = Cp = new int[cn + 1];
+        C.i = Ci = new int[Gp[n]];
+        C.ew = Cw = new int[Gp[n]];
+        C.vw = Cv = new int[cn];
+        pos = new int[cn];
+        for (c = 0; c < cn; c++)
+            pos[c] = -1;
+        for (nz = 0, u = 0; u < n; u++) {
+            if (match[u] < u)
+                continue; /* u is merged into an earlier node */
+            c = cmap[u];
+            Cp[c] = nz;
+            for (v = u; v != -1; v = (v == u && match[u] != u) ? match[u] : -1) {
+                Cv[c] += G.vw[v];
+                for (p = Gp[v]; p < Gp[v + 1]; p++) {
+                    w = cmap[Gi[p]];
+                    if (w == c)
+                        continue; /* drop the edge inside node c */
+                    if (pos[w] < 0) {
+                        pos[w] = nz; /* new edge (c,w) */
+                        Ci[nz] = w;
+                        Cw[nz++] = Gw[p];
+                    } else {
+                        Cw[pos[w]] += Gw[p]; /* sum the weights of (u,w) and (v,w) */
+                    }
+                }
+            }
+            for (p = Cp[c]; p < nz; p++)
+                pos[Ci[p]] = -1;
+        }
+        Cp[cn] = nz;
+        return (C);
+    }
+
+    /*
+     * bisects G by growing part 0 from CS_ND_TRIES seeds, one far from the
+     * others (pseudo-peripheral) and the rest random, adding the node that
+     * least increases the cut at each step; keeps the best cut
+     */
+    private static int[] cs_bisect(Cs_graph G, Random rand) {
+        int j, p, u, v, t, n, w0, total, cut, bestcut, Gp[], Gi[], Gw[], gain[], where[], best[];
+        Cs_heap H;
+        n = G.n;
+        Gp = G.p;
+        Gi = G.i;
+        Gw = G.ew;
+        for (total = 0, j = 0; j < n; j++)
+            total += G.vw[j];
+        gain = new int[n];
+        H = new Cs_heap(n);
+        best = null;
+        bestcut = Integer.MAX_VALUE;
+        for (t = 0; t < CS_ND_TRIES && n > 0; t++) {
+            where = new int[n];
+            for (j = 0; j < n; j++) {
+                where[j] = 1;
+                for (gain[j] = 0, p = Gp[j]; p < Gp[j + 1]; p++)
+                    gain[j] -= Gw[p]; /* cut increase if j moves to part 0 */
+            }
+            u = (t == 0) ? cs_far(G, cs_far(G, rand.nextInt(n))) : rand.nextInt(n); /* seed */
+            for (w0 = 0; 2 * w0 < total;) {
+                if (H.size > 0) {
+                    u = H.heap[0]; /* best node next to part 0 */
+                    H.remove(u);
+                } else if (u < 0 || where[u] != 1) /* part 0 cannot grow, start another component */
+                {
+                    for (u = 0; u < n && where[u] != 1; u++)
+                        ;
+                    if (u == n)
+                        break;
+                }
+                where[u] = 0; /* move u to part 0 */
+                w0 += G.vw[u];
+                for (p = Gp[u]; p < Gp[u + 1]; p++) {
+                    v = Gi[p];
+                    if (where[v] != 1)
+                        continue;
+                    gain[v] += 2 * Gw[p];
+                    H.put(v, gain[v]);
+                }
+                u = -1;
+            }
+            H.clear();
+            cs_refine(G, where);
+            cut = cs_cut(G, where);
+            if (cut < bestcut) {
+                bestcut = cut;
+                best = where;
+            }
+        }
+        return (best != null ? best : new int[n]);
+    }
+
+    /* last node reached by a breadth-first search of G from node s */
+    private static int cs_far(Cs_graph G, int s) {
+        int p, u, head, tail, queue[];
+        boolean mark[];
+        queue = new int[G.n];
+        mark = new boolean[G.n];
+        head = tail = 0;
+        queue[tail++] = s;
+        mark[s] = true;
+        for (u = s; head < tail;) {
+            u = queue[head++];
+            for (p = G.p[u]; p < G.p[u + 1]; p++) {
+                if (!mark[G.i[p]]) {
+                    mark[G.i[p]] = true;
+                    queue[tail++] = G.i[p];
+                }
+            }
+        }
+        return (u);
+    }
+
+    /* weight of the edges between parts 0 and 1 */
+    private static int cs_cut(Cs_graph G, int[] where) {
+        int j, p, cut = 0;
+        for (j = 0; j < G.n; j++)
+            for (p = G.p[j]; p < G.p[j + 1]; p++)
+                if (where[G.i[p]] != where[j])
+                    cut += G.ew[p];
+        return (cut / 2);
+    }
+
+    /* indexed max-heap of nodes keyed by gain */
+    private static class Cs_heap {
+        int size;
+        /* heap[0..size-1], nodes ordered by key */
+        int[] heap;
+        /* pos[j] is the position of node j in heap, -1 if not in the heap */
+        int[] pos;
+        /* key of each node */
+        int[] key;
+
+        Cs_heap(int n) {
+            heap = new int[n];
+            pos = new int[n];
+            key = new int[n];
+            for (int j = 0; j < n; j++)
+                pos[j] = -1;
+        }
+
+        void clear() {
+            while (size > 0)
+                pos[heap[--size]] = -1;
+        }
+
+        /* inserts node j or changes its key */
+        void put(int j, int k) {
+            if (pos[j] < 0) {
+                heap[size] = j;
+                pos[j] = size++;
+                key[j] = k;
+                up(pos[j]);
+            } else if (k > key[j]) {
+                key[j] = k;
+                up(pos[j]);
+            } else {
+                key[j] = k;
+                down(pos[j]);
+            }
+        }
+
+        void remove(int j) {
+            int p = pos[j], last;
+            if (p < 0)
+                return;
+            pos[j] = -1;
+            last = heap[--size];
+            if (p == size)
+                return;
+            heap[p] = last;
+            pos[last] = p;
+            up(p);
+            down(pos[last]);
+        }
+
+        void up(int p) {
+            int j = heap[p], q;
+            for (; p > 0 && key[heap[q = (p - 1) / 2]] < key[j]; p = q) {
+                heap[p] = heap[q];
+                pos[heap[p]] = p;
+            }
+            heap[p] = j;
+            pos[j] = p;
+        }
+
+        void down(int p) {
+            int j = heap[p], q;
+            for (; (q = 2 * p + 1) < size; p = q) {
+                if (q + 1 < size && key[heap[q + 1]] > key[heap[q]])
+                    q++; /* larger child */
+                if (key[heap[q]] <= key[j])
+                    break;
+                heap[p] = heap[q];
+                pos[heap[p]] = p;
+            }
+            heap[p] = j;
+            pos[j] = p;
+        }
+    }
+
+    /*
+     * Fiduccia-Mattheyses refinement: moves boundary nodes in order of gain,
+     * allowing moves that increase the cut, then keeps the best bisection seen
+     */
+    private static void cs_refine(Cs_graph G, int[] where) {
+        int j, p, k, s, u, v, w, n, pass, nmoves, best, limit, cut, bestcut, maxw, maxvw, pw[], Gp[], Gi[], Gw[], vw[], id[], ed[], moves[];
+        boolean locked[], ok, bestok;
+        Cs_heap[] H;
+        n = G.n;
+        Gp = G.p;
+        Gi = G.i;
+        Gw = G.ew;
+        vw = G.vw;
+        pw = new int[2];
+        for (maxvw = 0, j = 0; j < n; j++) {
+            pw[where[j]] += vw[j];
+            maxvw = Math.max(maxvw, vw[j]);
+        }
+        maxw = (pw[0] + pw[1]) / 2 + Math.max(maxvw, (pw[0] + pw[1]) / 32); /* largest part allowed */
+        id = new int[n];
+        ed = new int[n];
+        moves = new int[n];
+        locked = new boolean[n];
+        H = new Cs_heap[] { new Cs_heap(n), new Cs_heap(n) };
+        limit = Math.max(25, Math.min(n / 20, 250)); /* moves without improvement */
+        for (pass = 0; pass < 8; pass++) {
+            for (cut = 0, j = 0; j < n; j++) {
+                id[j] = ed[j] = 0;
+                for (p = Gp[j]; p < Gp[j + 1]; p++) {
+                    if (where[Gi[p]] != where[j])
+                        ed[j] += Gw[p]; /* external degree of j */
+                    else
+                        id[j] += Gw[p]; /* internal degree of j */
+                }
+                cut += ed[j];
+                locked[j] = false;
+                if (ed[j] > 0)
+                    H[where[j]].put(j, ed[j] - id[j]); /* j is on the boundary */
+            }
+            cut /= 2;
+            bestcut = cut;
+            bestok = Math.max(pw[0], pw[1]) <= maxw;
+            for (nmoves = 0, best = 0; nmoves - best < limit; nmoves++) {
+                s = -1; /* side to move a node from */
+                for (k = 0; k < 2; k++) {
+                    if (H[k].size == 0 || pw[1 - k] + vw[H[k].heap[0]] > maxw && pw[k] <= maxw)
+                        continue; /* nothing to move, or the move would unbalance */
+                    if (s < 0 || pw[s] <= maxw
+                            && (pw[k] > maxw || H[k].key[H[k].heap[0]] > H[s].key[H[s].heap[0]] || H[k].key[H[k]
+                                    .heap[0]] == H[s].key[H[s].heap[0]]
+                                    && pw[k] > pw[s]))
+                        s = k;
+                }
+                if (s < 0)
+                    break;
+                u = H[s].heap[0];
+                H[s].remove(u);
+                locked[u] = true;
+                moves[nmoves] = u;
+                cut -= ed[u] - id[u];
+                where[u] = 1 - s; /* move u to the other side */
+                pw[s] -= vw[u];
+                pw[1 - s] += vw[u];
+                w = ed[u];
+                ed[u] = id[u];
+                id[u] = w;
+                for (p = Gp[u]; p < Gp[u + 1]; p++) {
+                    v = Gi[p];
+                    if (where[v] == where[u]) {
+                        id[v] += Gw[p];
+                        ed[v] -= Gw[p];
+                    } else {
+                        id[v] -= Gw[p];
+                        ed[v] += Gw[p];
+                    }
+                    if (locked[v])
+                        continue;
+                    if (ed[v] > 0)
+                        H[where[v]].put(v, ed[v] - id[v]);
+                    else
+                        H[where[v]].remove(v);
+                }
+                ok = Math.max(pw[0], pw[1]) <= maxw;
+                if (ok && !bestok || ok == bestok && cut < bestcut) {
+                    bestcut = cut; /* best bisection so far */
+                    bestok = ok;
+                    best = nmoves + 1;
+                }
+            }
+            H[0].clear();
+            H[1].clear();
+            for (k = nmoves - 1; k >= best; k--) /* undo the moves after the best one */
+            {
+                u = moves[k];
+                s = where[u];
+                where[u] = 1 - s;
+                pw[s] -= vw[u];
+                pw[1 - s] += vw[u];
+            }
+            if (best == 0)
+                break; /* no improvement */
+        }
+    }
+
+    /*
+     * turns the edge separator in where into a vertex separator (where[j] = 2),
+     * a minimum cover of the cut edges found from a maximum matching
+     */
+    private static void cs_cover(Cs_graph G, int[] where) {
+        int j, k, p, q, r, c, n, nr, nc, nz, head, tail, Gp[], Gi[], map[], Bp[], Bi[], jimatch[], queue[];
+        boolean mark[];
+        Dcs B;
+        n = G.n;
+        Gp = G.p;
+        Gi = G.i;
+        map = new int[n];
+        for (nr = 0, nc = 0, nz = 0, j = 0; j < n; j++) {
+            for (k = 0, p = Gp[j]; p < Gp[j + 1]; p++)
+                if (where[Gi[p]] != where[j])
+                    k++;
+            if (where[j] == 0)
+                nz += k;
+            map[j] = (k == 0) ? -1 : (where[j] == 0) ? nc++ : nr++; /* boundary nodes */
+        }
+        B = Dcs_util.cs_spalloc(nr, nc, nz, false, false); /* B(r,c): cut edge, r in part 1, c in part 0 */
+        Bp = B.p;
+        Bi = B.i;
+        for (nz = 0, j = 0; j < n; j++) {
+            if (where[j] != 0 || map[j] < 0)
+                continue;
+            Bp[map[j]] = nz;
+            for (p = Gp[j]; p < Gp[j + 1]; p++)
+                if (where[Gi[p]] == 1)
+                    Bi[nz++] = map[Gi[p]];
+        }
+        Bp[nc] = nz;
+        jimatch = Dcs_maxtrans.cs_maxtrans(B, 0); /* jimatch[r]: col of row r, jimatch[nr+c]: row of col c */
+        mark = new boolean[nr + nc]; /* rows, then columns, reachable by alternating paths */
+        queue = new int[nc];
+        for (head = 0, tail = 0, c = 0; c < nc; c++) {
+            if (jimatch[nr + c] < 0) {
+                mark[nr + c] = true; /* start at each unmatched column */
+                queue[tail++] = c;
+            }
+        }
+        while (head < tail) {
+            c = queue[head++];
+            for (q = Bp[c]; q < Bp[c + 1]; q++) {
+                r = Bi[q];
+                if (mark[r])
+                    continue;
+                mark[r] = true;
+                if ((k = jimatch[r]) >= 0 && !mark[nr + k]) /* follow the matched edge of r */
+                {
+                    mark[nr + k] = true;
+                    queue[tail++] = k;
+                }
+            }
+        }
+        for (j = 0; j < n; j++) /* cover: unmarked columns and marked rows */
+        {
+            if (map[j] < 0)
+                continue;
+            if (where[j] == 0 ? !mark[nr + map[j]] : mark[map[j]])
+                where[j] = 2;
+        }
+    }
+
+}
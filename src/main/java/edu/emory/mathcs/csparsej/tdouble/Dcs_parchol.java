@@ -0,0 +1,227 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper;
+
+/**
+ * Parallel supernodal sparse Cholesky.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_parchol {
+
+    /**
+     * Subtrees of the supernodal elimination tree with fewer flops than this
+     * are factorized by a single task.
+     */
+    public static final double CS_GRAIN = 1e6;
+
+    /* shared state of one factorization */
+    private static class Cs_factor {
+        Dcs Ct;
+        Dcssuper SS;
+        double[] X;
+        int[] head, next;
+        double[] work;
+        volatile boolean ok = true;
+        ConcurrentLinkedQueue<Cs_work> ws; /* workspaces not in use */
+    }
+
+    /* workspace of one running task */
+    private static class Cs_work {
+        int[] map;
+        double[] W;
+    }
+
+    /* factorizes the subtree rooted at supernode J (J = nsuper for all) */
+    private static class Cs_subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Cs_factor F;
+        private final int J;
+
+        Cs_subtree(Cs_factor F, int J) {
+            this.F = F;
+            this.J = J;
+        }
+
+        @Override
+        protected void compute() {
+            int K, B, top, nsuper = F.SS.nsuper, head[] = F.head, next[] = F.next, chain[];
+            List<Cs_subtree> tasks;
+            chain = new int[16];
+            top = 0;
+            for (B = J; B < nsuper && head[B] != -1 && next[head[B]] == -1 && F.work[head[B]] >= CS_GRAIN; B = head[B]) {
+                if (top == chain.length)
+                    chain = Arrays.copyOf(chain, 2 * top);
+                chain[top++] = B; /* B has one large child: walk down */
+            }
+            if (B < nsuper && F.work[B] < CS_GRAIN) {
+                cs_subtree(F, B); /* small subtree: factorize sequentially */
+            } else {
+                tasks = new ArrayList<Cs_subtree>();
+                for (K = head[B]; K != -1; K = next[K])
+                    tasks.add(new Cs_subtree(F, K));
+                invokeAll(tasks); /* factorize the children of B in parallel */
+                if (B < nsuper)
+                    cs_node(F, B);
+            }
+            while (top > 0)
+                cs_node(F, chain[--top]); /* factorize the chain above B */
+        }
+    }
+
+    /**
+     * Numeric Cholesky factorization LL=PAP' using the default pool.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @return numeric Cholesky factorization, null on error
+     */
+    public static Dcsn cs_parchol(Dcs A, Dcss S) {
+        return cs_parchol(A, S, Dcs_ssuper.cs_ssuper(A, S), null);
+    }
+
+    /**
+     * Numeric Cholesky factorization LL=PAP'. Independent subtrees of the
+     * supernodal elimination tree are factorized concurrently. The result is
+     * identical to cs_supchol and has the same structure as cs_chol.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @param SS
+     *            supernodal analysis of A and S from cs_ssuper
+     * @param pool
+     *            pool to run the factorization in, null for the default pool
+     * @return numeric Cholesky factorization, null on error
+     */
+    public static Dcsn cs_parchol(Dcs A, Dcss S, Dcssuper SS, ForkJoinPool pool) {
+        int J, K, f, nc, nr, n, nsuper, parent[];
+        Cs_factor F;
+        Dcs C;
+        Dcsn N;
+        if (!Dcs_util.CS_CSC(A) || S == null || S.cp == null || SS == null)
+            return (null); /* check inputs */
+        n = A.n;
+        nsuper = SS.nsuper;
+        parent = SS.parent;
+        F = new Cs_factor();
+        C = S.pinv != null ? Dcs_symperm.cs_symperm(A, S.pinv, true) : A;
+        F.Ct = Dcs_transpose.cs_transpose(C, true); /* lower triangular part of C */
+        F.SS = SS;
+        F.X = new double[SS.xp[nsuper]]; /* dense panels */
+        F.head = new int[nsuper + 1]; /* children of each supernode */
+        F.next = new int[nsuper];
+        F.work = new double[nsuper]; /* flops in each subtree */
+        Arrays.fill(F.head, -1);
+        for (J = nsuper - 1; J >= 0; J--) {
+            K = parent[J] == -1 ? nsuper : parent[J]; /* roots are children of nsuper */
+            F.next[J] = F.head[K];
+            F.head[K] = J;
+        }
+        for (J = 0; J < nsuper; J++) {
+            f = SS.sup[J];
+            nc = SS.sup[J + 1] - f;
+            nr = SS.rp[J + 1] - SS.rp[J];
+            F.work[J] += (double) nc * nr * nr;
+            if (parent[J] != -1)
+                F.work[parent[J]] += F.work[J];
+        }
+        F.ws = new ConcurrentLinkedQueue<Cs_work>();
+        (pool != null ? pool : Dcs_util.cs_pool()).invoke(new Cs_subtree(F, nsuper));
+        if (!F.ok)
+            return (null); /* not pos def */
+        N = new Dcsn(); /* allocate result */
+        N.L = Dcs_supchol.cs_superL(SS, S.cp, F.X, n);
+        return N;
+    }
+
+    /* takes a workspace not in use by another task, allocating it if needed */
+    private static Cs_work cs_getwork(Cs_factor F) {
+        Cs_work w = F.ws.poll();
+        if (w == null) {
+            w = new Cs_work();
+            w.map = new int[F.Ct.n]; /* get int workspace */
+            w.W = new double[F.SS.wsize]; /* get double workspace */
+        }
+        return w;
+    }
+
+    /* factorizes supernode J */
+    private static void cs_node(Cs_factor F, int J) {
+        Cs_work w;
+        if (!F.ok)
+            return;
+        w = cs_getwork(F);
+        if (!Dcs_supchol.cs_supnode(J, F.Ct, F.SS, F.X, w.map, w.W))
+            F.ok = false;
+        F.ws.offer(w); /* return the workspace */
+    }
+
+    /* factorizes the subtree rooted at J in a single thread */
+    private static void cs_subtree(Cs_factor F, int J) {
+        int K, k, nk, stack[], nodes[];
+        Cs_work w;
+        stack = new int[16];
+        nodes = new int[16];
+        nk = 0;
+        k = 0;
+        stack[k++] = J;
+        while (k > 0) /* collect the nodes of the subtree */
+        {
+            J = stack[--k];
+            if (nk == nodes.length)
+                nodes = Arrays.copyOf(nodes, 2 * nk);
+            nodes[nk++] = J;
+            for (K = F.head[J]; K != -1; K = F.next[K]) {
+                if (k == stack.length)
+                    stack = Arrays.copyOf(stack, 2 * k);
+                stack[k++] = K;
+            }
+        }
+        Arrays.sort(nodes, 0, nk); /* children before their parents */
+        w = cs_getwork(F);
+        for (k = 0; k < nk && F.ok; k++) {
+            if (!Dcs_supchol.cs_supnode(nodes[k], F.Ct, F.SS, F.X, w.map, w.W))
+                F.ok = false;
+        }
+        F.ws.offer(w);
+    }
+}
@@ -0,0 +1,170 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcspmv;
+
+/**
+ * Parallel sparse matrix times dense vector.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_pgaxpy {
+
+    /**
+     * Row blocks have at least this many entries, so small products run on a
+     * single thread.
+     */
+    public static final int CS_GRAIN = 1 << 14;
+
+    /* multiplies row blocks lo to hi-1 */
+    private static class Cs_rows extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        Dcspmv P;
+        double[] x, y;
+        int lo, hi;
+
+        Cs_rows(Dcspmv P, double[] x, double[] y, int lo, int hi) {
+            this.P = P;
+            this.x = x;
+            this.y = y;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            int mid;
+            if (hi - lo == 1) {
+                cs_rows(P.AT, P.rp[lo], P.rp[hi], x, y);
+            } else {
+                mid = (lo + hi) >>> 1;
+                invokeAll(new Cs_rows(P, x, y, lo, mid), new Cs_rows(P, x, y, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Builds the row-partitioned form of A used by cs_pgaxpy. The rows are
+     * split into blocks with about the same number of entries. The result can
+     * be reused for any number of products with A, as long as A is not
+     * modified.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param nparts
+     *            number of row blocks, or 0 for four per thread of the default
+     *            pool; fewer blocks are used if they would have less than
+     *            CS_GRAIN entries
+     * @return row-partitioned A, null on error
+     */
+    public static Dcspmv cs_pmv(Dcs A, int nparts) {
+        int k, r, m, nz, ATp[], rp[];
+        long target;
+        Dcspmv P;
+        if (!Dcs_util.CS_CSC(A) || A.x == null || nparts < 0)
+            return (null); /* check inputs */
+        P = new Dcspmv();
+        P.AT = Dcs_transpose.cs_transpose(A, true); /* rows of A */
+        m = A.m;
+        ATp = P.AT.p;
+        nz = ATp[m];
+        if (nparts == 0)
+            nparts = 4 * Dcs_util.cs_pool().getParallelism();
+        nparts = Math.max(1, Math.min(nparts, Math.min(m, nz / CS_GRAIN)));
+        P.nparts = nparts;
+        P.rp = rp = new int[nparts + 1];
+        for (k = 1, r = 0; k < nparts; k++) /* block k starts at the row holding entry nz*k/nparts */
+        {
+            target = (long) nz * k / nparts;
+            while (r < m && ATp[r] < target)
+                r++;
+            rp[k] = r;
+        }
+        rp[nparts] = m;
+        return (P);
+    }
+
+    /**
+     * Sparse matrix times dense column vector, y = A*x+y, using the default
+     * pool. The result is identical to cs_gaxpy.
+     * 
+     * @param P
+     *            row-partitioned A, from cs_pmv
+     * @param x
+     *            size n, vector x
+     * @param y
+     *            size m, vector y
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pgaxpy(Dcspmv P, double[] x, double[] y) {
+        return (cs_pgaxpy(P, x, y, null));
+    }
+
+    /**
+     * Sparse matrix times dense column vector, y = A*x+y, with one task per
+     * row block. Each task writes a distinct part of y, and each y(i) is
+     * accumulated in the same order as cs_gaxpy, so the result is identical.
+     * 
+     * @param P
+     *            row-partitioned A, from cs_pmv
+     * @param x
+     *            size n, vector x
+     * @param y
+     *            size m, vector y
+     * @param pool
+     *            pool to run the product in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pgaxpy(Dcspmv P, double[] x, double[] y, ForkJoinPool pool) {
+        if (P == null || P.AT == null || x == null || y == null)
+            return (false); /* check inputs */
+        if (P.nparts == 1)
+            cs_rows(P.AT, 0, P.AT.n, x, y);
+        else
+            (pool != null ? pool : Dcs_util.cs_pool()).invoke(new Cs_rows(P, x, y, 0, P.nparts));
+        return (true);
+    }
+
+    /* y(i) += A(i,:)*x for rows lo to hi-1, with AT = A' */
+    private static void cs_rows(Dcs AT, int lo, int hi, double[] x, double[] y) {
+        int i, p, ATp[], ATi[];
+        double s, ATx[];
+        ATp = AT.p;
+        ATi = AT.i;
+        ATx = AT.x;
+        for (i = lo; i < hi; i++) {
+            s = y[i];
+            for (p = ATp[i]; p < ATp[i + 1]; p++)
+                s += ATx[p] * x[ATi[p]];
+            y[i] = s;
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+
+/**
+ * Parallel sparse matrix multiply.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_pmultiply {
+
+    /**
+     * Column blocks need at least this many flops, so small products run on a
+     * single thread.
+     */
+    public static final int CS_GRAIN = 1 << 16;
+
+    /* symbolic or numeric product for column blocks lo to hi-1 of B */
+    private static class Cs_columns extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        Dcs A, B, C;
+        int[] bp, W[];
+        double[][] X;
+        boolean numeric;
+        int lo, hi;
+
+        Cs_columns(Dcs A, Dcs B, Dcs C, int[] bp, int[][] W, double[][] X, boolean numeric, int lo, int hi) {
+            this.A = A;
+            this.B = B;
+            this.C = C;
+            this.bp = bp;
+            this.W = W;
+            this.X = X;
+            this.numeric = numeric;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            int mid;
+            if (hi - lo == 1) {
+                if (numeric)
+                    cs_numeric(A, B, C, W[lo], X[lo], bp[lo], bp[hi]);
+                else
+                    Dcs_multiply.cs_multiply_counts(A, B, C.p, W[lo], bp[lo], bp[hi]);
+            } else {
+                mid = (lo + hi) >>> 1;
+                invokeAll(new Cs_columns(A, B, C, bp, W, X, numeric, lo, mid), new Cs_columns(A, B, C, bp, W, X,
+                        numeric, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Sparse matrix multiplication, C = A*B, using the default pool.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @return C = A*B, null on error
+     */
+    public static Dcs cs_pmultiply(Dcs A, Dcs B) {
+        return (cs_pmultiply(A, B, null));
+    }
+
+    /**
+     * Sparse matrix multiplication, C = A*B, with the columns of B split into
+     * blocks of about the same number of flops, one per thread of the pool. A
+     * symbolic pass counts the entries in each column of C, so C is allocated
+     * once at its exact size. A numeric pass then computes each block with
+     * its own workspace. The result is identical to cs_multiply.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            column-compressed matrix
+     * @param pool
+     *            pool to run the product in, null for the default pool
+     * @return C = A*B, null on error
+     */
+    public static Dcs cs_pmultiply(Dcs A, Dcs B, ForkJoinPool pool) {
+        int j, k, p, m, n, c, nparts, Ap[], Bp[], Bi[], Cp[], bp[], W[][];
+        long flops, f, target, nz;
+        double X[][];
+        boolean values;
+        Dcs C;
+        if (!Dcs_util.CS_CSC(A) || !Dcs_util.CS_CSC(B))
+            return (null); /* check inputs */
+        if (A.n != B.m)
+            return (null);
+        if (pool == null)
+            pool = Dcs_util.cs_pool();
+        m = A.m;
+        n = B.n;
+        Ap = A.p;
+        Bp = B.p;
+        Bi = B.i;
+        values = (A.x != null) && (B.x != null);
+        flops = 0;
+        for (p = 0; p < Bp[n]; p++)
+            flops += Ap[Bi[p] + 1] - Ap[Bi[p]]; /* flops for all of C */
+        nparts = (int) Math.max(1, Math.min(Math.min(pool.getParallelism(), n), flops / CS_GRAIN));
+        bp = new int[nparts + 1];
+        for (j = 0, k = 1, f = 0; k < nparts; k++) /* block k starts at flop flops*k/nparts */
+        {
+            target = flops * k / nparts;
+            for (; j < n && f < target; j++)
+                for (p = Bp[j]; p < Bp[j + 1]; p++)
+                    f += Ap[Bi[p] + 1] - Ap[Bi[p]];
+            bp[k] = j;
+        }
+        bp[nparts] = n;
+        W = new int[nparts][];
+        X = new double[nparts][];
+        for (k = 0; k < nparts; k++) {
+            W[k] = new int[m]; /* get workspace */
+            X[k] = values ? new double[m] : null;
+        }
+        C = Dcs_util.cs_spalloc(m, n, 0, values, false); /* pattern allocated below */
+        Cp = C.p;
+        cs_run(pool, new Cs_columns(A, B, C, bp, W, X, false, 0, nparts)); /* count entries in C */
+        for (j = 0, nz = 0; j < n; j++) {
+            c = Cp[j];
+            Cp[j] = (int) nz; /* column j of C starts here */
+            nz += c;
+            if (nz > Integer.MAX_VALUE)
+                return (null); /* C too large */
+        }
+        Cp[n] = (int) nz;
+        C.nzmax = (int) nz; /* allocate C once, at its exact size */
+        C.i = new int[C.nzmax];
+        C.x = values ? new double[C.nzmax] : null;
+        cs_run(pool, new Cs_columns(A, B, C, bp, W, X, true, 0, nparts)); /* numeric values */
+        return (C);
+    }
+
+    /* runs the task in this thread if it is a single block */
+    private static void cs_run(ForkJoinPool pool, Cs_columns task) {
+        if (task.hi - task.lo == 1)
+            task.compute();
+        else
+            pool.invoke(task);
+    }
+
+    /* C(:,j) = A*B(:,j) for columns j0 to j1-1, using marks n+1 to 2n in w */
+    private static void cs_numeric(Dcs A, Dcs B, Dcs C, int[] w, double[] x, int j0, int j1) {
+        int j, p, nz, n, Bp[], Bi[], Cp[], Ci[];
+        double Bx[], Cx[];
+        n = B.n;
+        Bp = B.p;
+        Bi = B.i;
+        Bx = B.x;
+        Cp = C.p;
+        Ci = C.i;
+        Cx = C.x;
+        for (j = j0; j < j1; j++) {
+            nz = Cp[j];
+            for (p = Bp[j]; p < Bp[j + 1]; p++) {
+                nz = Dcs_scatter.cs_scatter(A, Bi[p], (Bx != null) ? Bx[p] : 1, w, x, n + j + 1, C, nz);
+            }
+            if (x != null)
+                for (p = Cp[j]; p < nz; p++)
+                    Cx[p] = x[Ci[p]];
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Preconditioners built from the factorization kernels. Each application
+ * takes an idle workspace from the preconditioner and gives it back when it
+ * returns, so one instance can be shared by concurrent solves.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_precond {
+
+    /* idle workspace of size n, allocated if all are in use */
+    private static double[] cs_getwork(ConcurrentLinkedQueue<double[]> ws, int n) {
+        double[] x = ws.poll();
+        return (x != null ? x : new double[n]);
+    }
+
+    /* z = Q(U\(L\(P r))) */
+    private static class Cs_lu implements Dcs_iprecond {
+        Dcsn N;
+        int[] q;
+        int n;
+        ConcurrentLinkedQueue<double[]> ws = new ConcurrentLinkedQueue<double[]>(); /* workspaces not in use */
+
+        Cs_lu(Dcsn N, int[] q, int n) {
+            this.N = N;
+            this.q = q;
+            this.n = n;
+        }
+
+        public boolean psolve(double[] r, double[] z) {
+            double[] x = cs_getwork(ws, n);
+            try {
+                return (Dcs_ipvec.cs_ipvec(N.pinv, r, x, n) && Dcs_lsolve.cs_lsolve(N.L, x)
+                        && Dcs_usolve.cs_usolve(N.U, x) && Dcs_ipvec.cs_ipvec(q, x, z, n));
+            } finally {
+                ws.offer(x); /* return the workspace */
+            }
+        }
+    }
+
+    /* z = P'(L'\(L\(P r))) */
+    private static class Cs_chol implements Dcs_iprecond {
+        Dcsn N;
+        int[] pinv;
+        int n;
+        ConcurrentLinkedQueue<double[]> ws = new ConcurrentLinkedQueue<double[]>(); /* workspaces not in use */
+
+        Cs_chol(Dcsn N, int[] pinv, int n) {
+            this.N = N;
+            this.pinv = pinv;
+            this.n = n;
+        }
+
+        public boolean psolve(double[] r, double[] z) {
+            double[] x = cs_getwork(ws, n);
+            try {
+                return (Dcs_ipvec.cs_ipvec(pinv, r, x, n) && Dcs_lsolve.cs_lsolve(N.L, x)
+                        && Dcs_ltsolve.cs_ltsolve(N.L, x) && Dcs_pvec.cs_pvec(pinv, x, z, n));
+            } finally {
+                ws.offer(x); /* return the workspace */
+            }
+        }
+    }
+
+    /* z = r ./ diag(A) */
+    private static class Cs_diag implements Dcs_iprecond {
+        double[] d;
+
+        Cs_diag(double[] d) {
+            this.d = d;
+        }
+
+        public boolean psolve(double[] r, double[] z) {
+            int i, n = d.length;
+            if (r == null || z == null)
+                return (false); /* check inputs */
+            for (i = 0; i < n; i++)
+                z[i] = r[i] * d[i];
+            return (true);
+        }
+    }
+
+    /**
+     * Preconditioner from an LU factorization PAQ = LU, complete (cs_lu) or
+     * incomplete (cs_ilu0, cs_ilu). It may be applied by several threads at
+     * once, each with its own workspace taken from a pool.
+     * 
+     * @param N
+     *            numeric LU factorization
+     * @param S
+     *            symbolic analysis giving q, null for the natural ordering
+     * @return preconditioner, null on error
+     */
+    public static Dcs_iprecond cs_precond_lu(Dcsn N, Dcss S) {
+        if (N == null || !Dcs_util.CS_CSC(N.L) || !Dcs_util.CS_CSC(N.U))
+            return (null); /* check inputs */
+        return (new Cs_lu(N, S != null ? S.q : null, N.L.n));
+    }
+
+    /**
+     * Preconditioner from a Cholesky factorization PAP' = LL', complete
+     * (cs_chol) or incomplete (cs_ichol0, cs_ichol). It may be applied by
+     * several threads at once, each with its own workspace taken from a pool.
+     * 
+     * @param N
+     *            numeric Cholesky factorization
+     * @param S
+     *            symbolic analysis giving pinv, null for the natural ordering
+     * @return preconditioner, null on error
+     */
+    public static Dcs_iprecond cs_precond_chol(Dcsn N, Dcss S) {
+        if (N == null || !Dcs_util.CS_CSC(N.L))
+            return (null); /* check inputs */
+        return (new Cs_chol(N, S != null ? S.pinv : null, N.L.n));
+    }
+
+    /**
+     * Diagonal (Jacobi) preconditioner, M = diag(A).
+     * 
+     * @param A
+     *            column-compressed, square matrix with a nonzero diagonal
+     * @return preconditioner, null on error or if a diagonal entry is zero
+     */
+    public static Dcs_iprecond cs_precond_diag(Dcs A) {
+        int j, p, n, Ap[], Ai[];
+        double d[], Ax[];
+        if (!Dcs_util.CS_CSC(A) || A.x == null || A.m != A.n)
+            return (null); /* check inputs */
+        n = A.n;
+        Ap = A.p;
+        Ai = A.i;
+        Ax = A.x;
+        d = new double[n];
+        for (j = 0; j < n; j++) {
+            for (p = Ap[j]; p < Ap[j + 1]; p++) {
+                if (Ai[p] == j)
+                    d[j] += Ax[p]; /* sum up duplicates */
+            }
+        }
+        for (j = 0; j < n; j++) {
+            if (d[j] == 0)
+                return (null);
+            d[j] = 1 / d[j];
+        }
+        return (new Cs_diag(d));
+    }
+
+}
@@ -0,0 +1,390 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcslevel;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+
+/**
+ * Level-scheduled parallel triangular solves with the factors of a Dcsn.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_psolve {
+
+    /**
+     * Levels with fewer entries than this are solved on a single thread.
+     */
+    public static final int CS_GRAIN = 1 << 12;
+
+    /* solves the levels of S in order, splitting the large ones */
+    private static class Cs_solve extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        Dcslevel S;
+        double[] Fx, x;
+
+        Cs_solve(Dcslevel S, double[] Fx, double[] x) {
+            this.S = S;
+            this.Fx = Fx;
+            this.x = x;
+        }
+
+        protected void compute() {
+            int k, lo, hi;
+            for (k = 0; k < S.nlev; k++) {
+                lo = S.lp[k];
+                hi = S.lp[k + 1];
+                if (S.wp[hi] - S.wp[lo] < CS_GRAIN)
+                    cs_solve(S, Fx, x, lo, hi);
+                else
+                    new Cs_level(S, Fx, x, lo, hi).invoke();
+            }
+        }
+    }
+
+    /* solves unknowns li[lo..hi-1] of one level */
+    private static class Cs_level extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        Dcslevel S;
+        double[] Fx, x;
+        int lo, hi;
+
+        Cs_level(Dcslevel S, double[] Fx, double[] x, int lo, int hi) {
+            this.S = S;
+            this.Fx = Fx;
+            this.x = x;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            int mid;
+            if (hi - lo == 1 || S.wp[hi] - S.wp[lo] < CS_GRAIN) {
+                cs_solve(S, Fx, x, lo, hi);
+            } else {
+                mid = (lo + hi) >>> 1;
+                invokeAll(new Cs_level(S, Fx, x, lo, mid), new Cs_level(S, Fx, x, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Builds the level schedule of a triangular solve, Tx=b or T'x=b. Unknown
+     * x(j) is computed from row j of T (column j if trans is true), and its
+     * level is one more than the highest level of the unknowns it uses.
+     * 
+     * @param T
+     *            column-compressed triangular matrix with a nonzero diagonal
+     * @param lower
+     *            true if T is lower triangular, false if upper triangular
+     * @param trans
+     *            true for T'x=b, false for Tx=b
+     * @return level schedule, null on error or if T is not triangular
+     */
+    public static Dcslevel cs_level(Dcs T, boolean lower, boolean trans) {
+        int i, j, k, p, q, l, n, Tp[], Ti[], gp[], gi[], gx[], dx[], lev[], lp[], li[], wp[], w[];
+        boolean up;
+        Dcslevel S;
+        if (!Dcs_util.CS_CSC(T) || T.m != T.n)
+            return (null); /* check inputs */
+        n = T.n;
+        Tp = T.p;
+        Ti = T.i;
+        S = new Dcslevel();
+        S.gp = gp = new int[n + 1];
+        S.dx = dx = new int[n];
+        w = new int[n]; /* get workspace */
+        for (j = 0; j < n; j++)
+            dx[j] = -1;
+        for (j = 0; j < n; j++) /* find the diagonal, count entries of each x(i) */
+        {
+            for (p = Tp[j]; p < Tp[j + 1]; p++) {
+                i = Ti[p];
+                if (i == j)
+                    dx[j] = p;
+                else
+                    w[trans ? j : i]++;
+            }
+        }
+        for (j = 0; j < n; j++) {
+            if (dx[j] < 0)
+                return (null); /* missing diagonal */
+        }
+        Dcs_cumsum.cs_cumsum(gp, w, n);
+        S.gi = gi = new int[Math.max(gp[n], 1)];
+        S.gx = gx = new int[Math.max(gp[n], 1)];
+        for (j = 0; j < n; j++) {
+            for (p = Tp[j]; p < Tp[j + 1]; p++) {
+                i = Ti[p];
+                if (i == j)
+                    continue;
+                if (trans) {
+                    q = w[j]++; /* x(j) uses T(i,j) and x(i) */
+                    gi[q] = i;
+                } else {
+                    q = w[i]++; /* x(i) uses T(i,j) and x(j) */
+                    gi[q] = j;
+                }
+                gx[q] = p;
+            }
+        }
+        /* --- Levels, in dependency order ------------------------------------- */
+        up = (lower == trans); /* x(j) depends on x(i) for i > j */
+        lev = w;
+        S.nlev = 0;
+        for (k = 0; k < n; k++) {
+            j = up ? n - 1 - k : k;
+            l = 0;
+            for (p = gp[j]; p < gp[j + 1]; p++) {
+                i = gi[p];
+                if (up ? i < j : i > j)
+                    return (null); /* T is not triangular */
+                l = Math.max(l, lev[i] + 1);
+            }
+            lev[j] = l;
+            S.nlev = Math.max(S.nlev, l + 1);
+        }
+        /* --- Sort unknowns by level ------------------------------------------ */
+        S.lp = lp = new int[S.nlev + 1];
+        S.li = li = new int[n];
+        S.wp = wp = new int[n + 1];
+        for (j = 0; j < n; j++)
+            lp[lev[j] + 1]++;
+        for (l = 0; l < S.nlev; l++)
+            lp[l + 1] += lp[l];
+        for (j = 0; j < n; j++)
+            li[lp[lev[j]]++] = j;
+        for (l = S.nlev; l > 0; l--)
+            lp[l] = lp[l - 1];
+        lp[0] = 0;
+        for (k = 0; k < n; k++) /* entries used, including the diagonal */
+        {
+            j = li[k];
+            wp[k + 1] = wp[k] + gp[j + 1] - gp[j] + 1;
+        }
+        return (S);
+    }
+
+    /**
+     * Solves Lx=b, where L is the lower triangular factor of N, using the
+     * default pool. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_plsolve(Dcsn N, double[] x) {
+        return (cs_plsolve(N, x, null));
+    }
+
+    /**
+     * Solves Lx=b, where L is the lower triangular factor of N. The unknowns
+     * of each level are solved in parallel; the schedule is built on first use
+     * and kept in N. Falls back to cs_lsolve if the levels are too small to
+     * split. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @param pool
+     *            pool to run the solve in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_plsolve(Dcsn N, double[] x, ForkJoinPool pool) {
+        return (N != null && cs_psolve(N, 0, x, pool));
+    }
+
+    /**
+     * Solves L'x=b, where L is the lower triangular factor of N, using the
+     * default pool. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pltsolve(Dcsn N, double[] x) {
+        return (cs_pltsolve(N, x, null));
+    }
+
+    /**
+     * Solves L'x=b, where L is the lower triangular factor of N. The unknowns
+     * of each level are solved in parallel; the schedule is built on first use
+     * and kept in N. Falls back to cs_ltsolve if the levels are too small to
+     * split. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @param pool
+     *            pool to run the solve in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pltsolve(Dcsn N, double[] x, ForkJoinPool pool) {
+        return (N != null && cs_psolve(N, 1, x, pool));
+    }
+
+    /**
+     * Solves Ux=b, where U is the upper triangular factor of N, using the
+     * default pool. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pusolve(Dcsn N, double[] x) {
+        return (cs_pusolve(N, x, null));
+    }
+
+    /**
+     * Solves Ux=b, where U is the upper triangular factor of N. The unknowns
+     * of each level are solved in parallel; the schedule is built on first use
+     * and kept in N. Falls back to cs_usolve if the levels are too small to
+     * split. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @param pool
+     *            pool to run the solve in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_pusolve(Dcsn N, double[] x, ForkJoinPool pool) {
+        return (N != null && cs_psolve(N, 2, x, pool));
+    }
+
+    /**
+     * Solves U'x=b, where U is the upper triangular factor of N, using the
+     * default pool. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_putsolve(Dcsn N, double[] x) {
+        return (cs_putsolve(N, x, null));
+    }
+
+    /**
+     * Solves U'x=b, where U is the upper triangular factor of N. The unknowns
+     * of each level are solved in parallel; the schedule is built on first use
+     * and kept in N. Falls back to cs_utsolve if the levels are too small to
+     * split. x=b on input, solution on output.
+     * 
+     * @param N
+     *            numeric factorization
+     * @param x
+     *            size n, right hand side on input, solution on output
+     * @param pool
+     *            pool to run the solve in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_putsolve(Dcsn N, double[] x, ForkJoinPool pool) {
+        return (N != null && cs_psolve(N, 3, x, pool));
+    }
+
+    /* schedule k of N (0: L\x, 1: L'\x, 2: U\x, 3: U'\x), built on first use */
+    private static Dcslevel cs_sched(Dcsn N, int k) {
+        Dcs T;
+        Dcslevel S;
+        synchronized (N) {
+            if (N.sched == null)
+                N.sched = new Dcslevel[4];
+            S = N.sched[k];
+            if (S == null) {
+                T = (k < 2) ? N.L : N.U;
+                S = N.sched[k] = cs_level(T, k < 2, k % 2 == 1);
+            }
+        }
+        return (S);
+    }
+
+    /*
+     * solve k of N with its schedule, in parallel if most of the work is in
+     * levels large enough to split, with the sequential solve otherwise
+     */
+    private static boolean cs_psolve(Dcsn N, int k, double[] x, ForkJoinPool pool) {
+        int l, w, big, lp[], wp[];
+        Dcs T;
+        Dcslevel S;
+        S = cs_sched(N, k);
+        T = (k < 2) ? N.L : N.U;
+        if (S == null || x == null)
+            return (false); /* check inputs */
+        lp = S.lp;
+        wp = S.wp;
+        for (l = 0, big = 0; l < S.nlev; l++) {
+            w = wp[lp[l + 1]] - wp[lp[l]];
+            if (w >= CS_GRAIN)
+                big += w;
+        }
+        if (2L * big >= wp[lp[S.nlev]] && big > 0) {
+            (pool != null ? pool : Dcs_util.cs_pool()).invoke(new Cs_solve(S, T.x, x));
+            return (true);
+        }
+        if (k == 0)
+            return (Dcs_lsolve.cs_lsolve(T, x));
+        else if (k == 1)
+            return (Dcs_ltsolve.cs_ltsolve(T, x));
+        else if (k == 2)
+            return (Dcs_usolve.cs_usolve(T, x));
+        else
+            return (Dcs_utsolve.cs_utsolve(T, x));
+    }
+
+    /* solves unknowns li[lo..hi-1], x(j) = (x(j) - sum of T(j,i)*x(i)) / T(j,j) */
+    private static void cs_solve(Dcslevel S, double[] Fx, double[] x, int lo, int hi) {
+        int j, k, p, li[], gp[], gi[], gx[], dx[];
+        double t;
+        li = S.li;
+        gp = S.gp;
+        gi = S.gi;
+        gx = S.gx;
+        dx = S.dx;
+        for (k = lo; k < hi; k++) {
+            j = li[k];
+            t = x[j];
+            for (p = gp[j]; p < gp[j + 1]; p++)
+                t -= Fx[gx[p]] * x[gi[p]];
+            x[j] = t / Fx[dx[j]];
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsfact;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcswork;
+
+/**
+ * Sparse QR factorization with separate analysis, factorization and solve.
+ * Matrices with m < n are factorized as A' for underdetermined systems.
+ * <p>
+ * The solve functions do not modify the factorization object except to take
+ * an idle workspace from it and give it back when they return, so any number
+ * of threads may solve with one factorization at the same time. Workspaces are
+ * only allocated when more solves run at once than ever before, and are freed
+ * with the factorization object. Analysis, factorization and
+ * refactorization modify it, and must not run concurrently with each other or
+ * with a solve; a factorization handed to other threads after it is computed
+ * (through an executor, a volatile field or a lock) is safe to solve with.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_qrfact {
+
+    /**
+     * Ordering and symbolic QR analysis of A (of A' if m < n). The result is
+     * factorized with cs_qrfact_factor before it can be used to solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @return QR factorization object, null on error
+     */
+    public static Dcsfact cs_qrfact_analyze(int order, Dcs A) {
+        return (cs_qrfact_analyze(order, A, null));
+    }
+
+    /**
+     * Ordering and symbolic QR analysis of A (of A' if m < n), taken from the
+     * cache if A has the same pattern as an earlier analysis.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return QR factorization object, null on error
+     */
+    public static Dcsfact cs_qrfact_analyze(int order, Dcs A, Dcscache cache) {
+        Dcsfact F;
+        Dcs C;
+        if (!Dcs_util.CS_CSC(A))
+            return (null); /* check inputs */
+        C = (A.m >= A.n) ? A : Dcs_transpose.cs_transpose(A, false); /* pattern of A' if underdetermined */
+        if (C == null)
+            return (null);
+        F = new Dcsfact(); /* allocate result */
+        F.m = A.m;
+        F.n = A.n;
+        F.S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, C, true) : Dcs_sqr.cs_sqr(order, C, true);
+        if (F.S == null)
+            return (null);
+        F.work = new ConcurrentLinkedQueue<Dcswork>(); /* workspaces are allocated by the solves */
+        return (F);
+    }
+
+    /**
+     * Numeric QR factorization of A (of A' if m < n), for a matrix with the
+     * pattern given to cs_qrfact_analyze.
+     * 
+     * @param F
+     *            QR factorization object
+     * @param A
+     *            column-compressed matrix
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrfact_factor(Dcsfact F, Dcs A) {
+        Dcs AT;
+        if (F == null || !Dcs_util.CS_CSC(A) || A.m != F.m || A.n != F.n)
+            return (false); /* check inputs */
+        if (A.m >= A.n) {
+            F.N = Dcs_qr.cs_qr(A, F.S); /* numeric QR factorization */
+        } else {
+            AT = Dcs_transpose.cs_transpose(A, true); /* Ax=b is underdetermined */
+            F.N = (AT != null) ? Dcs_qr.cs_qr(AT, F.S) : null; /* numeric QR factorization of A' */
+        }
+        return (F.N != null);
+    }
+
+    /**
+     * Numeric QR refactorization of a matrix with the same pattern as the last
+     * one factorized. QR has no pivoting to reuse, so this is the same as
+     * cs_qrfact_factor.
+     * 
+     * @param F
+     *            QR factorization object
+     * @param A
+     *            column-compressed matrix
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrfact_refactor(Dcsfact F, Dcs A) {
+        return (cs_qrfact_factor(F, A));
+    }
+
+    /**
+     * Solve a least-squares problem (min ||Ax-b||_2, where A is m-by-n with m
+     * >= n) or underdetermined system (Ax=b, where m < n) using the QR
+     * factorization of A. No memory is allocated unless more threads solve at
+     * once than before. Safe to call concurrently with the same F.
+     * 
+     * @param F
+     *            QR factorization object
+     * @param b
+     *            size max(m,n), b (size m) on input, x(size n) on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrfact_solve(Dcsfact F, double[] b) {
+        int k, m, n;
+        double[] x;
+        Dcswork W;
+        if (F == null || F.N == null || b == null)
+            return (false); /* check inputs */
+        m = F.m;
+        n = F.n;
+        W = Dcs_util.cs_walloc(F); /* take an idle workspace */
+        try {
+            x = W.x;
+            Arrays.fill(x, 0); /* clear fictitious rows from the last solve */
+            if (m >= n) {
+                Dcs_ipvec.cs_ipvec(F.S.pinv, b, x, m); /* x(0:m-1) = b(p(0:m-1) */
+                for (k = 0; k < n; k++) /* apply Householder refl. to x */
+                {
+                    Dcs_happly.cs_happly(F.N.L, k, F.N.B[k], x);
+                }
+                Dcs_usolve.cs_usolve(F.N.U, x); /* x = R\x */
+                Dcs_ipvec.cs_ipvec(F.S.q, x, b, n); /* b(q(0:n-1)) = x(0:n-1) */
+            } else {
+                Dcs_pvec.cs_pvec(F.S.q, b, x, m); /* x(q(0:m-1)) = b(0:m-1) */
+                Dcs_utsolve.cs_utsolve(F.N.U, x); /* x = R'\x */
+                for (k = m - 1; k >= 0; k--) /* apply Householder refl. to x */
+                {
+                    Dcs_happly.cs_happly(F.N.L, k, F.N.B[k], x);
+                }
+                Dcs_pvec.cs_pvec(F.S.pinv, x, b, n); /* b(0:n-1) = x(p(0:n-1)) */
+            }
+            return (true);
+        } finally {
+            Dcs_util.cs_wfree(F, W); /* give the workspace back */
+        }
+    }
+
+    /**
+     * Solve k least-squares problems or underdetermined systems using the QR
+     * factorization of A; each B[r] is overwritten with its solution. Memory
+     * is only allocated if k is larger than in any earlier solve that used the
+     * same workspace. Safe to call concurrently with the same F.
+     * 
+     * @param F
+     *            QR factorization object
+     * @param B
+     *            k vectors of size max(m,n), B[r] (size m) on input, X(:,r)
+     *            (size n) on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrfact_solve(Dcsfact F, double[][] B) {
+        int j, k, m, n, m2;
+        double[] X, w;
+        Dcswork W;
+        if (F == null || F.N == null || B == null)
+            return (false); /* check inputs */
+        m = F.m;
+        n = F.n;
+        m2 = F.S.m2;
+        k = B.length;
+        W = Dcs_util.cs_walloc(F); /* take an idle workspace */
+        try {
+            if (W.X == null || W.X.length < m2 * k)
+                W.X = new double[m2 * k]; /* grow workspace */
+            if (W.w == null || W.w.length < k)
+                W.w = new double[k];
+            X = W.X;
+            w = W.w;
+            Arrays.fill(X, 0, m2 * k, 0); /* clear fictitious rows from the last solve */
+            if (m >= n) {
+                Dcs_ipvec.cs_ipvec(F.S.pinv, B, X, m); /* X(0:m-1,:) = B(p(0:m-1),:) */
+                for (j = 0; j < n; j++) /* apply Householder refl. to X */
+                {
+                    Dcs_happly.cs_happly(F.N.L, j, F.N.B[j], X, k, w);
+                }
+                Dcs_usolve.cs_usolve(F.N.U, X, k); /* X = R\X */
+                Dcs_ipvec.cs_ipvec(F.S.q, X, B, n); /* B(q(0:n-1),:) = X(0:n-1,:) */
+            } else {
+                Dcs_pvec.cs_pvec(F.S.q, B, X, m); /* X(q(0:m-1),:) = B(0:m-1,:) */
+                Dcs_utsolve.cs_utsolve(F.N.U, X, k); /* X = R'\X */
+                for (j = m - 1; j >= 0; j--) /* apply Householder refl. to X */
+                {
+                    Dcs_happly.cs_happly(F.N.L, j, F.N.B[j], X, k, w);
+                }
+                Dcs_pvec.cs_pvec(F.S.pinv, X, B, n); /* B(0:n-1,:) = X(p(0:n-1),:) */
+            }
+            return (true);
+        } finally {
+            Dcs_util.cs_wfree(F, W); /* give the workspace back */
+        }
+    }
+
+}
@@ -25,6 +25,7 @@
 package edu.emory.mathcs.csparsej.tdouble;
 
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
 
@@ -41,7 +42,7 @@ public class Dcs_qrsol {
      * >= n) or underdetermined system (Ax=b, where m < n)
      * 
      * @param order
-     *            ordering method to use (0 to 3)
+     *            ordering method to use (0 to 5)
      * @param A
      *            column-compressed matrix
      * @param b
@@ -49,6 +50,26 @@ public class Dcs_qrsol {
      * @return true if successful, false on error
      */
     public static boolean cs_qrsol(int order, Dcs A, double[] b) {
+        return (cs_qrsol(order, A, b, null));
+    }
+
+    /**
+     * Solve a least-squares problem (min ||Ax-b||_2, where A is m-by-n with m
+     * >= n) or underdetermined system (Ax=b, where m < n). The symbolic
+     * analysis is taken from the cache if A has the same pattern as an
+     * earlier solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param b
+     *            size max(m,n), b (size m) on input, x(size n) on output
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrsol(int order, Dcs A, double[] b, Dcscache cache) {
         double x[];
         Dcss S;
         Dcsn N;
@@ -60,7 +81,7 @@ public class Dcs_qrsol {
         n = A.n;
         m = A.m;
         if (m >= n) {
-            S = Dcs_sqr.cs_sqr(order, A, true); /* ordering and symbolic analysis */
+            S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, A, true) : Dcs_sqr.cs_sqr(order, A, true); /* ordering and symbolic analysis */
             N = Dcs_qr.cs_qr(A, S); /* numeric QR factorization */
             x = new double[S != null ? S.m2 : 1]; /* get workspace */
             ok = (S != null && N != null);
@@ -75,7 +96,7 @@ public class Dcs_qrsol {
             }
         } else {
             AT = Dcs_transpose.cs_transpose(A, true); /* Ax=b is underdetermined */
-            S = Dcs_sqr.cs_sqr(order, AT, true); /* ordering and symbolic analysis */
+            S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, AT, true) : Dcs_sqr.cs_sqr(order, AT, true); /* ordering and symbolic analysis */
             N = Dcs_qr.cs_qr(AT, S); /* numeric QR factorization of A' */
             x = new double[S != null ? S.m2 : 1]; /* get workspace */
             ok = (AT != null && S != null && N != null);
@@ -91,4 +112,86 @@ public class Dcs_qrsol {
         }
         return (ok);
     }
+
+    /**
+     * Solve k least-squares problems (min ||AX-B||_2, where A is m-by-n with m
+     * >= n) or underdetermined systems (AX=B, where m < n). One factorization
+     * is used for all right hand sides, which are solved together.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            k vectors of size max(m,n), B[r] (size m) on input, X(:,r)
+     *            (size n) on output
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrsol(int order, Dcs A, double[][] B) {
+        return (cs_qrsol(order, A, B, null));
+    }
+
+    /**
+     * Solve k least-squares problems (min ||AX-B||_2, where A is m-by-n with m
+     * >= n) or underdetermined systems (AX=B, where m < n). The symbolic
+     * analysis is taken from the cache if A has the same pattern as an earlier
+     * solve.
+     * 
+     * @param order
+     *            ordering method to use (0 to 5)
+     * @param A
+     *            column-compressed matrix
+     * @param B
+     *            k vectors of size max(m,n), B[r] (size m) on input, X(:,r)
+     *            (size n) on output
+     * @param cache
+     *            cache of symbolic analyses, null to analyze A
+     * @return true if successful, false on error
+     */
+    public static boolean cs_qrsol(int order, Dcs A, double[][] B, Dcscache cache) {
+        double X[], w[];
+        Dcss S;
+        Dcsn N;
+        Dcs AT = null;
+        int j, k, m, n;
+        boolean ok;
+        if (!Dcs_util.CS_CSC(A) || B == null)
+            return (false); /* check inputs */
+        n = A.n;
+        m = A.m;
+        k = B.length;
+        w = new double[k];
+        if (m >= n) {
+            S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, A, true) : Dcs_sqr.cs_sqr(order, A, true); /* ordering and symbolic analysis */
+            N = Dcs_qr.cs_qr(A, S); /* numeric QR factorization */
+            X = new double[(S != null ? S.m2 : 1) * k]; /* get workspace, X(i,r) = X[i*k+r] */
+            ok = (S != null && N != null);
+            if (ok) {
+                Dcs_ipvec.cs_ipvec(S.pinv, B, X, m); /* X(0:m-1,:) = B(p(0:m-1),:) */
+                for (j = 0; j < n; j++) /* apply Householder refl. to X */
+                {
+                    Dcs_happly.cs_happly(N.L, j, N.B[j], X, k, w);
+                }
+                Dcs_usolve.cs_usolve(N.U, X, k); /* X = R\X */
+                Dcs_ipvec.cs_ipvec(S.q, X, B, n); /* B(q(0:n-1),:) = X(0:n-1,:) */
+            }
+        } else {
+            AT = Dcs_transpose.cs_transpose(A, true); /* AX=B is underdetermined */
+            S = (cache != null) ? Dcs_scache.cs_sqr(cache, order, AT, true) : Dcs_sqr.cs_sqr(order, AT, true); /* ordering and symbolic analysis */
+            N = Dcs_qr.cs_qr(AT, S); /* numeric QR factorization of A' */
+            X = new double[(S != null ? S.m2 : 1) * k]; /* get workspace, X(i,r) = X[i*k+r] */
+            ok = (AT != null && S != null && N != null);
+            if (ok) {
+                Dcs_pvec.cs_pvec(S.q, B, X, m); /* X(q(0:m-1),:) = B(0:m-1,:) */
+                Dcs_utsolve.cs_utsolve(N.U, X, k); /* X = R'\X */
+                for (j = m - 1; j >= 0; j--) /* apply Householder refl. to X */
+                {
+                    Dcs_happly.cs_happly(N.L, j, N.B[j], X, k, w);
+                }
+                Dcs_pvec.cs_pvec(S.pinv, X, B, n); /* B(0:n-1,:) = X(p(0:n-1),:) */
+            }
+        }
+        return (ok);
+    }
+
 }
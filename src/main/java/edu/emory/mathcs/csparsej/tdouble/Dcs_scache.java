@@ -0,0 +1,201 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+
+/**
+ * Cache of symbolic Cholesky, LU, and QR analyses.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_scache {
+
+    /* pattern of a matrix, with the analysis applied to it */
+    private static class Cs_key {
+        long hash;
+        int kind, order, m, n, nz;
+        int[] p, i;
+
+        Cs_key(int kind, int order, Dcs A) {
+            int j, k, Ap[], Ai[];
+            long h;
+            this.kind = kind;
+            this.order = order;
+            m = A.m;
+            n = A.n;
+            p = Ap = A.p;
+            i = Ai = A.i;
+            nz = Ap[n];
+            h = 0xcbf29ce484222325L; /* FNV-1a, one int at a time */
+            h = (h ^ kind) * 0x100000001b3L;
+            h = (h ^ order) * 0x100000001b3L;
+            h = (h ^ m) * 0x100000001b3L;
+            h = (h ^ n) * 0x100000001b3L;
+            for (j = 0; j <= n; j++)
+                h = (h ^ Ap[j]) * 0x100000001b3L;
+            for (k = 0; k < nz; k++)
+                h = (h ^ Ai[k]) * 0x100000001b3L;
+            hash = h;
+        }
+
+        /* copies the pattern, so the key no longer refers to A */
+        void copy() {
+            int[] Kp = new int[n + 1], Ki = new int[nz];
+            System.arraycopy(p, 0, Kp, 0, n + 1);
+            System.arraycopy(i, 0, Ki, 0, nz);
+            p = Kp;
+            i = Ki;
+        }
+
+        public int hashCode() {
+            return ((int) (hash ^ (hash >>> 32)));
+        }
+
+        public boolean equals(Object o) {
+            int k;
+            Cs_key K;
+            if (!(o instanceof Cs_key))
+                return (false);
+            K = (Cs_key) o;
+            if (hash != K.hash || kind != K.kind || order != K.order || m != K.m || n != K.n || nz != K.nz)
+                return (false);
+            for (k = 0; k <= n; k++)
+                if (p[k] != K.p[k])
+                    return (false);
+            for (k = 0; k < nz; k++)
+                if (i[k] != K.i[k])
+                    return (false); /* same fingerprint, different pattern */
+            return (true);
+        }
+    }
+
+    /**
+     * Allocates a cache of symbolic analyses. When it is full, the least
+     * recently used analysis is dropped.
+     * 
+     * @param size
+     *            maximum number of analyses kept
+     * @return cache, null on error
+     */
+    public static Dcscache cs_scache(int size) {
+        Dcscache C;
+        if (size <= 0)
+            return (null); /* check inputs */
+        C = new Dcscache();
+        C.size = size;
+        C.map = new LinkedHashMap<Object, Dcss>(16, 0.75f, true); /* in access order */
+        return (C);
+    }
+
+    /**
+     * Symbolic Cholesky ordering and analysis, from the cache if A has the
+     * same pattern as an earlier call with the same order. A cached analysis
+     * is shared by every caller that gets it and must not be modified.
+     * 
+     * @param C
+     *            cache
+     * @param order
+     *            ordering option, as for cs_schol
+     * @param A
+     *            column-compressed matrix
+     * @return symbolic analysis for Cholesky (shared, read-only), null on error
+     */
+    public static Dcss cs_schol(Dcscache C, int order, Dcs A) {
+        if (C == null || !Dcs_util.CS_CSC(A))
+            return (null); /* check inputs */
+        return (cs_get(C, new Cs_key(0, order, A), A));
+    }
+
+    /**
+     * Symbolic QR or LU ordering and analysis, from the cache if A has the
+     * same pattern as an earlier call with the same order and qr. A cached
+     * analysis is shared by every caller that gets it and must not be
+     * modified.
+     * 
+     * @param C
+     *            cache
+     * @param order
+     *            ordering method to use, as for cs_sqr
+     * @param A
+     *            column-compressed matrix
+     * @param qr
+     *            analyze for QR if true or LU if false
+     * @return symbolic analysis for QR or LU (shared, read-only), null on error
+     */
+    public static Dcss cs_sqr(Dcscache C, int order, Dcs A, boolean qr) {
+        if (C == null || !Dcs_util.CS_CSC(A))
+            return (null); /* check inputs */
+        return (cs_get(C, new Cs_key(qr ? 2 : 1, order, A), A));
+    }
+
+    /**
+     * Drops all analyses from the cache.
+     * 
+     * @param C
+     *            cache
+     */
+    public static void cs_sclear(Dcscache C) {
+        if (C == null)
+            return;
+        synchronized (C) {
+            C.map.clear();
+        }
+    }
+
+    /* cached analysis for key K, computed outside the lock on a miss; the
+     * same instance is returned on every hit */
+    private static Dcss cs_get(Dcscache C, Cs_key K, Dcs A) {
+        Dcss S;
+        Iterator<Object> it;
+        synchronized (C) {
+            S = C.map.get(K);
+            if (S != null) {
+                C.hits++;
+                return (S);
+            }
+        }
+        S = (K.kind == 0) ? Dcs_schol.cs_schol(K.order, A) : Dcs_sqr.cs_sqr(K.order, A, K.kind == 2);
+        if (S == null)
+            return (null);
+        K.copy();
+        synchronized (C) {
+            C.misses++;
+            C.map.put(K, S);
+            for (it = C.map.keySet().iterator(); C.map.size() > C.size;) {
+                it.next();
+                it.remove(); /* drop the least recently used */
+            }
+        }
+        return (S);
+    }
+
+}
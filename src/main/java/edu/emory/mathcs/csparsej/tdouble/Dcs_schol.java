@@ -38,7 +38,7 @@ public class Dcs_schol {
      * Ordering and symbolic analysis for a Cholesky factorization.
      * 
      * @param order
-     *            ordering option (0 or 1)
+     *            ordering option (0, 1, or 5 for nested dissection)
      * @param A
      *            column-compressed matrix
      * @return symbolic analysis for Cholesky, null on error
@@ -51,7 +51,7 @@ public class Dcs_schol {
             return (null); /* check inputs */
         n = A.n;
         S = new Dcss(); /* allocate result S */
-        P = Dcs_amd.cs_amd(order, A); /* P = amd(A+A'), or natural */
+        P = (order == 5) ? Dcs_nd.cs_nd(1, A) : Dcs_amd.cs_amd(order, A); /* P = amd(A+A'), nd(A+A'), or natural */
         S.pinv = Dcs_pinv.cs_pinv(P, n); /* find inverse permutation */
         if (order != 0 && S.pinv == null)
             return null;
@@ -99,11 +99,40 @@ public class Dcs_sqr {
         return (true);
     }
 
+    /*
+     * upper bounds on nnz(L) and nnz(U) for any row pivoting of A(:,q): the
+     * pattern of L is contained in that of V and U in that of R, where V and R
+     * are the Householder vectors and R factor of A(:,q) (George and Ng)
+     */
+    private static boolean cs_lucount(Dcs A, Dcss S) {
+        int k, n = A.n, post[];
+        Dcs C;
+        Dcss T;
+        if (A.m != n)
+            return (false); /* LU of a square matrix only */
+        C = S.q != null ? Dcs_permute.cs_permute(A, null, S.q, false) : A;
+        if (C == null)
+            return (false);
+        T = new Dcss(); /* QR analysis of C, only its counts are kept */
+        T.parent = Dcs_etree.cs_etree(C, true); /* etree of C'*C */
+        post = Dcs_post.cs_post(T.parent, n);
+        T.cp = Dcs_counts.cs_counts(C, T.parent, post, true); /* col counts chol(C'*C) */
+        if (T.parent == null || T.cp == null || !cs_vcount(C, T))
+            return (false);
+        for (T.unz = 0, k = 0; k < n; k++)
+            T.unz += T.cp[k];
+        if (T.lnz < 0 || T.unz < 0)
+            return (false); /* int overflow, fall back to a guess */
+        S.lnz = T.lnz; /* nnz(L) <= nnz(V) */
+        S.unz = T.unz; /* nnz(U) <= nnz(R) */
+        return (true);
+    }
+
     /**
      * Symbolic QR or LU ordering and analysis.
      * 
      * @param order
-     *            ordering method to use (0 to 3)
+     *            ordering method to use (0 to 4, or 5 for nested dissection)
      * @param A
      *            column-compressed matrix
      * @param qr
@@ -118,7 +147,7 @@ public class Dcs_sqr {
             return (null); /* check inputs */
         n = A.n;
         S = new Dcss(); /* allocate result S */
-        S.q = Dcs_amd.cs_amd(order, A); /* fill-reducing ordering */
+        S.q = (order == 5) ? Dcs_nd.cs_nd(qr ? 3 : 2, A) : Dcs_amd.cs_amd(order, A); /* fill-reducing ordering */
         if (order > 0 && S.q == null)
             return (null);
         if (qr) /* QR symbolic analysis */
@@ -132,7 +161,7 @@ public class Dcs_sqr {
                 for (S.unz = 0, k = 0; k < n; k++)
                     S.unz += S.cp[k];
             ok = ok && S.lnz >= 0 && S.unz >= 0; /* int overflow guard */
-        } else {
+        } else if (!cs_lucount(A, S)) {
             S.unz = 4 * (A.p[n]) + n; /* for LU factorization only, */
             S.lnz = S.unz; /* guess nnz(L) and nnz(U) */
         }
@@ -0,0 +1,182 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import java.util.Arrays;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper;
+
+/**
+ * Symbolic supernodal Cholesky analysis.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_ssuper {
+    /**
+     * Finds the fundamental supernodes of L and their row structure, given the
+     * symbolic Cholesky analysis of A. Column j+1 is merged with column j if
+     * j+1 is the only child of j in the elimination tree and L(:,j+1) has the
+     * same pattern as L(j+1:n,j).
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis from cs_schol
+     * @return supernodal analysis, null on error
+     */
+    public static Dcssuper cs_ssuper(Dcs A, Dcss S) {
+        int j, k, p, s, f, l, nr, nc, lo, hi, K, J, n, nsuper, nupd, top, r, parent[], cp[], sup[], colsup[], sparent[],
+                rp[], ri[], xp[], up[], uk[], ulo[], nchild[], head[], next[], w[], Ctp[], Cti[];
+        long xnz;
+        Dcs C, Ct;
+        Dcssuper SS;
+        if (!Dcs_util.CS_CSC(A) || S == null || S.cp == null || S.parent == null)
+            return (null); /* check inputs */
+        n = A.n;
+        parent = S.parent;
+        cp = S.cp;
+        SS = new Dcssuper(); /* allocate result */
+        /* --- Fundamental supernodes ------------------------------------------- */
+        nchild = new int[n];
+        for (j = 0; j < n; j++)
+            if (parent[j] != -1)
+                nchild[parent[j]]++;
+        SS.sup = sup = new int[n + 1];
+        SS.colsup = colsup = new int[n];
+        nsuper = 0;
+        for (j = 0; j < n; j++) {
+            if (j == 0 || parent[j - 1] != j || nchild[j] != 1
+                    || (cp[j] - cp[j - 1]) != (cp[j + 1] - cp[j]) + 1) {
+                sup[nsuper++] = j; /* column j starts a new supernode */
+            }
+            colsup[j] = nsuper - 1;
+        }
+        sup[nsuper] = n;
+        SS.nsuper = nsuper;
+        SS.parent = sparent = new int[nsuper]; /* supernodal etree */
+        for (s = 0; s < nsuper; s++) {
+            j = parent[sup[s + 1] - 1];
+            sparent[s] = j == -1 ? -1 : colsup[j];
+        }
+        /* --- Row structure of each supernode ---------------------------------- */
+        SS.rp = rp = new int[nsuper + 1];
+        SS.xp = xp = new int[nsuper + 1];
+        xnz = 0;
+        for (s = 0; s < nsuper; s++) {
+            nr = cp[sup[s] + 1] - cp[sup[s]];
+            nc = sup[s + 1] - sup[s];
+            rp[s + 1] = rp[s] + nr;
+            xp[s] = (int) xnz;
+            xnz += (long) nr * nc;
+            if (xnz > Integer.MAX_VALUE)
+                return (null); /* dense panels too large */
+        }
+        xp[nsuper] = (int) xnz;
+        SS.ri = ri = new int[rp[nsuper]];
+        C = Dcs_symperm.cs_symperm(A, S.pinv, false); /* C = spones(triu(A(P,P))) */
+        Ct = Dcs_transpose.cs_transpose(C, false); /* lower triangular part */
+        Ctp = Ct.p;
+        Cti = Ct.i;
+        head = new int[nsuper]; /* linked lists of children */
+        next = new int[nsuper];
+        Arrays.fill(head, -1);
+        for (s = nsuper - 1; s >= 0; s--) {
+            if (sparent[s] != -1) {
+                next[s] = head[sparent[s]];
+                head[sparent[s]] = s;
+            }
+        }
+        w = new int[n]; /* w [i] == J+1 if row i is in struct of J */
+        for (J = 0; J < nsuper; J++) {
+            f = sup[J];
+            l = sup[J + 1];
+            top = rp[J];
+            for (j = f; j < l; j++) /* diagonal block */
+            {
+                w[j] = J + 1;
+                ri[top++] = j;
+            }
+            for (j = f; j < l; j++) /* entries of A below the diagonal block */
+            {
+                for (p = Ctp[j]; p < Ctp[j + 1]; p++) {
+                    r = Cti[p];
+                    if (r >= l && w[r] != J + 1) {
+                        if (top == rp[J + 1])
+                            return (null); /* inconsistent column counts */
+                        w[r] = J + 1;
+                        ri[top++] = r;
+                    }
+                }
+            }
+            for (K = head[J]; K != -1; K = next[K]) /* struct of children */
+            {
+                for (p = rp[K] + sup[K + 1] - sup[K]; p < rp[K + 1]; p++) {
+                    r = ri[p];
+                    if (r >= l && w[r] != J + 1) {
+                        if (top == rp[J + 1])
+                            return (null);
+                        w[r] = J + 1;
+                        ri[top++] = r;
+                    }
+                }
+            }
+            if (top != rp[J + 1])
+                return (null);
+            Arrays.sort(ri, rp[J] + l - f, top);
+        }
+        /* --- Update lists: descendants K that modify supernode J -------------- */
+        SS.up = up = new int[nsuper + 1];
+        Arrays.fill(head, 0);
+        for (K = 0; K < nsuper; K++) /* count updates to each supernode */
+        {
+            for (p = rp[K] + sup[K + 1] - sup[K]; p < rp[K + 1];) {
+                J = colsup[ri[p]];
+                head[J]++;
+                for (p++; p < rp[K + 1] && ri[p] < sup[J + 1]; p++)
+                    ;
+            }
+        }
+        nupd = Dcs_cumsum.cs_cumsum(up, head, nsuper); /* head [J] = next free slot */
+        SS.uk = uk = new int[nupd];
+        SS.ulo = ulo = new int[nupd];
+        SS.wsize = 1;
+        for (K = 0; K < nsuper; K++) {
+            nr = rp[K + 1] - rp[K];
+            for (lo = sup[K + 1] - sup[K]; lo < nr; lo = hi) {
+                J = colsup[ri[rp[K] + lo]];
+                for (hi = lo + 1; hi < nr && ri[rp[K] + hi] < sup[J + 1]; hi++)
+                    ;
+                k = head[J]++;
+                uk[k] = K;
+                ulo[k] = lo;
+                SS.wsize = Math.max(SS.wsize, (nr - lo) * (hi - lo));
+            }
+        }
+        return SS;
+    }
+}
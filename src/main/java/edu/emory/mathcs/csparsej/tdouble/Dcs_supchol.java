@@ -0,0 +1,221 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tdouble;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper;
+
+/**
+ * Supernodal sparse Cholesky.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Dcs_supchol {
+    /**
+     * Numeric supernodal Cholesky factorization LL=PAP'. Columns of L with
+     * identical structure are factorized together as dense panels, using dense
+     * block updates from their descendants. The result has the same structure
+     * as the output of cs_chol.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @return numeric Cholesky factorization, null on error
+     */
+    public static Dcsn cs_supchol(Dcs A, Dcss S) {
+        return cs_supchol(A, S, Dcs_ssuper.cs_ssuper(A, S));
+    }
+
+    /**
+     * Numeric supernodal Cholesky factorization LL=PAP', reusing a supernodal
+     * analysis.
+     * 
+     * @param A
+     *            column-compressed matrix, only upper triangular part is used
+     * @param S
+     *            symbolic Cholesky analysis, pinv is optional
+     * @param SS
+     *            supernodal analysis of A and S from cs_ssuper
+     * @return numeric Cholesky factorization, null on error
+     */
+    public static Dcsn cs_supchol(Dcs A, Dcss S, Dcssuper SS) {
+        double X[], W[];
+        int J, map[];
+        Dcs C, Ct;
+        Dcsn N;
+        if (!Dcs_util.CS_CSC(A) || S == null || S.cp == null || SS == null)
+            return (null); /* check inputs */
+        C = S.pinv != null ? Dcs_symperm.cs_symperm(A, S.pinv, true) : A;
+        Ct = Dcs_transpose.cs_transpose(C, true); /* lower triangular part of C */
+        X = new double[SS.xp[SS.nsuper]]; /* dense panels */
+        map = new int[A.n]; /* get int workspace */
+        W = new double[SS.wsize]; /* get double workspace */
+        for (J = 0; J < SS.nsuper; J++) {
+            if (!cs_supnode(J, Ct, SS, X, map, W))
+                return (null); /* not pos def */
+        }
+        N = new Dcsn(); /* allocate result */
+        N.L = cs_superL(SS, S.cp, X, A.n);
+        return N;
+    }
+
+    /**
+     * Assembles and factorizes the panel of supernode J. All descendants of J
+     * must have been factorized already.
+     * 
+     * @param J
+     *            supernode to factorize
+     * @param Ct
+     *            lower triangular part of PAP'
+     * @param SS
+     *            supernodal analysis
+     * @param X
+     *            dense panels of L
+     * @param map
+     *            int workspace of size n
+     * @param W
+     *            double workspace of size SS.wsize
+     * @return true if successful, false if not positive definite
+     */
+    protected static boolean cs_supnode(int J, Dcs Ct, Dcssuper SS, double[] X, int[] map, double[] W) {
+        double d, ljk, Ctx[];
+        int f, l, nc, nr, xj, u, K, lo, hi, mw, nj, nck, nrk, xk, rk, base, col, t, i, j, k, p, Ctp[], Cti[], sup[],
+                rp[], ri[], xp[];
+        sup = SS.sup;
+        rp = SS.rp;
+        ri = SS.ri;
+        xp = SS.xp;
+        Ctp = Ct.p;
+        Cti = Ct.i;
+        Ctx = Ct.x;
+        f = sup[J];
+        l = sup[J + 1];
+        nc = l - f;
+        nr = rp[J + 1] - rp[J];
+        xj = xp[J];
+        for (t = 0; t < nr; t++)
+            map[ri[rp[J] + t]] = t; /* row ri [t] is entry t of each column */
+        for (t = 0; t < nr * nc; t++)
+            X[xj + t] = 0;
+        /* --- Scatter C(:,f:l-1) into the panel -------------------------------- */
+        for (j = f; j < l; j++) {
+            col = xj + (j - f) * nr;
+            for (p = Ctp[j]; p < Ctp[j + 1]; p++) {
+                if ((i = Cti[p]) >= j)
+                    X[col + map[i]] = Ctx[p];
+            }
+        }
+        /* --- Dense block updates from descendants ----------------------------- */
+        for (u = SS.up[J]; u < SS.up[J + 1]; u++) {
+            K = SS.uk[u];
+            lo = SS.ulo[u];
+            rk = rp[K];
+            nrk = rp[K + 1] - rk;
+            nck = sup[K + 1] - sup[K];
+            xk = xp[K];
+            for (hi = lo + 1; hi < nrk && ri[rk + hi] < l; hi++)
+                ;
+            mw = nrk - lo; /* W = L(lo:nrk-1,:) * L(lo:hi-1,:)' */
+            nj = hi - lo;
+            for (t = 0; t < mw * nj; t++)
+                W[t] = 0;
+            for (k = 0; k < nck; k++) {
+                base = xk + k * nrk + lo;
+                for (j = 0; j < nj; j++) {
+                    ljk = X[base + j];
+                    if (ljk == 0)
+                        continue;
+                    col = j * mw;
+                    for (i = j; i < mw; i++)
+                        W[col + i] += X[base + i] * ljk;
+                }
+            }
+            for (j = 0; j < nj; j++) /* panel = panel - W */
+            {
+                col = xj + (ri[rk + lo + j] - f) * nr;
+                for (i = j; i < mw; i++)
+                    X[col + map[ri[rk + lo + i]]] -= W[j * mw + i];
+            }
+        }
+        /* --- Dense Cholesky of the panel -------------------------------------- */
+        for (j = 0; j < nc; j++) {
+            col = xj + j * nr;
+            for (k = 0; k < j; k++) {
+                base = xj + k * nr;
+                ljk = X[base + j];
+                if (ljk == 0)
+                    continue;
+                for (i = j; i < nr; i++)
+                    X[col + i] -= X[base + i] * ljk;
+            }
+            d = X[col + j];
+            if (d <= 0)
+                return (false); /* not pos def */
+            X[col + j] = d = Math.sqrt(d);
+            for (i = j + 1; i < nr; i++)
+                X[col + i] /= d;
+        }
+        return (true);
+    }
+
+    /**
+     * Copies the lower triangular part of the dense panels into L.
+     * 
+     * @param SS
+     *            supernodal analysis
+     * @param cp
+     *            column pointers of L
+     * @param X
+     *            dense panels of L
+     * @param n
+     *            order of L
+     * @return L in compressed-column form
+     */
+    protected static Dcs cs_superL(Dcssuper SS, int[] cp, double[] X, int n) {
+        int J, c, f, nr, nc, rj, xj, len, Lp[];
+        Dcs L = Dcs_util.cs_spalloc(n, n, cp[n], true, false);
+        Lp = L.p;
+        for (J = 0; J < SS.nsuper; J++) {
+            f = SS.sup[J];
+            nc = SS.sup[J + 1] - f;
+            rj = SS.rp[J];
+            nr = SS.rp[J + 1] - rj;
+            xj = SS.xp[J];
+            for (c = 0; c < nc; c++) /* L(:,f+c) = panel (c:nr-1,c) */
+            {
+                Lp[f + c] = cp[f + c];
+                len = nr - c;
+                System.arraycopy(SS.ri, rj + c, L.i, cp[f + c], len);
+                System.arraycopy(X, xj + c * nr + c, L.x, cp[f + c], len);
+            }
+        }
+        Lp[n] = cp[n];
+        return L;
+    }
+}
@@ -24,6 +24,9 @@
 
 package edu.emory.mathcs.csparsej.tdouble;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
 
 /**
@@ -34,6 +37,37 @@ import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
  */
 public class Dcs_transpose {
 
+    /**
+     * Value refreshes of fewer entries than this run on a single thread.
+     */
+    public static final int CS_GRAIN = 1 << 16;
+
+    /* copies entries lo to hi-1 of C from A */
+    private static class Cs_gather extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        double[] Ax, Cx;
+        int[] map;
+        int lo, hi;
+
+        Cs_gather(double[] Ax, double[] Cx, int[] map, int lo, int hi) {
+            this.Ax = Ax;
+            this.Cx = Cx;
+            this.map = map;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            int mid;
+            if (hi - lo <= CS_GRAIN) {
+                cs_gather(Ax, Cx, map, lo, hi);
+            } else {
+                mid = (lo + hi) >>> 1;
+                invokeAll(new Cs_gather(Ax, Cx, map, lo, mid), new Cs_gather(Ax, Cx, map, mid, hi));
+            }
+        }
+    }
+
     /**
      * Computes the transpose of a sparse matrix, C =A';
      * 
@@ -44,32 +78,136 @@ public class Dcs_transpose {
      * @return C=A', null on error
      */
     public static Dcs cs_transpose(Dcs A, boolean values) {
-        int p, q, j, Cp[], Ci[], n, m, Ap[], Ai[], w[];
-        double Cx[], Ax[];
+        return (cs_transpose(A, values, null));
+    }
+
+    /**
+     * Computes the transpose of a sparse matrix, C =A', and records where the
+     * values of C come from, so that C can later be refreshed with
+     * cs_transpose_values when the values of A change but its pattern does
+     * not.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param map
+     *            size nnz(A), on output C.x[q] = A.x[map[q]]
+     * @return C=A', null on error
+     */
+    public static Dcs cs_transpose(Dcs A, int[] map) {
+        if (!Dcs_util.CS_CSC(A) || A.x == null || map == null || map.length < A.p[A.n])
+            return (null); /* check inputs */
+        return (cs_transpose(A, true, map));
+    }
+
+    /**
+     * Copies the values of A into C=A', computed by cs_transpose(A, map) from
+     * a matrix with the same pattern as A. No memory is allocated.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param C
+     *            transpose of a matrix with the pattern of A
+     * @param map
+     *            map from cs_transpose(A, map)
+     * @return true if successful, false on error
+     */
+    public static boolean cs_transpose_values(Dcs A, Dcs C, int[] map) {
+        if (!cs_check(A, C, map))
+            return (false); /* check inputs */
+        cs_gather(A.x, C.x, map, 0, A.p[A.n]);
+        return (true);
+    }
+
+    /**
+     * Copies the values of A into C=A' as cs_transpose_values above, with
+     * blocks of CS_GRAIN entries of C copied in parallel.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param C
+     *            transpose of a matrix with the pattern of A
+     * @param map
+     *            map from cs_transpose(A, map)
+     * @param pool
+     *            pool to run the copy in, null for the default pool
+     * @return true if successful, false on error
+     */
+    public static boolean cs_transpose_values(Dcs A, Dcs C, int[] map, ForkJoinPool pool) {
+        int nz;
+        if (!cs_check(A, C, map))
+            return (false); /* check inputs */
+        nz = A.p[A.n];
+        if (nz <= CS_GRAIN)
+            cs_gather(A.x, C.x, map, 0, nz);
+        else
+            (pool != null ? pool : Dcs_util.cs_pool()).invoke(new Cs_gather(A.x, C.x, map, 0, nz));
+        return (true);
+    }
+
+    /* C = A', recording the source of each entry of C in map if not null */
+    private static Dcs cs_transpose(Dcs A, boolean values, int[] map) {
         Dcs C;
         if (!Dcs_util.CS_CSC(A))
             return (null); /* check inputs */
+        C = Dcs_util.cs_spalloc(A.n, A.m, A.p[A.n], values && (A.x != null), false); /* allocate result */
+        cs_transpose(A, C.p, C.i, C.x, map);
+        return (C);
+    }
+
+    /**
+     * Computes C=A' into the given arrays, with no workspace. The entries of
+     * each column of C are in increasing row order.
+     * 
+     * @param A
+     *            column-compressed matrix
+     * @param Cp
+     *            size A.m+1, column pointers of C
+     * @param Ci
+     *            size nnz(A), row indices of C
+     * @param Cx
+     *            size nnz(A), values of C, null for the pattern only
+     * @param map
+     *            size nnz(A), on output C.x[q] = A.x[map[q]], may be null
+     */
+    protected static void cs_transpose(Dcs A, int[] Cp, int[] Ci, double[] Cx, int[] map) {
+        int p, q, i, j, m, n, Ap[], Ai[];
+        double Ax[];
         m = A.m;
         n = A.n;
         Ap = A.p;
         Ai = A.i;
         Ax = A.x;
-        C = Dcs_util.cs_spalloc(n, m, Ap[n], values && (Ax != null), false); /* allocate result */
-        w = new int[m]; /* get workspace */
-        Cp = C.p;
-        Ci = C.i;
-        Cx = C.x;
+        for (i = 0; i <= m; i++)
+            Cp[i] = 0;
         for (p = 0; p < Ap[n]; p++)
-            w[Ai[p]]++; /* row counts */
-        Dcs_cumsum.cs_cumsum(Cp, w, m); /* row pointers */
+            Cp[Ai[p] + 1]++; /* row counts */
+        for (i = 0; i < m; i++)
+            Cp[i + 1] += Cp[i]; /* Cp[i] is the start of column i of C */
         for (j = 0; j < n; j++) {
             for (p = Ap[j]; p < Ap[j + 1]; p++) {
-                Ci[q = w[Ai[p]]++] = j; /* place A(i,j) as entry C(j,i) */
+                Ci[q = Cp[Ai[p]]++] = j; /* place A(i,j) as entry C(j,i) */
                 if (Cx != null)
                     Cx[q] = Ax[p];
+                if (map != null)
+                    map[q] = p;
             }
         }
-        return C;
+        for (i = m; i > 0; i--)
+            Cp[i] = Cp[i - 1]; /* Cp[i] was the end of column i */
+        Cp[0] = 0;
+    }
+
+    /* A and C=A' have values, and map has an entry for each of them */
+    private static boolean cs_check(Dcs A, Dcs C, int[] map) {
+        return (Dcs_util.CS_CSC(A) && Dcs_util.CS_CSC(C) && A.x != null && C.x != null && map != null
+                && A.m == C.n && A.n == C.m && A.p[A.n] == C.p[C.n] && map.length >= A.p[A.n]);
+    }
+
+    /* Cx[q] = Ax[map[q]] for q = lo to hi-1 */
+    protected static void cs_gather(double[] Ax, double[] Cx, int[] map, int lo, int hi) {
+        int q;
+        for (q = lo; q < hi; q++)
+            Cx[q] = Ax[map[q]];
     }
 
 }
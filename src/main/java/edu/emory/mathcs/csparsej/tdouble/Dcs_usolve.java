@@ -61,4 +61,41 @@ public class Dcs_usolve {
         return (true);
     }
 
+    /**
+     * Solves an upper triangular system UX=B, where X and B are dense n-by-k,
+     * stored by rows (X(i,r) is X[i*k+r]). The diagonal of U must be the last
+     * entry of each column.
+     * 
+     * @param U
+     *            upper triangular matrix in column-compressed form
+     * @param X
+     *            size n*k, right hand sides on input, solutions on output
+     * @param k
+     *            number of right hand sides
+     * @return true if successful, false on error
+     */
+    public static boolean cs_usolve(Dcs U, double[] X, int k) {
+        int p, j, n, r, xi, xj, Up[], Ui[];
+        double Ux[], d;
+        if (!Dcs_util.CS_CSC(U) || X == null || k < 0)
+            return (false); /* check inputs */
+        n = U.n;
+        Up = U.p;
+        Ui = U.i;
+        Ux = U.x;
+        for (j = n - 1; j >= 0; j--) {
+            xj = j * k;
+            d = Ux[Up[j + 1] - 1];
+            for (r = 0; r < k; r++)
+                X[xj + r] /= d;
+            for (p = Up[j]; p < Up[j + 1] - 1; p++) {
+                xi = Ui[p] * k;
+                d = Ux[p];
+                for (r = 0; r < k; r++)
+                    X[xi + r] -= d * X[xj + r]; /* X(i,:) -= U(i,j)*X(j,:) */
+            }
+        }
+        return (true);
+    }
+
 }
@@ -24,8 +24,12 @@
 
 package edu.emory.mathcs.csparsej.tdouble;
 
+import java.util.concurrent.ForkJoinPool;
+
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs;
 import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsd;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsfact;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcswork;
 
 /**
  * Various utilities.
@@ -35,6 +39,20 @@ import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsd;
  */
 public class Dcs_util {
 
+    private static ForkJoinPool pool;
+
+    /**
+     * Returns the default pool of the parallel kernels, with one thread per
+     * available processor.
+     * 
+     * @return default pool
+     */
+    public static synchronized ForkJoinPool cs_pool() {
+        if (pool == null)
+            pool = new ForkJoinPool();
+        return pool;
+    }
+
     /**
      * Allocate a sparse matrix (triplet form or compressed-column form).
      * 
@@ -117,6 +135,37 @@ public class Dcs_util {
         return D;
     }
 
+    /**
+     * Takes an idle solve workspace from a factorization object, allocating a
+     * new one if all are in use. It is given back with cs_wfree.
+     * 
+     * @param F
+     *            factorization object
+     * @return solve workspace owned by the caller until cs_wfree
+     */
+    public static Dcswork cs_walloc(Dcsfact F) {
+        Dcswork W;
+        W = F.work.poll();
+        if (W == null) {
+            W = new Dcswork();
+            W.x = new double[Math.max(F.n, F.S.m2)]; /* S.m2 >= n for QR */
+        }
+        return (W);
+    }
+
+    /**
+     * Gives a solve workspace taken with cs_walloc back to its factorization
+     * object for reuse by later solves.
+     * 
+     * @param F
+     *            factorization object
+     * @param W
+     *            solve workspace
+     */
+    public static void cs_wfree(Dcsfact F, Dcswork W) {
+        F.work.offer(W);
+    }
+
     protected static int CS_FLIP(int i) {
         return (-(i) - 2);
     }
@@ -62,4 +62,41 @@ public class Dcs_utsolve {
         return (true);
     }
 
+    /**
+     * Solves a lower triangular system U'X=B, where X and B are dense n-by-k,
+     * stored by rows (X(i,r) is X[i*k+r]). The diagonal of U must be the last
+     * entry of each column.
+     * 
+     * @param U
+     *            upper triangular matrix in column-compressed form
+     * @param X
+     *            size n*k, right hand sides on input, solutions on output
+     * @param k
+     *            number of right hand sides
+     * @return true if successful, false on error
+     */
+    public static boolean cs_utsolve(Dcs U, double[] X, int k) {
+        int p, j, n, r, xi, xj, Up[], Ui[];
+        double Ux[], d;
+        if (!Dcs_util.CS_CSC(U) || X == null || k < 0)
+            return (false); /* check inputs */
+        n = U.n;
+        Up = U.p;
+        Ui = U.i;
+        Ux = U.x;
+        for (j = 0; j < n; j++) {
+            xj = j * k;
+            for (p = Up[j]; p < Up[j + 1] - 1; p++) {
+                xi = Ui[p] * k;
+                d = Ux[p];
+                for (r = 0; r < k; r++)
+                    X[xj + r] -= d * X[xi + r]; /* X(j,:) -= U(i,j)*X(i,:) */
+            }
+            d = Ux[Up[j + 1] - 1];
+            for (r = 0; r < k; r++)
+                X[xj + r] /= d;
+        }
+        return (true);
+    }
+
 }
@@ -167,6 +167,52 @@ public class Scs_common {
 
     };
 
+    /**
+     * 
+     * Matrix in compressed-row form.
+     * 
+     */
+    public static class Scsr {
+        /**
+         * maximum number of entries
+         */
+        public int nzmax;
+
+        /**
+         * number of rows
+         */
+        public int m;
+
+        /**
+         * number of columns
+         */
+        public int n;
+
+        /**
+         * row pointers, size m+1
+         */
+        public int[] p;
+
+        /**
+         * column indices, size nzmax
+         */
+        public int[] j;
+
+        /**
+         * numerical values, size nzmax
+         */
+        public float[] x;
+
+        /**
+         * size nzmax, entry q of this matrix is entry map[q] of the
+         * source column-compressed matrix
+         */
+        public int[] map;
+
+        public Scsr() {
+        }
+    };
+
     /**
      * 
      * Output of Sulmage-Mendelsohn decomposition.
@@ -0,0 +1,332 @@
+/* ***** BEGIN LICENSE BLOCK *****
+ * 
+ * CSparse: a Concise Sparse matrix package.
+ * Copyright (c) 2006, Timothy A. Davis.
+ * http://www.cise.ufl.edu/research/sparse/CSparse
+ *
+ * -------------------------------------------------------------------------
+ * 
+ * CSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ *
+ * ***** END LICENSE BLOCK ***** */
+
+package edu.emory.mathcs.csparsej.tfloat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import edu.emory.mathcs.csparsej.tfloat.Scs_common.Scs;
+
+/**
+ * Read a sparse matrix in Matrix Market format.
+ * 
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ * 
+ */
+public class Scs_mmread {
+
+    /**
+     * Largest region of a file that is memory-mapped at once.
+     */
+    public static final int CS_MMAP_WINDOW = 1 << 30;
+
+    private static final double[] CS_POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /* byte source over a buffer, or over a file mapped one window at a time */
+    private static class Cs_mmbuf {
+        FileChannel ch;
+        long pos, size;
+        int window;
+        ByteBuffer buf;
+
+        int get() throws IOException {
+            if (!buf.hasRemaining()) {
+                if (ch == null || pos + buf.limit() >= size)
+                    return (-1); /* end of input */
+                pos += buf.limit();
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(window, size - pos));
+            }
+            return (buf.get() & 0xff);
+        }
+    }
+
+    /**
+     * Reads a sparse matrix from a Matrix Market coordinate file. The file is
+     * memory-mapped and parsed in a single pass: the triplet is sized from the
+     * header, and numbers are parsed directly from the mapped bytes.
+     * Symmetric and skew-symmetric files are expanded to the full matrix, and
+     * a pattern file gives a matrix with no numerical values. Complex files
+     * are not supported.
+     * 
+     * @param fileName
+     *            name of the .mtx file
+     * @param compress
+     *            true to return the matrix in compressed-column form, false to
+     *            return a triplet matrix
+     * @return A if successful, null on error
+     */
+    public static Scs cs_mmread(String fileName, boolean compress) {
+        return (cs_mmread(fileName, compress, CS_MMAP_WINDOW));
+    }
+
+    /**
+     * Reads a sparse matrix from a Matrix Market coordinate file, mapping at
+     * most window bytes of it at once.
+     * 
+     * @param fileName
+     *            name of the .mtx file
+     * @param compress
+     *            true to return the matrix in compressed-column form, false to
+     *            return a triplet matrix
+     * @param window
+     *            largest region of the file mapped at once, in bytes
+     * @return A if successful, null on error
+     */
+    public static Scs cs_mmread(String fileName, boolean compress, int window) {
+        RandomAccessFile file = null;
+        Cs_mmbuf f;
+        if (window <= 0)
+            return (null); /* check inputs */
+        try {
+            file = new RandomAccessFile(fileName, "r");
+            f = new Cs_mmbuf();
+            f.ch = file.getChannel();
+            f.size = f.ch.size();
+            f.pos = 0;
+            f.window = window;
+            f.buf = f.ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(window, f.size));
+            return (cs_mmread(f, compress));
+        } catch (IOException e) {
+            return (null);
+        } catch (NumberFormatException e) {
+            return (null);
+        } finally {
+            try {
+                if (file != null)
+                    file.close(); /* the mapping stays valid */
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Reads a sparse matrix in Matrix Market coordinate format from a buffer,
+     * starting at its current position.
+     * 
+     * @param buf
+     *            contents of a .mtx file
+     * @param compress
+     *            true to return the matrix in compressed-column form, false to
+     *            return a triplet matrix
+     * @return A if successful, null on error
+     */
+    public static Scs cs_mmread(ByteBuffer buf, boolean compress) {
+        Cs_mmbuf f;
+        if (buf == null)
+            return (null); /* check inputs */
+        f = new Cs_mmbuf();
+        f.buf = buf.slice();
+        try {
+            return (cs_mmread(f, compress));
+        } catch (IOException e) {
+            return (null);
+        } catch (NumberFormatException e) {
+            return (null);
+        }
+    }
+
+    private static Scs cs_mmread(Cs_mmbuf f, boolean compress) throws IOException {
+        int m, n, nz, cnt, i, j, k, c, len, p, Ti[], Tj[], w[], Cp[], Ci[];
+        float x = 1, Tx[], Cx[];
+        boolean values, sym, skew;
+        byte[] tok;
+        String header[];
+        Scs T, C;
+        StringBuilder line = new StringBuilder();
+        while ((c = f.get()) != -1 && c != '\n')
+            line.append((char) c); /* banner */
+        header = line.toString().trim().toLowerCase().split("\\s+");
+        if (header.length != 5 || !header[0].equals("%%matrixmarket") || !header[1].equals("matrix")
+                || !header[2].equals("coordinate"))
+            return (null);
+        if (header[3].equals("pattern"))
+            values = false;
+        else if (header[3].equals("real") || header[3].equals("double") || header[3].equals("integer"))
+            values = true;
+        else
+            return (null); /* complex is not supported */
+        skew = header[4].equals("skew-symmetric");
+        sym = skew || header[4].equals("symmetric") || header[4].equals("hermitian");
+        if (!sym && !header[4].equals("general"))
+            return (null);
+        for (;;) /* skip comment lines */
+        {
+            do
+                c = f.get();
+            while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+            if (c != '%')
+                break;
+            while ((c = f.get()) != -1 && c != '\n')
+                ;
+        }
+        if (c == -1)
+            return (null);
+        f.buf.position(f.buf.position() - 1); /* unread first byte of size line */
+        tok = new byte[64];
+        m = cs_int(tok, cs_token(f, tok));
+        n = cs_int(tok, cs_token(f, tok));
+        nz = cs_int(tok, cs_token(f, tok));
+        if (m < 0 || n < 0 || nz < 0)
+            return (null);
+        cnt = sym ? 2 * nz : nz; /* upper bound on # of entries */
+        T = Scs_util.cs_spalloc(m, n, cnt, values, true); /* allocate result */
+        Ti = T.i;
+        Tj = T.p;
+        Tx = T.x;
+        w = compress ? new int[n] : null; /* column counts */
+        for (k = 0, p = 0; k < nz; k++) {
+            i = cs_int(tok, cs_token(f, tok)) - 1;
+            j = cs_int(tok, cs_token(f, tok)) - 1;
+            if (i < 0 || i >= m || j < 0 || j >= n)
+                return (null); /* index out of range, or premature end of file */
+            if (values) {
+                len = cs_token(f, tok);
+                if (len <= 0)
+                    return (null);
+                x = cs_float(tok, len);
+                Tx[p] = x;
+            }
+            Ti[p] = i;
+            Tj[p++] = j;
+            if (compress)
+                w[j]++;
+            if (sym && i != j) /* add the mirror entry A(j,i) */
+            {
+                if (values)
+                    Tx[p] = skew ? -x : x;
+                Ti[p] = j;
+                Tj[p++] = i;
+                if (compress)
+                    w[i]++;
+            }
+        }
+        T.nz = p;
+        if (!compress) {
+            if (p < cnt)
+                Scs_util.cs_sprealloc(T, 0); /* remove extra space from T */
+            return (T);
+        }
+        C = Scs_util.cs_spalloc(m, n, p, values, false);
+        Cp = C.p;
+        Ci = C.i;
+        Cx = C.x;
+        Scs_cumsum.cs_cumsum(Cp, w, n); /* column pointers */
+        for (k = 0; k < p; k++) {
+            Ci[c = w[Tj[k]]++] = Ti[k]; /* A(i,j) is the cth entry in C */
+            if (values)
+                Cx[c] = Tx[k];
+        }
+        return (C);
+    }
+
+    /* reads the next whitespace-delimited token into tok, returns its length */
+    private static int cs_token(Cs_mmbuf f, byte[] tok) throws IOException {
+        int c, len = 0;
+        do
+            c = f.get();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+        while (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+            if (len == tok.length)
+                return (-1); /* token too long */
+            tok[len++] = (byte) c;
+            c = f.get();
+        }
+        return (len);
+    }
+
+    /* parses a non-negative integer, -1 on error */
+    private static int cs_int(byte[] tok, int len) {
+        int k, d;
+        long v = 0;
+        if (len <= 0)
+            return (-1);
+        for (k = 0; k < len; k++) {
+            d = tok[k] - '0';
+            if (d < 0 || d > 9 || (v = 10 * v + d) > Integer.MAX_VALUE)
+                return (-1);
+        }
+        return ((int) v);
+    }
+
+    /*
+     * parses a floating-point number. Values with at most 2^53 as significand
+     * and a power of ten of at most 22 are converted directly to the nearest
+     * double x, then rounded to float. That is the nearest float unless x lies
+     * exactly halfway between two floats, where the decimal value may not;
+     * those values and anything else are left to Float.parseFloat.
+     */
+    private static float cs_float(byte[] tok, int len) {
+        int k = 0, d, e = 0, ex = 0, nd = 0;
+        long v = 0;
+        boolean neg = false, eneg = false, digits = false;
+        double x, r, u;
+        float f;
+        if (tok[k] == '-' || tok[k] == '+')
+            neg = tok[k++] == '-';
+        for (; k < len && (d = tok[k] - '0') >= 0 && d <= 9; k++) /* integer part */
+        {
+            digits = true;
+            if (nd < 18) {
+                v = 10 * v + d;
+                if (v != 0)
+                    nd++;
+            } else
+                e++; /* digit beyond 18 significant digits */
+        }
+        if (k < len && tok[k] == '.') {
+            for (k++; k < len && (d = tok[k] - '0') >= 0 && d <= 9; k++) /* fraction */
+            {
+                digits = true;
+                if (nd < 18) {
+                    v = 10 * v + d;
+                    if (v != 0)
+                        nd++;
+                    e--;
+                }
+            }
+        }
+        if (digits && k < len && (tok[k] == 'e' || tok[k] == 'E')) {
+            k++;
+            if (k < len && (tok[k] == '-' || tok[k] == '+'))
+                eneg = tok[k++] == '-';
+            for (; k < len && (d = tok[k] - '0') >= 0 && d <= 9 && ex < 10000; k++)
+                ex = 10 * ex + d;
+            e += eneg ? -ex : ex;
+        }
+        if (digits && k == len && nd < 18 && v <= (1L << 53) && e >= -22 && e <= 22) {
+            x = (double) v;
+            x = e < 0 ? x / CS_POW10[-e] : x * CS_POW10[e];
+            f = (float) x;
+            r = Math.abs(x - f); /* exact, f is next to x */
+            u = Math.ulp(f);
+            if (r != u / 2 && r != u / 4) /* u/4 below a power of two */
+                return (neg ? -f : f);
+        }
+        return (Float.parseFloat(new String(tok, 0, len))); /* slow path */
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdcomplex.test ;
+
+import java.io.File;
+import java.io.IOException;
+
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_binary.cs_nread;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_binary.cs_nwrite;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_binary.cs_read;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_binary.cs_write;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_lu.cs_lu;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_sqr.cs_sqr;
+
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsn;
+
+/**
+ * Write and read complex matrices and factorizations in binary form.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class DZcs_binary_test extends DZcs_test {
+
+	public void test_lu() throws IOException
+	{
+		DZproblem prob = get_problem (get_stream (C_WEST0067), 0) ;
+		DZcsn N = cs_lu (prob.A, cs_sqr (2, prob.A, false), 1) ;
+		File f = File.createTempFile ("csparsej", ".bin") ;
+		f.deleteOnExit () ;
+
+		assertTrue (cs_write (prob.A, f.getPath (), true)) ;
+		assert_equals (prob.A, cs_read (f.getPath ())) ;
+		assertNull (cs_nread (f.getPath ())) ;
+
+		assertTrue (cs_nwrite (N, f.getPath (), true)) ;
+		DZcsn N2 = cs_nread (f.getPath ()) ;
+		assert_equals (N.L, N2.L) ;
+		assert_equals (N.U, N2.U) ;
+		for (int k = 0 ; k < N.pinv.length ; k++) assertEquals (N.pinv [k], N2.pinv [k]) ;
+	}
+
+}
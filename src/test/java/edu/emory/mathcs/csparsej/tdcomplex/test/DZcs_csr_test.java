@@ -0,0 +1,130 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdcomplex.test ;
+
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_csr.cs_csr ;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_csr.cs_csr_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_csr.cs_csr_rows ;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_csr.cs_csr_values ;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsa ;
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcsr ;
+
+/**
+ * Complex compressed-row form.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class DZcs_csr_test extends DZcs_test {
+
+	protected static void assert_csr(DZcs A, DZcsr R)
+	{
+		DZcs AT = cs_transpose (A, false) ;
+		int i, k, p, q, nz = A.p [A.n] ;
+		assertEquals (A.m, R.m) ;
+		assertEquals (A.n, R.n) ;
+		for (k = 0 ; k <= A.m ; k++) assertEquals (AT.p [k], R.p [k]) ;
+		for (k = 0 ; k < nz ; k++) assertEquals (AT.i [k], R.j [k]) ;
+		for (i = 0 ; i < A.m ; i++)
+		{
+			for (q = R.p [i] ; q < R.p [i+1] ; q++)
+			{
+				p = R.map [q] ;
+				assertEquals (i, A.i [p]) ;
+				assertTrue (p >= A.p [R.j [q]] && p < A.p [R.j [q] + 1]) ;
+				assertEquals (A.x [2*p], R.x [2*q]) ;
+				assertEquals (A.x [2*p+1], R.x [2*q+1]) ;
+			}
+		}
+	}
+
+	protected static void test_csr(DZcs A)
+	{
+		int i, m = A.m, n = A.n ;
+		DZcsr R = cs_csr (A) ;
+		assert_csr (A, R) ;
+
+		DZcsa x = new DZcsa (n), y = new DZcsa (m), z = new DZcsa (m) ;
+		for (i = 0 ; i < n ; i++) x.set (i, 1 + (i % 7), i % 3) ;
+		for (i = 0 ; i < m ; i++) { y.set (i, i, -i) ; z.set (i, i, -i) ; }
+		assertTrue (cs_gaxpy (A, x, y)) ;
+		assertTrue (cs_csr_gaxpy (R, x, z)) ;
+		for (i = 0 ; i < 2 * m ; i++) assertEquals (y.x [i], z.x [i], 1e-12 * Math.abs (y.x [i])) ;
+
+		double[] Rx = R.x ;
+		for (int p = 0 ; p < 2 * A.p [n] ; p++) A.x [p] = 2 * A.x [p] - p ;
+		assertTrue (cs_csr_values (A, R)) ;
+		assertSame (Rx, R.x) ;
+		assert_csr (A, R) ;
+
+		int lo = m / 3, hi = 2 * m / 3 ;
+		DZcsr C = cs_csr_rows (R, lo, hi) ;
+		for (i = lo ; i < hi ; i++)
+		{
+			for (int p = R.p [i] ; p < R.p [i+1] ; p++)
+			{
+				int q = p - R.p [lo] ;
+				assertEquals (R.j [p], C.j [q]) ;
+				assertEquals (R.x [2*p], C.x [2*q]) ;
+				assertEquals (R.x [2*p+1], C.x [2*q+1]) ;
+			}
+		}
+	}
+
+	public void test_west0067()
+	{
+		DZproblem prob = get_problem (get_stream (C_WEST0067), 0) ;
+		test_csr (prob.A) ;
+	}
+
+	public void test_ibm32a()
+	{
+		DZproblem prob = get_problem (get_stream (C_IBM32A), 0) ;
+		test_csr (prob.A) ;
+	}
+
+	public void test_sliced()
+	{
+		DZcs A = get_problem (get_stream (C_WEST0067), 0).A ;
+
+		/* a slice has no map, converting into it builds one */
+		DZcsr R = cs_csr_rows (cs_csr (A), 0, A.m) ;
+		assertNull (R.map) ;
+		assertTrue (cs_csr (A, R)) ;
+		assert_csr (A, R) ;
+
+		/* a pattern-only matrix leaves no earlier values behind */
+		DZcs P = cs_transpose (cs_transpose (A, false), false) ;
+		assertTrue (cs_csr (P, R)) ;
+		assertNull (R.x) ;
+		assertFalse (cs_csr_gaxpy (R, new DZcsa (A.n), new DZcsa (A.m))) ;
+		assertTrue (cs_csr (A, R)) ;
+		assert_csr (A, R) ;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdcomplex.test ;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_compress.cs_compress;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_load.cs_load;
+import static edu.emory.mathcs.csparsej.tdcomplex.DZcs_mmread.cs_mmread;
+
+import edu.emory.mathcs.csparsej.tdcomplex.DZcs_common.DZcs;
+
+/**
+ * Read a complex matrix in Matrix Market format.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class DZcs_mmread_test extends DZcs_test {
+
+	protected static DZcs read(String s, boolean compress)
+	{
+		return (cs_mmread (ByteBuffer.wrap (s.getBytes ()), compress)) ;
+	}
+
+	public void test_young1c() throws IOException
+	{
+		DZcs T = cs_load (get_stream (YOUNG1C)) ;
+		StringBuilder s = new StringBuilder () ;
+		s.append ("%%MatrixMarket matrix coordinate complex general\n") ;
+		s.append (T.m + " " + T.n + " " + T.nz + "\n") ;
+		for (int k = 0 ; k < T.nz ; k++)
+			s.append ((T.i [k] + 1) + " " + (T.p [k] + 1) + " " + T.x [2*k] + " " + T.x [2*k+1] + "\n") ;
+		File f = File.createTempFile ("csparsej", ".mtx") ;
+		f.deleteOnExit () ;
+		FileOutputStream out = new FileOutputStream (f) ;
+		out.write (s.toString ().getBytes ()) ;
+		out.close () ;
+
+		assert_equals (T, cs_mmread (f.getPath (), false)) ;
+		assert_equals (cs_compress (T), cs_mmread (f.getPath (), true)) ;
+		assert_equals (T, cs_mmread (f.getPath (), false, 7)) ;	/* remapped */
+		assert_equals (cs_compress (T), cs_mmread (f.getPath (), true, 1000)) ;
+		assertNull (cs_mmread (f.getPath (), false, 0)) ;
+	}
+
+	public void test_hermitian()
+	{
+		String herm = "%%MatrixMarket matrix coordinate complex hermitian\n"
+			+ "2 2 3\n1 1 4 0\n2 1 1.5 -2\n2 2 3 0\n" ;
+		DZcs A = read (herm, true) ;
+		assertEquals (4, A.p [A.n]) ;
+		assertEquals (1.5, A.x [2*1], 0) ;	/* A(1,0) */
+		assertEquals (-2, A.x [2*1+1], 0) ;
+		assertEquals (0, A.i [2]) ;		/* A(0,1) = conj(A(1,0)) */
+		assertEquals (1.5, A.x [2*2], 0) ;
+		assertEquals (2, A.x [2*2+1], 0) ;
+
+		DZcs S = read (herm.replace ("hermitian", "skew-symmetric"), false) ;
+		assertEquals (-1.5, S.x [2*2], 0) ;
+		assertEquals (2, S.x [2*2+1], 0) ;
+	}
+
+	public void test_real()
+	{
+		DZcs A = read ("%%MatrixMarket matrix coordinate real symmetric\n% comment\n"
+			+ "2 2 2\n1 1 2.5\n2 1 -1\n", false) ;
+		assertEquals (3, A.nz) ;
+		assertEquals (-1, A.x [2*2], 0) ;
+		assertEquals (0, A.x [2*2+1], 0) ;
+		assertNull (read ("%%MatrixMarket matrix coordinate complex general\n1 1 1\n1 1 2.5\n", false)) ;
+	}
+
+}
@@ -105,6 +105,20 @@ abstract public class DZcs_test extends TestCase {
 		}
 	}
 
+	/**
+	 * Asserts that two triplet or compressed-column matrices are identical.
+	 */
+	protected static void assert_equals(DZcs A, DZcs B) {
+		assertEquals (A.m, B.m) ;
+		assertEquals (A.n, B.n) ;
+		assertEquals (A.nz, B.nz) ;
+		int nz = (A.nz < 0) ? A.p [A.n] : A.nz ;
+		int np = (A.nz < 0) ? A.n + 1 : nz ;
+		for (int k = 0 ; k < np ; k++) assertEquals (A.p [k], B.p [k]) ;
+		for (int k = 0 ; k < nz ; k++) assertEquals (A.i [k], B.i [k]) ;
+		for (int k = 0 ; k < 2 * nz ; k++) assertEquals (A.x [k], B.x [k], 0) ;
+	}
+
 	protected static void assert_dimensions(DZcs A, int m, int n, int nzmax, int nnz, double norm1) {
 		assert_dimensions (A, m, n, nzmax, nnz);
 		assertEquals (norm1, cs_norm (A), DELTA);
@@ -0,0 +1,170 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_nread ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_nwrite ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_read ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_sread ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_swrite ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_binary.cs_write ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_load.cs_load ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qr.cs_qr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Write and read matrices and factorizations in binary form.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_binary_test extends Dcs_test {
+
+	protected static String temp()
+	{
+		try
+		{
+			File f = File.createTempFile ("csparsej", ".bin") ;
+			f.deleteOnExit () ;
+			return (f.getPath ()) ;
+		}
+		catch (IOException e)
+		{
+			fail (e.getMessage ()) ;
+			return (null) ;
+		}
+	}
+
+	public void test_matrix()
+	{
+		Dcs T = cs_load (get_stream (BCSSTK16)) ;
+		String file = temp () ;
+		assertTrue (cs_write (T, file, false)) ;
+		assert_equals (T, cs_read (file)) ;
+
+		Dproblem prob = get_problem (get_stream (BCSSTK16), 0) ;
+		assertTrue (cs_write (prob.A, file, true)) ;
+		assert_equals (prob.A, cs_read (file)) ;
+	}
+
+	public void test_lu()
+	{
+		Dproblem prob = get_problem (get_stream (WEST0067), 0) ;
+		Dcs A = prob.A ;
+		Dcss S = cs_sqr (2, A, false) ;
+		Dcsn N = cs_lu (A, S, 1) ;
+		String sfile = temp (), nfile = temp () ;
+		assertTrue (cs_swrite (S, sfile, true)) ;
+		assertTrue (cs_nwrite (N, nfile, true)) ;
+
+		Dcss S2 = cs_sread (sfile) ;
+		assertEquals (S.lnz, S2.lnz) ;
+		assertEquals (S.unz, S2.unz) ;
+		assert_equals (S.q, S2.q) ;
+		assert_equals (S.pinv, S2.pinv) ;
+		assert_equals (S.parent, S2.parent) ;
+
+		Dcsn N2 = cs_nread (nfile) ;
+		assert_equals (N.L, N2.L) ;
+		assert_equals (N.U, N2.U) ;
+		assert_equals (N.pinv, N2.pinv) ;
+		assertNull (N2.B) ;
+	}
+
+	public void test_qr()
+	{
+		Dproblem prob = get_problem (get_stream (ASH219), 0) ;
+		Dcss S = cs_sqr (3, prob.A, true) ;
+		Dcsn N = cs_qr (prob.A, S) ;
+		String sfile = temp (), nfile = temp () ;
+		assertTrue (cs_swrite (S, sfile, false)) ;
+		assertTrue (cs_nwrite (N, nfile, false)) ;
+
+		Dcss S2 = cs_sread (sfile) ;
+		assertEquals (S.m2, S2.m2) ;
+		assert_equals (S.leftmost, S2.leftmost) ;
+		assert_equals (S.cp, S2.cp) ;
+
+		Dcsn N2 = cs_nread (nfile) ;
+		assert_equals (N.L, N2.L) ;
+		assert_equals (N.U, N2.U) ;
+		assertNull (N2.pinv) ;
+		for (int k = 0 ; k < N.B.length ; k++) assertEquals (N.B [k], N2.B [k], 0) ;
+	}
+
+	public void test_errors() throws IOException
+	{
+		Dproblem prob = get_problem (get_stream (T1), 0) ;
+		String file = temp () ;
+		assertTrue (cs_write (prob.A, file, true)) ;
+		assertNull (cs_sread (file)) ;		/* wrong kind */
+		assertNull (cs_nread (file)) ;
+
+		RandomAccessFile f = new RandomAccessFile (file, "rw") ;
+		f.seek (f.length () - 12) ;
+		int b = f.read () ;
+		f.seek (f.length () - 12) ;
+		f.write (b ^ 1) ;			/* corrupt one value */
+		f.close () ;
+		assertNull (cs_read (file)) ;
+
+		f = new RandomAccessFile (file, "rw") ;
+		f.setLength (f.length () - 10) ;	/* truncate */
+		f.close () ;
+		assertNull (cs_read (file)) ;
+		assertNull (cs_read (new File ("no such file").getPath ())) ;
+
+		Dcs A = prob.A ;
+		assertTrue (cs_write (A, file, false)) ;	/* no checksum */
+		f = new RandomAccessFile (file, "rw") ;
+		f.seek (40 + 4 * (A.n + 1)) ;
+		f.write (A.m) ;				/* row index i[0] = m */
+		f.close () ;
+		assertNull (cs_read (file)) ;
+
+		assertTrue (cs_write (A, file, false)) ;
+		f = new RandomAccessFile (file, "rw") ;
+		f.seek (36) ;
+		f.write (1) ;				/* column pointer p[0] = 1 */
+		f.close () ;
+		assertNull (cs_read (file)) ;
+
+		f = new RandomAccessFile (file, "rw") ;
+		f.setLength (8) ;			/* short header */
+		f.close () ;
+		assertNull (cs_read (file)) ;
+		assertTrue (new File (file).delete ()) ;	/* closed after the failed read */
+	}
+
+}
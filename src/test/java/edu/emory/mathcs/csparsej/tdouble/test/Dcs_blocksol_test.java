@@ -0,0 +1,137 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholsol.cs_cholsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrsol.cs_qrsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Solves with multiple right hand sides.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_blocksol_test extends Dcs_test {
+
+	/**
+	 * k right hand sides of size max(m,n), the first m entries of each nonzero.
+	 */
+	protected static double[][] rhs_block(Dcs A, int k)
+	{
+		int i, r, n = Math.max (A.m, A.n) ;
+		double[][] B = new double [k][n] ;
+		for (r = 0 ; r < k ; r++)
+		{
+			for (i = 0 ; i < A.m ; i++) B [r][i] = 1 + ((i + 7 * r) % 13) / 3.0 ;
+		}
+		return (B) ;
+	}
+
+	/**
+	 * Solves each right hand side separately and all of them together.
+	 */
+	protected static void test_block(int kind, int order, Dcs A, int k)
+	{
+		int r ;
+		double[][] B = rhs_block (A, k) ;
+		double[][] X = rhs_block (A, k) ;
+		for (r = 0 ; r < k ; r++)
+		{
+			switch (kind)
+			{
+				case 0: assertTrue (cs_cholsol (order, A, X [r])) ; break ;
+				case 1: assertTrue (cs_lusol (order, A, X [r], 1)) ; break ;
+				default: assertTrue (cs_qrsol (order, A, X [r])) ; break ;
+			}
+		}
+		switch (kind)
+		{
+			case 0: assertTrue (cs_cholsol (order, A, B)) ; break ;
+			case 1: assertTrue (cs_lusol (order, A, B, 1)) ; break ;
+			default: assertTrue (cs_qrsol (order, A, B)) ; break ;
+		}
+		for (r = 0 ; r < k ; r++)
+		{
+			for (int i = 0 ; i < A.n ; i++)
+			{
+				assertEquals (X [r][i], B [r][i], 0) ;
+			}
+		}
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_block (0, 0, prob.C, 5) ;
+		test_block (0, 1, prob.C, 1) ;
+		test_block (1, 1, prob.C, 7) ;
+		test_block (2, 3, prob.C, 3) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_block (0, 1, prob.C, 16) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_block (1, 2, prob.A, 4) ;
+		test_block (2, 3, prob.A, 4) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_block (2, 3, prob.A, 6) ;
+		test_block (2, 3, cs_transpose (prob.A, true), 6) ;
+	}
+
+	public void test_empty()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assertTrue (cs_lusol (2, prob.A, new double [0][], 1)) ;
+		assertFalse (cs_lusol (2, prob.A, (double[][]) null, 1)) ;
+		assertFalse (cs_cholsol (1, null, new double [1][1])) ;
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol_refactor.cs_chol_refactor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol_refactor.cs_chol_refactor_alloc ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_norm.cs_norm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsrefactor ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Cholesky refactorization in place.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_chol_refactor_test extends Dcs_test {
+
+	protected static void test_refactor(Dproblem prob, int order)
+	{
+		Dcs C = prob.C ;
+		Dcss S = cs_schol (order, C) ;
+		Dcsn N = cs_chol (C, S) ;
+		Dcs L = N.L ;
+		double[] Lx = L.x ;
+		Dcsrefactor R = cs_chol_refactor_alloc (C, S) ;
+		for (int k = 1 ; k <= 3 ; k++)
+		{
+			shift (C, k * cs_norm (C) * 1e-3) ;
+			assertTrue (cs_chol_refactor (C, S, N, R)) ;
+			assertSame (L, N.L) ;
+			assertSame (Lx, N.L.x) ;		/* updated in place */
+			assert_factor (cs_chol (C, S).L, N.L, 0) ;
+		}
+		shift (C, 1e-3) ;
+		assertTrue (cs_chol_refactor (C, S, N)) ;
+		assert_factor (cs_chol (C, S).L, N.L, 0) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_refactor (prob, 0) ;
+		test_refactor (prob, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_refactor (prob, 1) ;
+	}
+
+	public void test_not_pos_def()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+		Dcss S = cs_schol (1, C) ;
+		Dcsn N = cs_chol (C, S) ;
+		shift (C, -2 * cs_norm (C)) ;
+		assertFalse (cs_chol_refactor (C, S, N)) ;
+	}
+
+	/**
+	 * 3-by-3 upper triangular matrix with entries (0,0), (1,1), (r,2), (2,2).
+	 */
+	protected static Dcs arrow(int r)
+	{
+		Dcs A = cs_spalloc (3, 3, 4, true, false) ;
+		int[] Ap = {0, 1, 2, 4}, Ai = {0, 1, r, 2} ;
+		double[] Ax = {4, 4, 1, 4} ;
+		System.arraycopy (Ap, 0, A.p, 0, 4) ;
+		System.arraycopy (Ai, 0, A.i, 0, 4) ;
+		System.arraycopy (Ax, 0, A.x, 0, 4) ;
+		return (A) ;
+	}
+
+	public void test_pattern()
+	{
+		Dcs A = arrow (0) ;
+		Dcss S = cs_schol (0, A) ;
+		Dcsn N = cs_chol (A, S) ;
+		Dcsrefactor R = cs_chol_refactor_alloc (A, S) ;
+		assertTrue (cs_chol_refactor (A, S, N, R)) ;
+		assertFalse (cs_chol_refactor (arrow (1), S, N, R)) ;	/* same nnz, other rows */
+		Dcs B = arrow (0) ;
+		B.x = null ;
+		assertFalse (cs_chol_refactor (B, S, N, R)) ;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_amd.cs_amd ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrsol.cs_qrsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Column minimum degree ordering without forming A'A.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_colamd_test extends Dcs_test {
+
+	/**
+	 * Solves with order 4 and compares against the solution with order 3.
+	 */
+	protected static void test_colamd(Dproblem prob, boolean qr)
+	{
+		Dcs A = prob.A ;
+		int m = A.m, n = A.n ;
+		double[] x3 = new double [Math.max (m, n)], x4 = new double [Math.max (m, n)] ;
+		rhs (x3, prob.b, m) ;
+		rhs (x4, prob.b, m) ;
+		assert_perm (cs_amd (4, A), n) ;
+		Dcss S3 = cs_sqr (3, A, qr), S4 = cs_sqr (4, A, qr) ;
+		assertNotNull (S4) ;
+		if (qr)
+		{
+			assertTrue (S4.unz <= 2 * S3.unz) ;	/* similar fill in R */
+			assertTrue (cs_qrsol (3, A, x3)) ;
+			assertTrue (cs_qrsol (4, A, x4)) ;
+		}
+		else
+		{
+			assertTrue (cs_lusol (3, A, x3, 1)) ;
+			assertTrue (cs_lusol (4, A, x4, 1)) ;
+		}
+		for (int j = 0 ; j < n ; j++)
+			assertEquals (x3 [j], x4 [j], 1e-8 * Math.max (1, Math.abs (x3 [j]))) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_colamd (prob, true) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_colamd (prob, true) ;
+		test_colamd (prob, false) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_colamd (prob, true) ;
+		test_colamd (prob, false) ;
+	}
+
+	public void test_mbeacxc()
+	{
+		InputStream in = get_stream (MBEACXC) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assert_perm (cs_amd (4, prob.A), prob.A.n) ;
+	}
+
+	public void test_invalid()
+	{
+		InputStream in = get_stream (T1) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assertNull (cs_amd (5, prob.A)) ;
+		assertNull (cs_amd (4, null)) ;
+	}
+
+}
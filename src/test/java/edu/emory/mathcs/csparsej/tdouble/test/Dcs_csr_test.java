@@ -0,0 +1,177 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_csr.cs_csr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_csr.cs_csr_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_csr.cs_csr_rows ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_csr.cs_csr_values ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsr ;
+
+/**
+ * Compressed-row form.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_csr_test extends Dcs_test {
+
+	/**
+	 * R has the rows of A in the order of A', and its map gives the entry of
+	 * A each entry of R came from.
+	 */
+	protected static void assert_csr(Dcs A, Dcsr R)
+	{
+		Dcs AT = cs_transpose (A, true) ;
+		int i, k, p, q, nz = A.p [A.n] ;
+		assertEquals (A.m, R.m) ;
+		assertEquals (A.n, R.n) ;
+		for (k = 0 ; k <= A.m ; k++) assertEquals (AT.p [k], R.p [k]) ;
+		for (k = 0 ; k < nz ; k++)
+		{
+			assertEquals (AT.i [k], R.j [k]) ;
+			assertEquals (AT.x [k], R.x [k]) ;
+		}
+		for (i = 0 ; i < A.m ; i++)
+		{
+			for (q = R.p [i] ; q < R.p [i+1] ; q++)
+			{
+				p = R.map [q] ;
+				assertEquals (i, A.i [p]) ;
+				assertEquals (A.x [p], R.x [q]) ;
+				assertTrue (p >= A.p [R.j [q]] && p < A.p [R.j [q] + 1]) ;
+			}
+		}
+	}
+
+	protected static void test_csr(Dcs A)
+	{
+		int i, m = A.m, n = A.n ;
+		Dcsr R = cs_csr (A) ;
+		assert_csr (A, R) ;
+
+		/* row-oriented product */
+		double[] x = new double [n], y = new double [m], z = new double [m] ;
+		for (i = 0 ; i < n ; i++) x [i] = 1 + (i % 7) ;
+		for (i = 0 ; i < m ; i++) y [i] = z [i] = i ;
+		assertTrue (cs_gaxpy (A, x, y)) ;
+		assertTrue (cs_csr_gaxpy (R, x, z)) ;
+		for (i = 0 ; i < m ; i++) assertEquals (y [i], z [i], 1e-12 * Math.abs (y [i])) ;
+
+		/* new values with the same pattern */
+		int[] j = R.j ;
+		double[] Rx = R.x ;
+		for (int p = 0 ; p < A.p [n] ; p++) A.x [p] = 2 * A.x [p] - p ;
+		assertTrue (cs_csr_values (A, R)) ;
+		assertSame (j, R.j) ;
+		assertSame (Rx, R.x) ;
+		assert_csr (A, R) ;
+
+		/* converting again reuses the arrays */
+		assertTrue (cs_csr (A, R)) ;
+		assertSame (j, R.j) ;
+		assertSame (Rx, R.x) ;
+		assert_csr (A, R) ;
+
+		/* row slices */
+		int lo = m / 3, hi = 2 * m / 3 ;
+		Dcsr C = cs_csr_rows (R, lo, hi) ;
+		assertEquals (hi - lo, C.m) ;
+		for (i = lo ; i < hi ; i++)
+		{
+			assertEquals (R.p [i+1] - R.p [i], C.p [i-lo+1] - C.p [i-lo]) ;
+			for (int p = R.p [i] ; p < R.p [i+1] ; p++)
+			{
+				assertEquals (R.j [p], C.j [p - R.p [lo]]) ;
+				assertEquals (R.x [p], C.x [p - R.p [lo]]) ;
+			}
+		}
+		assertEquals (0, cs_csr_rows (R, lo, lo).p [0]) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_csr (prob.A) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_csr (prob.A) ;
+		test_csr (cs_transpose (prob.A, true)) ;
+	}
+
+	public void test_reuse()
+	{
+		Dcs A = get_problem (get_stream (BCSSTK16), 0).C ;
+		Dcs B = get_problem (get_stream (WEST0067), 0).A ;
+
+		/* a smaller matrix fits in the arrays of a larger one */
+		Dcsr R = cs_csr (A) ;
+		int[] p = R.p, j = R.j ;
+		assertTrue (cs_csr (B, R)) ;
+		assertSame (p, R.p) ;
+		assertSame (j, R.j) ;
+		assert_csr (B, R) ;
+		assertTrue (cs_csr (A, R)) ;
+		assert_csr (A, R) ;
+
+		assertFalse (cs_csr_values (B, R)) ;	/* different pattern */
+		assertNull (cs_csr ((Dcs) null)) ;
+		assertNull (cs_csr_rows (R, 1, 0)) ;
+		assertFalse (cs_csr_gaxpy (R, null, new double [A.m])) ;
+	}
+
+	public void test_sliced()
+	{
+		Dcs A = get_problem (get_stream (WEST0067), 0).A ;
+
+		/* a slice has no map, converting into it builds one */
+		Dcsr R = cs_csr_rows (cs_csr (A), 0, A.m) ;
+		assertNull (R.map) ;
+		assertTrue (cs_csr (A, R)) ;
+		assert_csr (A, R) ;
+
+		/* a pattern-only matrix leaves no earlier values behind */
+		Dcs P = cs_transpose (cs_transpose (A, false), false) ;
+		assertTrue (cs_csr (P, R)) ;
+		assertNull (R.x) ;
+		assertFalse (cs_csr_gaxpy (R, new double [A.n], new double [A.m])) ;
+		assertTrue (cs_csr (A, R)) ;
+		assert_csr (A, R) ;
+	}
+
+}
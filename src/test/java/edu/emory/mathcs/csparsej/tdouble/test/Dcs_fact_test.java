@@ -0,0 +1,289 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholfact.cs_cholfact_analyze ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholfact.cs_cholfact_factor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholfact.cs_cholfact_refactor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholfact.cs_cholfact_solve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholsol.cs_cholsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lufact.cs_lufact_analyze ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lufact.cs_lufact_factor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lufact.cs_lufact_refactor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lufact.cs_lufact_solve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_norm.cs_norm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrfact.cs_qrfact_analyze ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrfact.cs_qrfact_factor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrfact.cs_qrfact_refactor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrfact.cs_qrfact_solve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrsol.cs_qrsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsfact ;
+
+/**
+ * Factorization objects with separate analysis, factorization and solve.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_fact_test extends Dcs_test {
+
+	protected static Dcsfact analyze(int kind, int order, Dcs A)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholfact_analyze (order, A)) ;
+			case 1: return (cs_lufact_analyze (order, A)) ;
+			default: return (cs_qrfact_analyze (order, A)) ;
+		}
+	}
+
+	protected static boolean factor(int kind, Dcsfact F, Dcs A)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholfact_factor (F, A)) ;
+			case 1: return (cs_lufact_factor (F, A, 1)) ;
+			default: return (cs_qrfact_factor (F, A)) ;
+		}
+	}
+
+	protected static boolean refactor(int kind, Dcsfact F, Dcs A)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholfact_refactor (F, A)) ;
+			case 1: return (cs_lufact_refactor (F, A)) ;
+			default: return (cs_qrfact_refactor (F, A)) ;
+		}
+	}
+
+	protected static boolean solve(int kind, Dcsfact F, double[] b)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholfact_solve (F, b)) ;
+			case 1: return (cs_lufact_solve (F, b)) ;
+			default: return (cs_qrfact_solve (F, b)) ;
+		}
+	}
+
+	protected static boolean solve(int kind, Dcsfact F, double[][] B)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholfact_solve (F, B)) ;
+			case 1: return (cs_lufact_solve (F, B)) ;
+			default: return (cs_qrfact_solve (F, B)) ;
+		}
+	}
+
+	protected static boolean sol(int kind, int order, Dcs A, double[] b)
+	{
+		switch (kind)
+		{
+			case 0: return (cs_cholsol (order, A, b)) ;
+			case 1: return (cs_lusol (order, A, b, 1)) ;
+			default: return (cs_qrsol (order, A, b)) ;
+		}
+	}
+
+	protected static double norm_inf(double[] x, int n)
+	{
+		double t = 0 ;
+		for (int i = 0 ; i < n ; i++) t = Math.max (t, Math.abs (x [i])) ;
+		return (t) ;
+	}
+
+	protected static void assert_vec(double[] x, double[] y, int n, double tol)
+	{
+		for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i], tol) ;
+	}
+
+	/**
+	 * Repeated solves against one factorization match the *sol drivers, and
+	 * refactorizations match a fresh solve of the new values.
+	 */
+	protected static void test_fact(int kind, int order, Dcs A)
+	{
+		int r, k = 3 ;
+		double[] b, x ;
+		double[][] B ;
+		Dcsfact F = analyze (kind, order, A) ;
+		assertNotNull (F) ;
+		assertFalse (solve (kind, F, rhs_vec (A, 0))) ;	/* not yet factorized */
+		assertTrue (factor (kind, F, A)) ;
+		for (r = 0 ; r < k ; r++)
+		{
+			b = rhs_vec (A, r) ;
+			x = rhs_vec (A, r) ;
+			assertTrue (solve (kind, F, b)) ;
+			assertTrue (sol (kind, order, A, x)) ;
+			assert_vec (x, b, A.n, 0) ;
+		}
+		B = new double [k][] ;
+		for (r = 0 ; r < k ; r++) B [r] = rhs_vec (A, r) ;
+		assertTrue (solve (kind, F, B)) ;
+		for (r = 0 ; r < k ; r++)
+		{
+			x = rhs_vec (A, r) ;
+			assertTrue (sol (kind, order, A, x)) ;
+			assert_vec (x, B [r], A.n, 0) ;
+		}
+		for (r = 1 ; r <= 2 ; r++)
+		{
+			if (A.m == A.n) shift (A, r * cs_norm (A) * 1e-2) ;
+			else A.x [0] *= 2 ;
+			assertTrue (refactor (kind, F, A)) ;
+			b = rhs_vec (A, r) ;
+			x = rhs_vec (A, r) ;
+			assertTrue (solve (kind, F, b)) ;
+			assertTrue (sol (kind, order, A, x)) ;
+			assert_vec (x, b, A.n, 1e-9 * norm_inf (x, A.n)) ;
+		}
+	}
+
+	/**
+	 * Many threads solve with one shared factorization, each with its own
+	 * right hand sides, and get the same results as a single thread.
+	 */
+	protected static void test_concurrent(final int kind, int order, final Dcs A) throws Exception
+	{
+		int t, ntasks = 64 ;
+		final Dcsfact F = analyze (kind, order, A) ;
+		assertTrue (factor (kind, F, A)) ;
+		ExecutorService exec = Executors.newFixedThreadPool (8) ;
+		List<Future<double[][]>> results = new ArrayList<Future<double[][]>>() ;
+		try
+		{
+			for (t = 0 ; t < ntasks ; t++)
+			{
+				final int seed = t ;
+				results.add (exec.submit (new Callable<double[][]>()
+				{
+					public double[][] call()
+					{
+						double[][] X = new double [3][] ;
+						for (int r = 0 ; r < 3 ; r++) X [r] = rhs_vec (A, seed + r) ;
+						if (seed % 2 == 0)
+						{
+							for (int r = 0 ; r < 3 ; r++)
+								if (!solve (kind, F, X [r])) return (null) ;
+						}
+						else if (!solve (kind, F, X))
+						{
+							return (null) ;
+						}
+						return (X) ;
+					}
+				})) ;
+			}
+			for (t = 0 ; t < ntasks ; t++)
+			{
+				double[][] X = results.get (t).get () ;
+				assertNotNull (X) ;
+				for (int r = 0 ; r < 3 ; r++)
+				{
+					double[] x = rhs_vec (A, t + r) ;
+					assertTrue (solve (kind, F, x)) ;
+					assert_vec (x, X [r], A.n, 0) ;
+				}
+			}
+		}
+		finally
+		{
+			exec.shutdown () ;
+		}
+	}
+
+	public void test_concurrent() throws Exception
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_concurrent (0, 1, prob.C) ;
+		test_concurrent (1, 1, prob.C) ;
+
+		in = get_stream (ASH219) ;
+		prob = get_problem (in, 0) ;
+
+		test_concurrent (2, 3, prob.A) ;
+		test_concurrent (2, 3, cs_transpose (prob.A, true)) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_fact (0, 1, prob.C) ;
+		test_fact (1, 1, prob.C) ;
+		test_fact (2, 3, prob.C) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_fact (1, 2, prob.A) ;
+		test_fact (2, 3, prob.A) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_fact (2, 3, prob.A) ;
+		test_fact (2, 3, cs_transpose (prob.A, true)) ;
+	}
+
+	public void test_not_pos_def()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+
+		Dcsfact F = cs_cholfact_analyze (1, C) ;
+		assertTrue (cs_cholfact_factor (F, C)) ;
+		shift (C, -2 * cs_norm (C)) ;
+		assertFalse (cs_cholfact_refactor (F, C)) ;
+		assertFalse (cs_cholfact_solve (F, rhs_vec (C, 0))) ;
+		assertNull (cs_lufact_analyze (1, null)) ;
+	}
+
+}
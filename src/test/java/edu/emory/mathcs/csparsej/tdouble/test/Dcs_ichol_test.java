@@ -0,0 +1,201 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_entry.cs_entry ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ichol.cs_ichol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ichol.cs_ichol0 ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ipvec.cs_ipvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve.cs_lsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ltsolve.cs_ltsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_norm.cs_norm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pvec.cs_pvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_symperm.cs_symperm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Incomplete Cholesky factorization.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_ichol_test extends Dcs_test {
+
+	/**
+	 * Relative residual of x = P'(LL')\(P b), with b = 1 + (i mod 7).
+	 */
+	protected static double precond_resid(Dcs C, Dcss S, Dcs L)
+	{
+		int i, n = C.n ;
+		double rn = 0, bn = 0 ;
+		double[] b = new double [n], x = new double [n], y = new double [n], r = new double [n] ;
+		for (i = 0 ; i < n ; i++)
+		{
+			b [i] = 1 + (i % 7) ;
+			r [i] = -b [i] ;
+		}
+		cs_ipvec (S.pinv, b, x, n) ;
+		assertTrue (cs_lsolve (L, x)) ;
+		assertTrue (cs_ltsolve (L, x)) ;
+		cs_pvec (S.pinv, x, y, n) ;
+		cs_gaxpy (C, y, r) ;
+		for (i = 0 ; i < n ; i++)
+		{
+			rn += r [i] * r [i] ;
+			bn += b [i] * b [i] ;
+		}
+		return (Math.sqrt (rn / bn)) ;
+	}
+
+	/**
+	 * L has sorted columns, a positive diagonal first, and no entries above
+	 * the diagonal.
+	 */
+	protected static void assert_lower(Dcs L)
+	{
+		for (int j = 0 ; j < L.n ; j++)
+		{
+			assertEquals (j, L.i [L.p [j]]) ;
+			assertTrue (L.x [L.p [j]] > 0) ;
+			for (int p = L.p [j] + 1 ; p < L.p [j+1] ; p++)
+				assertTrue (L.i [p] > L.i [p-1]) ;
+		}
+	}
+
+	/**
+	 * IC(0) has the pattern of tril(PAP') and LL' matches PAP' on it.
+	 */
+	protected static void test_ichol0(Dcs C, int order)
+	{
+		Dcss S = cs_schol (order, C) ;
+		Dcsn N = cs_ichol0 (C, S) ;
+		assertNotNull (N) ;
+		Dcs L = N.L ;
+		assert_lower (L) ;
+		Dcs P = cs_transpose (cs_symperm (C, S.pinv, true), true) ;	/* tril(PAP') */
+		Dcs LLt = cs_multiply (L, cs_transpose (L, true)) ;
+		assertEquals (P.p [P.n], L.p [L.n]) ;
+		double[] x = new double [C.n] ;
+		for (int j = 0 ; j < P.n ; j++)
+		{
+			assertEquals (P.p [j+1] - P.p [j], L.p [j+1] - L.p [j]) ;
+			for (int p = LLt.p [j] ; p < LLt.p [j+1] ; p++) x [LLt.i [p]] = LLt.x [p] ;
+			for (int p = P.p [j] ; p < P.p [j+1] ; p++)
+				assertEquals (P.x [p], x [P.i [p]], 1e-12 * Math.abs (P.x [P.p [j]])) ;
+			for (int p = LLt.p [j] ; p < LLt.p [j+1] ; p++) x [LLt.i [p]] = 0 ;
+		}
+	}
+
+	protected static void test_ichol(Dcs C, int order)
+	{
+		Dcss S = cs_schol (order, C) ;
+		Dcs L = cs_chol (C, S).L ;
+
+		/* no dropping is the complete factorization */
+		Dcsn N = cs_ichol (C, S, 0, -1) ;
+		assert_lower (N.L) ;
+		assertEquals (0, cs_norm (cs_add (L, N.L, 1, -1)), 1e-14 * cs_norm (L)) ;
+
+		/* more fill gives a better preconditioner */
+		Dcsn N1 = cs_ichol (C, S, 1e-2, -1) ;
+		Dcsn N2 = cs_ichol (C, S, 1e-4, -1) ;
+		assert_lower (N1.L) ;
+		assert_lower (N2.L) ;
+		assertTrue (N1.L.p [C.n] < N2.L.p [C.n]) ;
+		assertTrue (N2.L.p [C.n] < L.p [C.n]) ;
+		assertTrue (precond_resid (C, S, N2.L) < precond_resid (C, S, N1.L)) ;
+
+		/* fill limit */
+		Dcsn N3 = cs_ichol (C, S, 1e-4, 10) ;
+		for (int j = 0 ; j < C.n ; j++)
+			assertTrue (N3.L.p [j+1] - N3.L.p [j] <= 11) ;
+		assertTrue (N3.L.p [C.n] <= N2.L.p [C.n]) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_ichol (prob.C, 1) ;
+	}
+
+	public void test_laplacian()
+	{
+		int i, j, k = 30, n = k * k ;
+		Dcs T = cs_spalloc (n, n, 3 * n, true, true) ;
+		for (i = 0 ; i < k ; i++)
+		{
+			for (j = 0 ; j < k ; j++)
+			{
+				cs_entry (T, i*k + j, i*k + j, 4) ;
+				if (i > 0) cs_entry (T, (i-1)*k + j, i*k + j, -1) ;
+				if (j > 0) cs_entry (T, i*k + j - 1, i*k + j, -1) ;
+			}
+		}
+		Dcs C = cs_compress (T) ;	/* upper part of the 2D Laplacian */
+
+		test_ichol0 (C, 0) ;
+		test_ichol0 (C, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_ichol0 (prob.C, 1) ;
+		test_ichol (prob.C, 1) ;
+	}
+
+	public void test_not_pos_def()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+
+		Dcs D = cs_add (C, C, 1, 0) ;
+		for (int p = D.p [0] ; p < D.p [1] ; p++)
+			if (D.i [p] == 0) D.x [p] = -1 ;	/* C(0,0) < 0 */
+		assertNull (cs_ichol0 (D, null)) ;
+		assertNull (cs_ichol (D, null, 1e-3, -1)) ;
+		assertNull (cs_ichol (C, null, -1, -1)) ;
+		assertNull (cs_ichol0 (null, null)) ;
+	}
+
+}
@@ -0,0 +1,212 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_entry.cs_entry ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ilu.cs_ilu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ilu.cs_ilu0 ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ipvec.cs_ipvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve.cs_lsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_norm.cs_norm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_permute.cs_permute ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_usolve.cs_usolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Incomplete LU factorization.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_ilu_test extends Dcs_test {
+
+	/**
+	 * Relative residual of x = Q(LU)\(P b), with b = 1 + (i mod 7).
+	 */
+	protected static double precond_resid(Dcs A, Dcss S, Dcsn N)
+	{
+		int i, n = A.n ;
+		double rn = 0, bn = 0 ;
+		double[] b = new double [n], x = new double [n], y = new double [n], r = new double [n] ;
+		for (i = 0 ; i < n ; i++)
+		{
+			b [i] = 1 + (i % 7) ;
+			r [i] = -b [i] ;
+		}
+		cs_ipvec (N.pinv, b, x, n) ;
+		assertTrue (cs_lsolve (N.L, x)) ;
+		assertTrue (cs_usolve (N.U, x)) ;
+		cs_ipvec (S.q, x, y, n) ;
+		cs_gaxpy (A, y, r) ;
+		for (i = 0 ; i < n ; i++)
+		{
+			rn += r [i] * r [i] ;
+			bn += b [i] * b [i] ;
+		}
+		return (Math.sqrt (rn / bn)) ;
+	}
+
+	/**
+	 * L has a unit diagonal first and U has its diagonal last.
+	 */
+	protected static void assert_triangular(Dcsn N)
+	{
+		Dcs L = N.L, U = N.U ;
+		for (int j = 0 ; j < L.n ; j++)
+		{
+			assertEquals (j, L.i [L.p [j]]) ;
+			assertEquals (1.0, L.x [L.p [j]]) ;
+			for (int p = L.p [j] + 1 ; p < L.p [j+1] ; p++)
+				assertTrue (L.i [p] > j) ;
+			assertEquals (j, U.i [U.p [j+1] - 1]) ;
+			for (int p = U.p [j] ; p < U.p [j+1] - 1 ; p++)
+				assertTrue (U.i [p] < j) ;
+		}
+	}
+
+	/**
+	 * ILU(0) has the pattern of PAQ and LU matches PAQ on it.
+	 */
+	protected static void test_ilu0(Dcs A, int order)
+	{
+		Dcss S = cs_sqr (order, A, false) ;
+		Dcsn N = cs_ilu0 (A, S) ;
+		assertNotNull (N) ;
+		assert_triangular (N) ;
+		Dcs P = cs_permute (A, N.pinv, S.q, true) ;
+		Dcs LU = cs_multiply (N.L, N.U) ;
+		assertEquals (P.p [P.n] + P.n, N.L.p [P.n] + N.U.p [P.n]) ;
+		double[] x = new double [A.n] ;
+		double tol = 1e-12 * cs_norm (A) ;
+		for (int j = 0 ; j < P.n ; j++)
+		{
+			if (S.q != null) assertEquals (j, N.pinv [S.q [j]]) ;
+			for (int p = LU.p [j] ; p < LU.p [j+1] ; p++) x [LU.i [p]] = LU.x [p] ;
+			for (int p = P.p [j] ; p < P.p [j+1] ; p++)
+				assertEquals (P.x [p], x [P.i [p]], tol) ;
+			for (int p = LU.p [j] ; p < LU.p [j+1] ; p++) x [LU.i [p]] = 0 ;
+		}
+	}
+
+	protected static void test_ilu(Dcs A, int order, double tol)
+	{
+		int j, n = A.n ;
+		Dcss S = cs_sqr (order, A, false) ;
+		Dcsn F = cs_lu (A, S, tol) ;
+
+		/* no dropping is the complete factorization */
+		Dcsn N = cs_ilu (A, S, 0, -1, tol) ;
+		assert_triangular (N) ;
+		for (j = 0 ; j < n ; j++) assertEquals (F.pinv [j], N.pinv [j]) ;
+		assertEquals (0, cs_norm (cs_add (F.L, N.L, 1, -1)), 1e-14 * cs_norm (F.L)) ;
+		assertEquals (0, cs_norm (cs_add (F.U, N.U, 1, -1)), 1e-14 * cs_norm (F.U)) ;
+
+		/* more fill gives a better preconditioner */
+		Dcsn N1 = cs_ilu (A, S, 1e-2, -1, tol) ;
+		Dcsn N2 = cs_ilu (A, S, 1e-4, -1, tol) ;
+		assert_triangular (N1) ;
+		assert_triangular (N2) ;
+		assertTrue (N1.L.p [n] + N1.U.p [n] < N2.L.p [n] + N2.U.p [n]) ;
+		assertTrue (N2.L.p [n] + N2.U.p [n] <= F.L.p [n] + F.U.p [n]) ;
+		assertTrue (precond_resid (A, S, N2) < precond_resid (A, S, N1)) ;
+
+		/* fill limit */
+		Dcsn N3 = cs_ilu (A, S, 1e-4, 2, tol) ;
+		assert_triangular (N3) ;
+		for (j = 0 ; j < n ; j++)
+		{
+			assertTrue (N3.L.p [j+1] - N3.L.p [j] <= 3) ;
+			assertTrue (N3.U.p [j+1] - N3.U.p [j] <= 3) ;
+		}
+		assertTrue (N3.L.p [n] + N3.U.p [n] <= N2.L.p [n] + N2.U.p [n]) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_ilu (prob.A, 2, 1) ;
+		test_ilu (prob.A, 2, 0.001) ;
+	}
+
+	public void test_convection()
+	{
+		int i, j, k = 30, n = k * k ;
+		Dcs T = cs_spalloc (n, n, 5 * n, true, true) ;
+		for (i = 0 ; i < k ; i++)
+		{
+			for (j = 0 ; j < k ; j++)
+			{
+				cs_entry (T, i*k + j, i*k + j, 4) ;
+				if (i > 0) cs_entry (T, i*k + j, (i-1)*k + j, -1.5) ;
+				if (i < k-1) cs_entry (T, i*k + j, (i+1)*k + j, -0.5) ;
+				if (j > 0) cs_entry (T, i*k + j, i*k + j - 1, -1.5) ;
+				if (j < k-1) cs_entry (T, i*k + j, i*k + j + 1, -0.5) ;
+			}
+		}
+		Dcs A = cs_compress (T) ;	/* 2D convection-diffusion */
+
+		test_ilu0 (A, 0) ;
+		test_ilu0 (A, 1) ;
+		assertTrue (precond_resid (A, cs_sqr (0, A, false), cs_ilu0 (A, null)) < 1) ;
+		test_ilu (A, 1, 0.001) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_ilu0 (prob.C, 1) ;
+		test_ilu (prob.C, 1, 0.001) ;
+	}
+
+	public void test_zero_pivot()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A ;
+
+		assertNull (cs_ilu0 (A, null)) ;	/* zero diagonal */
+		assertNull (cs_ilu (A, null, -1, -1, 1)) ;
+		assertNull (cs_ilu (A, null, 0, -2, 1)) ;
+		assertNull (cs_ilu0 (null, null)) ;
+		assertNull (cs_ilu (cs_spalloc (3, 3, 0, true, false), null, 0, -1, 1)) ;
+	}
+
+}
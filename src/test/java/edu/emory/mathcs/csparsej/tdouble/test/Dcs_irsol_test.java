@@ -0,0 +1,153 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_entry.cs_entry ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_irsol.cs_irsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_norm.cs_norm ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_scache.cs_scache ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache ;
+
+/**
+ * Mixed precision LU solve with iterative refinement.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_irsol_test extends Dcs_test {
+
+	/**
+	 * Backward error norm(b-A*x,inf)/(norm(A,1)*norm(x,inf)).
+	 */
+	protected static double berr(Dcs A, double[] x, double[] b)
+	{
+		int i, n = A.n ;
+		double rn = 0, xn = 0 ;
+		double[] r = new double [n] ;
+		for (i = 0 ; i < n ; i++) r [i] = -b [i] ;
+		cs_gaxpy (A, x, r) ;
+		for (i = 0 ; i < n ; i++)
+		{
+			rn = Math.max (rn, Math.abs (r [i])) ;
+			xn = Math.max (xn, Math.abs (x [i])) ;
+		}
+		return (rn / (cs_norm (A) * xn)) ;
+	}
+
+	/**
+	 * cs_irsol reaches the backward error of cs_lusol.
+	 */
+	protected static void test_irsol(Dcs A, int order, double tol)
+	{
+		int n = A.n ;
+		double[] b = rhs (n), x = rhs (n), y = rhs (n) ;
+		assertTrue (cs_lusol (order, A, x, tol)) ;
+		assertTrue (cs_irsol (order, A, y, tol)) ;
+		double eps = Math.ulp (1.0) * Math.sqrt (n) ;
+		assertTrue (berr (A, y, b) <= eps) ;
+		assertTrue (berr (A, y, b) <= Math.max (eps, 4 * berr (A, x, b))) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_irsol (prob.A, 2, 1) ;
+		test_irsol (prob.A, 0, 1) ;
+	}
+
+	public void test_fs_183_1()
+	{
+		InputStream in = get_stream (FS_183_1) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_irsol (prob.A, 2, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_irsol (prob.C, 1, 0.001) ;
+	}
+
+	public void test_convection()
+	{
+		int i, j, k = 30, n = k * k ;
+		Dcs T = cs_spalloc (n, n, 5 * n, true, true) ;
+		for (i = 0 ; i < k ; i++)
+		{
+			for (j = 0 ; j < k ; j++)
+			{
+				cs_entry (T, i*k + j, i*k + j, 4) ;
+				if (i > 0) cs_entry (T, i*k + j, (i-1)*k + j, -1.5) ;
+				if (i < k-1) cs_entry (T, i*k + j, (i+1)*k + j, -0.5) ;
+				if (j > 0) cs_entry (T, i*k + j, i*k + j - 1, -1.5) ;
+				if (j < k-1) cs_entry (T, i*k + j, i*k + j + 1, -0.5) ;
+			}
+		}
+		Dcs A = cs_compress (T) ;
+		test_irsol (A, 1, 1) ;
+
+		/* same solution with a cache of analyses */
+		Dcscache cache = cs_scache (4) ;
+		double[] x = rhs (n), y = rhs (n) ;
+		assertTrue (cs_irsol (1, A, x, 1)) ;
+		assertTrue (cs_irsol (1, A, y, 1, cache)) ;
+		assertTrue (cs_irsol (1, A, rhs (n), 1, cache)) ;
+		assertEquals (1, cache.hits) ;
+		for (i = 0 ; i < n ; i++) assertEquals (x [i], y [i]) ;
+
+		/* b = 0 */
+		x = new double [n] ;
+		assertTrue (cs_irsol (1, A, x, 1)) ;
+		for (i = 0 ; i < n ; i++) assertEquals (0.0, x [i]) ;
+
+		/* values beyond single precision range fall back to double */
+		for (int p = 0 ; p < A.p [n] ; p++) A.x [p] *= 1e300 ;
+		test_irsol (A, 1, 1) ;
+	}
+
+	public void test_errors()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assertFalse (cs_irsol (0, prob.A, rhs (prob.A.m), 1)) ;	/* not square */
+		assertFalse (cs_irsol (0, null, rhs (4), 1)) ;
+		assertFalse (cs_irsol (0, cs_spalloc (3, 3, 0, true, false), rhs (3), 1)) ;	/* singular */
+	}
+
+}
@@ -0,0 +1,291 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_entry.cs_entry ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ichol.cs_ichol0 ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ilu.cs_ilu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ilu.cs_ilu0 ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_krylov.cs_bicgstab ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_krylov.cs_gmres ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_krylov.cs_pcg ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pgaxpy.cs_pmv ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_precond.cs_precond_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_precond.cs_precond_diag ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_precond.cs_precond_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_iprecond ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcspmv ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Krylov subspace solvers.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_krylov_test extends Dcs_test {
+
+	private static final double TOL = 1e-10 ;
+
+	/**
+	 * 2D grid operator with diagonal 4 and off-diagonals -1-c (west, south)
+	 * and -1+c (east, north); symmetric if c is zero.
+	 */
+	protected static Dcs grid(int k, double c)
+	{
+		int i, j, n = k * k ;
+		Dcs T = cs_spalloc (n, n, 5 * n, true, true) ;
+		for (i = 0 ; i < k ; i++)
+		{
+			for (j = 0 ; j < k ; j++)
+			{
+				cs_entry (T, i*k + j, i*k + j, 4) ;
+				if (i > 0) cs_entry (T, i*k + j, (i-1)*k + j, -1 - c) ;
+				if (i < k-1) cs_entry (T, i*k + j, (i+1)*k + j, -1 + c) ;
+				if (j > 0) cs_entry (T, i*k + j, i*k + j - 1, -1 - c) ;
+				if (j < k-1) cs_entry (T, i*k + j, i*k + j + 1, -1 + c) ;
+			}
+		}
+		return (cs_compress (T)) ;
+	}
+
+	/**
+	 * Relative residual norm(b-A*x)/norm(b).
+	 */
+	protected static double resid(Dcs A, double[] x, double[] b)
+	{
+		int i, n = A.n ;
+		double rn = 0, bn = 0 ;
+		double[] r = new double [n] ;
+		for (i = 0 ; i < n ; i++) r [i] = -b [i] ;
+		cs_gaxpy (A, x, r) ;
+		for (i = 0 ; i < n ; i++)
+		{
+			rn += r [i] * r [i] ;
+			bn += b [i] * b [i] ;
+		}
+		return (Math.sqrt (rn / bn)) ;
+	}
+
+	public void test_pcg()
+	{
+		Dcs A = grid (30, 0) ;
+		int n = A.n ;
+		double[] b = rhs (n) ;
+		Dcss S = cs_schol (1, A) ;
+
+		double[] x = new double [n] ;
+		int k0 = cs_pcg (A, b, x, null, TOL, 1000) ;
+		assertTrue (k0 > 0) ;
+		assertTrue (resid (A, x, b) < 2 * TOL) ;
+
+		x = new double [n] ;
+		int k1 = cs_pcg (A, b, x, cs_precond_diag (A), TOL, 1000) ;
+		assertTrue (k1 > 0) ;
+		assertTrue (resid (A, x, b) < 2 * TOL) ;
+
+		x = new double [n] ;
+		int k2 = cs_pcg (A, b, x, cs_precond_chol (cs_ichol0 (A, S), S), TOL, 1000) ;
+		assertTrue (k2 > 0 && k2 < k0) ;
+		assertTrue (resid (A, x, b) < 2 * TOL) ;
+
+		/* an exact preconditioner converges in one step */
+		x = new double [n] ;
+		assertEquals (1, cs_pcg (A, b, x, cs_precond_chol (cs_chol (A, S), S), TOL, 1000)) ;
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		/* the solution is a fixed point */
+		assertEquals (0, cs_pcg (A, b, x, null, TOL, 1000)) ;
+
+		/* same iterates with parallel products */
+		Dcspmv P = cs_pmv (A, 0) ;
+		double[] y = new double [n] ;
+		x = new double [n] ;
+		assertEquals (k0, cs_pcg (A, b, x, null, TOL, 1000)) ;
+		assertEquals (k0, cs_pcg (P, b, y, null, TOL, 1000)) ;
+		for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i]) ;
+
+		/* not enough iterations */
+		x = new double [n] ;
+		assertEquals (-1, cs_pcg (A, b, x, null, TOL, k0 - 1)) ;
+	}
+
+	public void test_bicgstab()
+	{
+		Dcs A = grid (30, 0.5) ;
+		int n = A.n ;
+		double[] b = rhs (n) ;
+		Dcss S = cs_sqr (1, A, false) ;
+
+		double[] x = new double [n] ;
+		int k0 = cs_bicgstab (A, b, x, null, TOL, 1000) ;
+		assertTrue (k0 > 0) ;
+		assertTrue (resid (A, x, b) < 10 * TOL) ;
+
+		x = new double [n] ;
+		int k1 = cs_bicgstab (A, b, x, cs_precond_lu (cs_ilu0 (A, S), S), TOL, 1000) ;
+		assertTrue (k1 > 0 && k1 < k0) ;
+		assertTrue (resid (A, x, b) < 10 * TOL) ;
+
+		x = new double [n] ;
+		assertEquals (1, cs_bicgstab (A, b, x, cs_precond_lu (cs_lu (A, S, 1), S), TOL, 1000)) ;
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		Dcspmv P = cs_pmv (A, 0) ;
+		double[] y = new double [n] ;
+		x = new double [n] ;
+		assertEquals (k0, cs_bicgstab (A, b, x, null, TOL, 1000)) ;
+		assertEquals (k0, cs_bicgstab (P, b, y, null, TOL, 1000)) ;
+		for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i]) ;
+	}
+
+	public void test_shared() throws Exception
+	{
+		final Dcs A = grid (30, 0.5) ;
+		final int n = A.n ;
+		final double[] b = rhs (n) ;
+		Dcss S = cs_sqr (1, A, false) ;
+		final Dcs_iprecond M = cs_precond_lu (cs_ilu0 (A, S), S) ;
+
+		double[] x = new double [n] ;
+		int k = cs_bicgstab (A, b, x, M, TOL, 1000) ;
+		assertTrue (k > 0) ;
+
+		/* one preconditioner, applied by concurrent solves */
+		ExecutorService exec = Executors.newFixedThreadPool (4) ;
+		List<Future<double[]>> results = new ArrayList<Future<double[]>>() ;
+		try
+		{
+			for (int t = 0 ; t < 8 ; t++)
+			{
+				results.add (exec.submit (new Callable<double[]>()
+				{
+					public double[] call()
+					{
+						double[] y = new double [n] ;
+						cs_bicgstab (A, b, y, M, TOL, 1000) ;
+						return (y) ;
+					}
+				})) ;
+			}
+			for (Future<double[]> f : results)
+			{
+				double[] y = f.get () ;
+				for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i], 0) ;
+			}
+		}
+		finally
+		{
+			exec.shutdown () ;
+		}
+	}
+
+	public void test_gmres()
+	{
+		Dcs A = grid (30, 0.5) ;
+		int n = A.n ;
+		double[] b = rhs (n) ;
+		Dcss S = cs_sqr (1, A, false) ;
+
+		double[] x = new double [n] ;
+		int k0 = cs_gmres (A, b, x, null, 20, TOL, 2000) ;
+		assertTrue (k0 > 20) ;	/* needs restarts */
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		x = new double [n] ;
+		int k1 = cs_gmres (A, b, x, cs_precond_lu (cs_ilu0 (A, S), S), 20, TOL, 2000) ;
+		assertTrue (k1 > 0 && k1 < k0) ;
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		/* restarting never increases the residual, m = 1 is still a solver */
+		x = new double [n] ;
+		assertTrue (cs_gmres (A, b, x, null, 1, TOL, 5000) > 0) ;
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		Dcspmv P = cs_pmv (A, 0) ;
+		double[] y = new double [n] ;
+		x = new double [n] ;
+		assertEquals (k0, cs_gmres (A, b, x, null, 20, TOL, 2000)) ;
+		assertEquals (k0, cs_gmres (P, b, y, null, 20, TOL, 2000)) ;
+		for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i]) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A ;
+		int n = A.n ;
+		double[] b = rhs (n) ;
+		Dcss S = cs_sqr (2, A, false) ;
+
+		/* ILUT with pivoting on a matrix with zeros on the diagonal */
+		Dcs_iprecond M = cs_precond_lu (cs_ilu (A, S, 1e-2, -1, 1), S) ;
+		assertNotNull (M) ;
+		double[] x = new double [n] ;
+		assertTrue (cs_gmres (A, b, x, M, 30, TOL, 200) > 0) ;
+		assertTrue (resid (A, x, b) < TOL) ;
+
+		x = new double [n] ;
+		assertTrue (cs_bicgstab (A, b, x, M, TOL, 200) > 0) ;
+		assertTrue (resid (A, x, b) < 100 * TOL) ;
+	}
+
+	public void test_errors()
+	{
+		Dcs A = grid (4, 0) ;
+		double[] b = rhs (16), x = new double [16] ;
+		assertEquals (-1, cs_pcg ((Dcs) null, b, x, null, TOL, 10)) ;
+		assertEquals (-1, cs_pcg (A, null, x, null, TOL, 10)) ;
+		assertEquals (-1, cs_bicgstab (A, b, x, null, -1, 10)) ;
+		assertEquals (-1, cs_gmres (A, b, x, null, 0, TOL, 10)) ;
+		assertEquals (-1, cs_gmres ((Dcspmv) null, b, x, null, 5, TOL, 10)) ;
+		assertNull (cs_precond_diag (cs_spalloc (3, 3, 0, true, false))) ;
+		assertNull (cs_precond_lu (null, null)) ;
+
+		/* CG detects an indefinite matrix */
+		Dcs B = grid (4, 0) ;
+		for (int p = 0 ; p < B.p [B.n] ; p++) if (B.x [p] == 4) B.x [p] = -4 + (p % 3) * 4 ;
+		assertEquals (-1, cs_pcg (B, b, x, null, TOL, 100)) ;
+	}
+
+}
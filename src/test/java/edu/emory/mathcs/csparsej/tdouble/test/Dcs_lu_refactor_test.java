@@ -0,0 +1,131 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.Random;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ipvec.cs_ipvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve.cs_lsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu_refactor.cs_lu_refactor ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_usolve.cs_usolve ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * LU refactorization with a fixed pivot sequence.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_lu_refactor_test extends Dcs_test {
+
+	/**
+	 * Multiplies each entry of A by a random factor in [1-s, 1+s].
+	 */
+	protected static void perturb(Dcs A, double s, long seed)
+	{
+		Random r = new Random (seed) ;
+		for (int p = 0 ; p < A.p [A.n] ; p++)
+			A.x [p] *= 1 + s * (2 * r.nextDouble () - 1) ;
+	}
+
+	/**
+	 * Solves Ax=b using an existing LU factorization.
+	 */
+	protected static void lusol(Dcss S, Dcsn N, Dcs A, Dproblem prob)
+	{
+		int n = A.n ;
+		double[] y = new double [n] ;
+		rhs (prob.x, prob.b, n) ;
+		cs_ipvec (N.pinv, prob.b, y, n) ;	/* y = b(p) */
+		cs_lsolve (N.L, y) ;			/* y = L\y */
+		cs_usolve (N.U, y) ;			/* y = U\y */
+		cs_ipvec (S.q, y, prob.x, n) ;		/* x(q) = y */
+		print_resid (true, A, prob.x, prob.b, prob.resid, prob) ;
+	}
+
+	protected static void test_refactor(Dproblem prob, int order, double tol)
+	{
+		Dcs C = prob.C ;
+		Dcss S = cs_sqr (order, C, false) ;
+		Dcsn N = cs_lu (C, S, tol) ;
+		assertNotNull (N) ;
+		lusol (S, N, C, prob) ;
+		Dcsn N2 = cs_lu_refactor (C, S, N, tol) ;
+		assertSame (N, N2) ;			/* same values, same factors */
+		assert_factor (cs_lu (C, S, tol).U, N2.U, 1e-12) ;
+		perturb (C, 1e-3, 1) ;
+		N2 = cs_lu_refactor (C, S, N, 0.1 * tol) ;	/* allow some pivot growth */
+		assertSame (N, N2) ;			/* refactorized in place */
+		lusol (S, N2, C, prob) ;
+		assertTrue (norm (prob.resid, C.m) < 1e-10 * (norm (prob.b, C.m) + 1)) ;
+		assertEquals (prob.norms.get (0), prob.norms.get (1), 1e-2 * prob.norms.get (0)) ;
+	}
+
+	public void test_fs_183_1()
+	{
+		InputStream in = get_stream (FS_183_1) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_refactor (prob, 1, 1) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_refactor (prob, 2, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_refactor (prob, 1, 0.001) ;
+	}
+
+	public void test_unstable()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+		Dcs C = prob.C ;
+		Dcss S = cs_sqr (2, C, false) ;
+		Dcsn N = cs_lu (C, S, 1) ;
+		perturb (C, 1, 2) ;			/* pivot sequence no longer valid */
+		Dcsn N2 = cs_lu_refactor (C, S, N, 1) ;
+		assertNotNull (N2) ;
+		assertNotSame (N, N2) ;
+		lusol (S, N2, C, prob) ;
+		assertTrue (prob.norms.get (0) > 0) ;
+	}
+
+}
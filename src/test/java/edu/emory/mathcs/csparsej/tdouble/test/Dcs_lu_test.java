@@ -0,0 +1,115 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * LU factorization with symbolic bounds on nnz(L) and nnz(U).
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_lu_test extends Dcs_test {
+
+	protected static void assert_same(Dcs A, Dcs B)
+	{
+		int n = A.n ;
+		assertEquals (A.p [n], B.p [n]) ;
+		for (int k = 0 ; k <= n ; k++)
+			assertEquals (A.p [k], B.p [k]) ;
+		for (int p = 0 ; p < A.p [n] ; p++)
+		{
+			assertEquals (A.i [p], B.i [p]) ;
+			assertEquals (A.x [p], B.x [p], 0.0) ;
+		}
+	}
+
+	protected static void test_lu(Dproblem prob, int order, double tol)
+	{
+		Dcs C = prob.C ;
+		int n = C.n ;
+		Dcss S = cs_sqr (order, C, false) ;
+		Dcsn N = cs_lu (C, S, tol) ;
+		assertNotNull (N) ;
+		assertTrue (N.L.p [n] <= S.lnz) ;	/* bounds hold for any pivoting */
+		assertTrue (N.U.p [n] <= S.unz) ;
+		assertEquals (N.L.p [n], N.L.nzmax) ;	/* L and U have their exact size */
+		assertEquals (N.U.p [n], N.U.nzmax) ;
+		Dcs_lu_refactor_test.lusol (S, N, C, prob) ;
+		assertTrue (norm (prob.resid, n) < 1e-8 * (norm (prob.b, n) + 1)) ;
+
+		Dcss S2 = new Dcss () ;			/* same ordering, no estimates: */
+		S2.q = S.q ;				/* smallest chunks, many of them */
+		Dcsn N2 = cs_lu (C, S2, tol) ;
+		assertNotNull (N2) ;
+		assert_same (N.L, N2.L) ;
+		assert_same (N.U, N2.U) ;
+		for (int k = 0 ; k < n ; k++)
+			assertEquals (N.pinv [k], N2.pinv [k]) ;
+	}
+
+	public void test_fs_183_1()
+	{
+		InputStream in = get_stream (FS_183_1) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_lu (prob, 2, 1) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_lu (prob, 2, 1) ;
+		test_lu (prob, 0, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+
+		test_lu (prob, 2, 0.001) ;
+	}
+
+	public void test_rectangular()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, DROP_TOL) ;
+		Dcss S = cs_sqr (2, prob.C, false) ;
+
+		assertEquals (4 * prob.C.p [prob.C.n] + prob.C.n, S.lnz) ;	/* no bound, a guess */
+	}
+
+}
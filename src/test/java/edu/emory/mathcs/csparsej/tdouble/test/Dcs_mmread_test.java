@@ -0,0 +1,177 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_load.cs_load ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_mmread.cs_mmread ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Read a matrix in Matrix Market format.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_mmread_test extends Dcs_test {
+
+	/**
+	 * Writes s to a temporary .mtx file and returns its name.
+	 */
+	protected static String write(String s)
+	{
+		try
+		{
+			File f = File.createTempFile ("csparsej", ".mtx") ;
+			f.deleteOnExit () ;
+			FileOutputStream out = new FileOutputStream (f) ;
+			out.write (s.getBytes ("US-ASCII")) ;
+			out.close () ;
+			return (f.getPath ()) ;
+		}
+		catch (IOException e)
+		{
+			fail (e.getMessage ()) ;
+			return (null) ;
+		}
+	}
+
+	/**
+	 * Matrix Market text of a zero-based triplet matrix.
+	 */
+	protected static String to_mtx(Dcs T)
+	{
+		StringBuilder s = new StringBuilder () ;
+		s.append ("%%MatrixMarket matrix coordinate real general\n") ;
+		s.append ("% written by Dcs_mmread_test\n") ;
+		s.append (T.m + " " + T.n + " " + T.nz + "\n") ;
+		for (int k = 0 ; k < T.nz ; k++)
+			s.append ((T.i [k] + 1) + " " + (T.p [k] + 1) + " " + T.x [k] + "\n") ;
+		return (s.toString ()) ;
+	}
+
+	protected static void test_file(String name)
+	{
+		InputStream in = get_stream (name) ;
+		Dcs T = cs_load (in) ;
+		String mtx = to_mtx (T) ;
+		String file = write (mtx) ;
+
+		assert_equals (T, cs_mmread (file, false)) ;
+		assert_equals (cs_compress (T), cs_mmread (file, true)) ;
+		assert_equals (T, cs_mmread (ByteBuffer.wrap (mtx.getBytes ()), false)) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		test_file (BCSSTK01) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		test_file (BCSSTK16) ;
+	}
+
+	public void test_window()
+	{
+		Dcs T = cs_load (get_stream (BCSSTK01)) ;
+		String file = write (to_mtx (T)) ;
+
+		/* small windows, so numbers and lines straddle remapped regions */
+		assert_equals (T, cs_mmread (file, false, 4096)) ;
+		assert_equals (T, cs_mmread (file, false, 7)) ;
+		assert_equals (cs_compress (T), cs_mmread (file, true, 1)) ;
+		assertNull (cs_mmread (file, false, 0)) ;
+	}
+
+	public void test_numbers()
+	{
+		String file = write ("%%MatrixMarket matrix coordinate real general\n"
+			+ "%\n% numbers in various forms\n%\n"
+			+ "  3 2   7\n"
+			+ "1 1 -0.5\n"
+			+ "2 1 1.25e-3\n"
+			+ "3 1 +4E+2\n"
+			+ "1 2 12345678901234567890.5\n"
+			+ "2 2 3.14159265358979323846\r\n"
+			+ "3 2 -1e-300\n"
+			+ "3 2 7\n") ;
+		Dcs T = cs_mmread (file, false) ;
+		assertEquals (3, T.m) ;
+		assertEquals (2, T.n) ;
+		assertEquals (7, T.nz) ;
+		double[] x = { -0.5, 1.25e-3, 4e2, 12345678901234567890.5, 3.14159265358979323846, -1e-300, 7 } ;
+		for (int k = 0 ; k < 7 ; k++) assertEquals (x [k], T.x [k], 0) ;
+		assertEquals (2, T.i [6]) ;
+		assertEquals (1, T.p [6]) ;
+	}
+
+	public void test_symmetric()
+	{
+		String sym = "%%MatrixMarket matrix coordinate real symmetric\n"
+			+ "3 3 4\n1 1 4\n2 1 -1\n3 2 -2\n3 3 5\n" ;
+		Dcs A = cs_mmread (write (sym), true) ;
+		assertEquals (6, A.p [A.n]) ;
+		assertEquals (-1, A.x [A.p [1] - 1], 0) ;	/* A(1,0) */
+		assertEquals (0, A.i [A.p [1]]) ;		/* A(0,1) = A(1,0) */
+		assertEquals (-1, A.x [A.p [1]], 0) ;
+
+		Dcs S = cs_mmread (write (sym.replace ("symmetric", "skew-symmetric")), false) ;
+		assertEquals (6, S.nz) ;
+		assertEquals (6, S.nzmax) ;
+		assertEquals (-1, S.x [1], 0) ;
+		assertEquals (1, S.x [2], 0) ;
+	}
+
+	public void test_pattern()
+	{
+		Dcs A = cs_mmread (write ("%%MatrixMarket matrix coordinate pattern general\n"
+			+ "2 3 3\n1 1\n2 3\n1 2\n"), true) ;
+		assertNull (A.x) ;
+		assertEquals (3, A.p [A.n]) ;
+		assertEquals (1, A.i [A.p [2]]) ;
+	}
+
+	public void test_errors()
+	{
+		String ok = "%%MatrixMarket matrix coordinate real general\n2 2 2\n1 1 1.0\n2 2 2.0\n" ;
+		assertNotNull (cs_mmread (write (ok), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("%%MatrixMarket", "%MatrixMarket")), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("real", "complex")), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("coordinate", "array")), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("2 2 2.0", "3 2 2.0")), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("2.0", "two")), true)) ;
+		assertNull (cs_mmread (write (ok.replace ("2 2 2.0\n", "")), true)) ;
+		assertNull (cs_mmread (new File ("no such file").getPath (), true)) ;
+	}
+
+}
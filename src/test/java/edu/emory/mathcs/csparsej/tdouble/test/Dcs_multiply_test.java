@@ -0,0 +1,126 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add_numeric ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_add.cs_add_symbolic ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply_numeric ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply_symbolic ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Symbolic and numeric phases of sparse matrix addition and multiplication.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_multiply_test extends Dcs_test {
+
+	protected static void update(Dcs A, int step)
+	{
+		for (int p = 0 ; p < A.p [A.n] ; p++) A.x [p] = A.x [p] * (1 + step) - p % 5 ;
+	}
+
+	protected static void test_multiply(Dcs A, Dcs B)
+	{
+		Dcs C = cs_multiply_symbolic (A, B) ;
+		double[] Cx = C.x, x = new double [A.m] ;
+		for (int step = 0 ; step < 3 ; step++)
+		{
+			assertTrue (cs_multiply_numeric (A, B, C, x)) ;
+			assert_equals (cs_multiply (A, B), C) ;
+			assertSame (Cx, C.x) ;
+			update (A, step) ;
+			update (B, step) ;
+		}
+		assertTrue (cs_multiply_numeric (A, B, C, null)) ;
+		assert_equals (cs_multiply (A, B), C) ;
+	}
+
+	protected static void test_add(Dcs A, Dcs B)
+	{
+		Dcs C = cs_add_symbolic (A, B) ;
+		double[] x = new double [A.m] ;
+		for (int step = 0 ; step < 3 ; step++)
+		{
+			assertTrue (cs_add_numeric (A, B, 2, -0.5, C, x)) ;
+			assert_equals (cs_add (A, B, 2, -0.5), C) ;
+			update (A, step) ;
+			update (B, step) ;
+		}
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A, AT = cs_transpose (A, true) ;
+
+		test_multiply (A, AT) ;
+		test_multiply (AT, A) ;
+		test_add (A, cs_transpose (cs_transpose (A, true), true)) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A, AT = cs_transpose (A, true) ;
+
+		test_multiply (A, cs_add (A, A, 1, 0)) ;
+		test_add (A, AT) ;
+	}
+
+	public void test_errors()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dcs A = get_problem (in, 0).A ;
+		Dcs AT = cs_transpose (A, true) ;
+		Dcs C = cs_multiply_symbolic (A, AT) ;
+
+		assertNull (cs_multiply_symbolic (A, A)) ;
+		assertNull (cs_add_symbolic (A, AT)) ;
+		assertFalse (cs_multiply_numeric (AT, A, C, null)) ;
+		assertFalse (cs_multiply_numeric (A, AT, C, new double [1])) ;
+		assertFalse (cs_add_numeric (A, AT, 1, 1, C, null)) ;
+		assertEquals (C.nzmax, C.p [C.n]) ;	/* allocated at its exact size */
+		C.nzmax++ ;
+		assertFalse (cs_multiply_numeric (A, AT, C, null)) ;
+		C.nzmax-- ;
+		assertTrue (cs_multiply_numeric (A, AT, C, null)) ;
+
+		/* the pattern does not depend on values */
+		Dcs P = cs_transpose (A, false) ;
+		Dcs S = cs_multiply_symbolic (cs_transpose (P, false), P) ;
+		assertEquals (C.p [C.n], S.p [S.n]) ;
+	}
+
+}
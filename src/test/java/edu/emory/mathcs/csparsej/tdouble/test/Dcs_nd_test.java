@@ -0,0 +1,135 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholsol.cs_cholsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_nd.cs_nd ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrsol.cs_qrsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Nested dissection ordering.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_nd_test extends Dcs_test {
+
+	/**
+	 * Solves with nested dissection (order 5) and compares against the
+	 * solution with minimum degree (order 1 for Cholesky, 3 for LU and QR).
+	 */
+	protected static void test_solve(Dproblem prob, int method)
+	{
+		Dcs A = method == 0 ? prob.C : prob.A ;
+		int m = A.m, n = A.n, order = method == 0 ? 1 : 3 ;
+		double[] x1 = new double [Math.max (m, n)], x5 = new double [Math.max (m, n)] ;
+		rhs (x1, prob.b, m) ;
+		rhs (x5, prob.b, m) ;
+		switch (method)
+		{
+		case 0:
+			assertTrue (cs_cholsol (order, A, x1)) ;
+			assertTrue (cs_cholsol (5, A, x5)) ;
+			break ;
+		case 1:
+			assertTrue (cs_lusol (order, A, x1, 1)) ;
+			assertTrue (cs_lusol (5, A, x5, 1)) ;
+			break ;
+		default:
+			assertTrue (cs_qrsol (order, A, x1)) ;
+			assertTrue (cs_qrsol (5, A, x5)) ;
+		}
+		for (int j = 0 ; j < n ; j++)
+			assertEquals (x1 [j], x5 [j], 1e-8 * Math.max (1, Math.abs (x1 [j]))) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+
+		int[] P = cs_nd (1, C) ;
+		assert_perm (P, C.n) ;
+		assertTrue (Arrays.equals (P, cs_nd (1, C))) ;	/* repeatable */
+		assertTrue (cs_schol (5, C).lnz < 1.5 * cs_schol (1, C).lnz) ;
+		test_solve (prob, 0) ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_solve (prob, 0) ;
+		test_solve (prob, 1) ;
+		test_solve (prob, 2) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assert_perm (cs_nd (2, prob.A), prob.A.n) ;
+		test_solve (prob, 1) ;
+		test_solve (prob, 2) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assert_perm (cs_sqr (5, prob.A, true).q, prob.A.n) ;
+		test_solve (prob, 2) ;
+	}
+
+	public void test_mbeacxc()
+	{
+		InputStream in = get_stream (MBEACXC) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assert_perm (cs_nd (3, prob.A), prob.A.n) ;
+	}
+
+	public void test_invalid()
+	{
+		InputStream in = get_stream (T1) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assertNull (cs_nd (0, prob.A)) ;
+		assertNull (cs_nd (4, prob.A)) ;
+		assertNull (cs_nd (1, null)) ;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_parchol.cs_parchol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ssuper.cs_ssuper ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_supchol.cs_supchol ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper ;
+
+/**
+ * Parallel supernodal Cholesky factorization.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_parchol_test extends Dcs_test {
+
+	protected static void test_parchol(Dproblem prob, int order, ForkJoinPool pool)
+	{
+		Dcs C = prob.C ;
+		Dcss S = cs_schol (order, C) ;
+		Dcssuper SS = cs_ssuper (C, S) ;
+		Dcsn N = cs_chol (C, S) ;
+		Dcsn N2 = cs_supchol (C, S, SS) ;
+		Dcsn N3 = cs_parchol (C, S, SS, pool) ;
+		assertNotNull (N3) ;
+		assert_factor (N.L, N3.L, 1e-8) ;
+		assert_factor (N2.L, N3.L, 0) ;		/* same updates in the same order */
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_parchol (prob, 1, null) ;
+		assertNotNull (cs_parchol (prob.C, cs_schol (0, prob.C))) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		ForkJoinPool pool = new ForkJoinPool (4) ;
+		try
+		{
+			test_parchol (prob, 1, pool) ;
+		}
+		finally
+		{
+			pool.shutdown () ;
+		}
+	}
+
+	public void test_not_pos_def()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+		for (int j = 0 ; j < C.n ; j++)		/* negate the matrix */
+		{
+			for (int p = C.p [j] ; p < C.p [j+1] ; p++) C.x [p] = -C.x [p] ;
+		}
+		assertNull (cs_parchol (C, cs_schol (1, C))) ;
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_gaxpy.cs_gaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pgaxpy.cs_pgaxpy ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pgaxpy.cs_pmv ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcspmv ;
+
+/**
+ * Parallel sparse matrix times dense vector.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_pgaxpy_test extends Dcs_test {
+
+	protected static void test_pgaxpy(Dcs A, int nparts, ForkJoinPool pool)
+	{
+		double [] x = new double [A.n], y = new double [A.m], z ;
+		for (int j = 0 ; j < A.n ; j++) x [j] = 1 + j % 7 - 0.5 * (j % 3) ;
+		for (int i = 0 ; i < A.m ; i++) y [i] = i % 5 ;
+		z = y.clone () ;
+		Dcspmv P = cs_pmv (A, nparts) ;
+		assertNotNull (P) ;
+		assertTrue (P.nparts >= 1) ;
+		assertEquals (0, P.rp [0]) ;
+		assertEquals (A.m, P.rp [P.nparts]) ;
+		for (int k = 0 ; k < P.nparts ; k++) assertTrue (P.rp [k] <= P.rp [k+1]) ;
+		assertTrue (cs_gaxpy (A, x, y)) ;
+		assertTrue (cs_pgaxpy (P, x, z, pool)) ;
+		assertTrue (Arrays.equals (y, z)) ;	/* same summation order */
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A ;
+
+		test_pgaxpy (A, 0, null) ;
+		test_pgaxpy (A, 1, null) ;
+		test_pgaxpy (A, 7, null) ;
+		test_pgaxpy (A, 1000, new ForkJoinPool (4)) ;
+		assertTrue (cs_pmv (A, 1000).nparts <= A.p [A.n] / 16384) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_pgaxpy (prob.A, 0, null) ;	/* rectangular, one block */
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_pgaxpy (prob.A, 4, null) ;
+	}
+
+	public void test_invalid()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcspmv P = cs_pmv (prob.A, 0) ;
+
+		assertNull (cs_pmv (null, 0)) ;
+		assertNull (cs_pmv (prob.A, -1)) ;
+		assertFalse (cs_pgaxpy (P, null, new double [prob.A.m])) ;
+		assertFalse (cs_pgaxpy (null, new double [prob.A.n], new double [prob.A.m])) ;
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_multiply.cs_multiply ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pmultiply.cs_pmultiply ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Parallel sparse matrix multiply.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_pmultiply_test extends Dcs_test {
+
+	protected static void test_pmultiply(Dcs A, Dcs B, ForkJoinPool pool)
+	{
+		Dcs C = cs_multiply (A, B) ;
+		Dcs D = cs_pmultiply (A, B, pool) ;
+		assertNotNull (D) ;
+		assertEquals (C.m, D.m) ;
+		assertEquals (C.n, D.n) ;
+		assertEquals (C.p [C.n], D.nzmax) ;	/* exact allocation */
+		assertTrue (Arrays.equals (C.p, D.p)) ;
+		assertTrue (Arrays.equals (Arrays.copyOf (C.i, C.p [C.n]), D.i)) ;
+		if (C.x != null)
+			assertTrue (Arrays.equals (Arrays.copyOf (C.x, C.p [C.n]), D.x)) ;
+		else
+			assertNull (D.x) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A, AT = cs_transpose (A, true) ;
+
+		test_pmultiply (A, AT, null) ;
+		test_pmultiply (A, AT, new ForkJoinPool (4)) ;
+		test_pmultiply (cs_transpose (A, false), A, new ForkJoinPool (3)) ;	/* pattern only */
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.A, AT = cs_transpose (A, true) ;
+
+		test_pmultiply (AT, A, null) ;
+		test_pmultiply (A, AT, new ForkJoinPool (2)) ;
+		assertNull (cs_pmultiply (A, A)) ;	/* dimensions do not match */
+		assertNull (cs_pmultiply (null, A)) ;
+	}
+
+}
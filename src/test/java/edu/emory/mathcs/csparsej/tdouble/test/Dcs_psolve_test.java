@@ -0,0 +1,184 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_compress.cs_compress ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_entry.cs_entry ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve.cs_lsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ltsolve.cs_ltsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lu.cs_lu ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_psolve.cs_level ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_psolve.cs_plsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_psolve.cs_pltsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_psolve.cs_pusolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_psolve.cs_putsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_sqr.cs_sqr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_usolve.cs_usolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_utsolve.cs_utsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_util.cs_spalloc ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcslevel ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+
+/**
+ * Level-scheduled parallel triangular solves.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_psolve_test extends Dcs_test {
+
+	/**
+	 * Every unknown only uses unknowns of earlier levels.
+	 */
+	protected static void assert_levels(Dcslevel S, int n)
+	{
+		int[] lev = new int [n] ;
+		assertEquals (n, S.lp [S.nlev]) ;
+		for (int l = 0 ; l < S.nlev ; l++)
+		{
+			for (int k = S.lp [l] ; k < S.lp [l+1] ; k++) lev [S.li [k]] = l ;
+		}
+		for (int j = 0 ; j < n ; j++)
+		{
+			for (int p = S.gp [j] ; p < S.gp [j+1] ; p++)
+				assertTrue (lev [S.gi [p]] < lev [j]) ;
+		}
+	}
+
+	/**
+	 * Compares solve k (0: L\x, 1: L'\x, 2: U\x, 3: U'\x) with the sequential
+	 * solve.
+	 */
+	protected static void test_solve(Dcsn N, int k, ForkJoinPool pool)
+	{
+		Dcs T = (k < 2) ? N.L : N.U ;
+		int n = T.n ;
+		double[] x = rhs_vec (n), y = rhs_vec (n) ;
+		switch (k)
+		{
+			case 0: assertTrue (cs_lsolve (T, x)) ; assertTrue (cs_plsolve (N, y, pool)) ; break ;
+			case 1: assertTrue (cs_ltsolve (T, x)) ; assertTrue (cs_pltsolve (N, y, pool)) ; break ;
+			case 2: assertTrue (cs_usolve (T, x)) ; assertTrue (cs_pusolve (N, y, pool)) ; break ;
+			default: assertTrue (cs_utsolve (T, x)) ; assertTrue (cs_putsolve (N, y, pool)) ; break ;
+		}
+		double t = 0 ;
+		for (int i = 0 ; i < n ; i++) t = Math.max (t, Math.abs (x [i])) ;
+		for (int i = 0 ; i < n ; i++) assertEquals (x [i], y [i], 1e-12 * t) ;
+		Dcslevel S = N.sched [k] ;
+		assert_levels (S, n) ;
+		if (pool == null) cs_plsolve (N, rhs_vec (n)) ;
+		assertSame (S, N.sched [k]) ;		/* schedule is kept */
+	}
+
+	protected static void test_chol(Dproblem prob, int order)
+	{
+		ForkJoinPool pool = new ForkJoinPool (4) ;
+		Dcsn N = cs_chol (prob.C, cs_schol (order, prob.C)) ;
+		test_solve (N, 0, pool) ;
+		test_solve (N, 1, pool) ;
+		test_solve (N, 0, null) ;
+		pool.shutdown () ;
+	}
+
+	protected static void test_lu(Dcs A, int order)
+	{
+		ForkJoinPool pool = new ForkJoinPool (4) ;
+		Dcsn N = cs_lu (A, cs_sqr (order, A, false), 1) ;
+		for (int k = 0 ; k < 4 ; k++) test_solve (N, k, pool) ;
+		pool.shutdown () ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_chol (prob, 1) ;
+		test_lu (prob.C, 1) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_chol (prob, 1) ;
+		test_lu (prob.C, 2) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_lu (prob.A, 2) ;
+	}
+
+	/**
+	 * Factors whose levels are wide enough to be solved in parallel: L has
+	 * a unit diagonal and L(i,j) = 1/(j+2) for i = j+n/2 and i = j+n/2+1, so
+	 * each solve has two levels of n/2 unknowns.
+	 */
+	public void test_wide()
+	{
+		int j, n = 40000 ;
+		Dcs T = cs_spalloc (n, n, 3 * n, true, true) ;
+		for (j = 0 ; j < n ; j++)
+		{
+			cs_entry (T, j, j, 2 + (j % 3)) ;
+			if (j < n / 2) cs_entry (T, j + n / 2, j, 1.0 / (j + 2)) ;
+			if (j + 1 < n / 2) cs_entry (T, j + n / 2 + 1, j, 1.0 / (j + 2)) ;
+		}
+		Dcsn N = new Dcsn () ;
+		N.L = cs_compress (T) ;
+		N.U = cs_transpose (N.L, true) ;
+		ForkJoinPool pool = new ForkJoinPool (4) ;
+		for (int k = 0 ; k < 4 ; k++)
+		{
+			test_solve (N, k, pool) ;
+			assertEquals (2, N.sched [k].nlev) ;
+		}
+		pool.shutdown () ;
+	}
+
+	public void test_not_triangular()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		assertNull (cs_level (prob.A, true, false)) ;
+		assertNull (cs_level (null, true, false)) ;
+		assertFalse (cs_plsolve (null, new double [1])) ;
+	}
+
+}
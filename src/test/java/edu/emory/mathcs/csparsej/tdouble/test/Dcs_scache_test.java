@@ -0,0 +1,175 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_cholsol.cs_cholsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lusol.cs_lusol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_qrsol.cs_qrsol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_scache.cs_scache ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_scache.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_scache.cs_sclear ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_scache.cs_sqr ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcscache ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+
+/**
+ * Symbolic analysis cache.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_scache_test extends Dcs_test {
+
+	protected static void assert_hits(Dcscache C, long hits, long misses)
+	{
+		assertEquals (hits, C.hits) ;
+		assertEquals (misses, C.misses) ;
+	}
+
+	protected static double[] solve(int kind, int order, Dcs A, double[] b, Dcscache C)
+	{
+		int k, n = Math.max (A.m, A.n) ;
+		double[] x = new double [n] ;
+		for (k = 0 ; k < b.length ; k++) x [k] = b [k] ;
+		switch (kind)
+		{
+			case 0: assertTrue (cs_cholsol (order, A, x, C)) ; break ;
+			case 1: assertTrue (cs_lusol (order, A, x, 1, C)) ; break ;
+			default: assertTrue (cs_qrsol (order, A, x, C)) ; break ;
+		}
+		return (x) ;
+	}
+
+	/**
+	 * Solves twice through the cache and compares with an uncached solve.
+	 */
+	protected static void test_solve(int kind, int order, Dcs A, double[] b)
+	{
+		Dcscache C = cs_scache (4) ;
+		double[] x = solve (kind, order, A, b, null) ;
+		double[] x1 = solve (kind, order, A, b, C) ;
+		assert_hits (C, 0, 1) ;
+		double[] x2 = solve (kind, order, A, b, C) ;
+		assert_hits (C, 1, 1) ;
+		for (int k = 0 ; k < x.length ; k++)
+		{
+			assertEquals (x [k], x1 [k], 0) ;
+			assertEquals (x [k], x2 [k], 0) ;
+		}
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_solve (0, 1, prob.C, prob.b) ;
+		test_solve (1, 2, prob.C, prob.b) ;
+	}
+
+	public void test_west0067()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_solve (1, 2, prob.A, prob.b) ;
+		test_solve (2, 3, prob.A, prob.b) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_solve (2, 3, prob.A, prob.b) ;
+		test_solve (2, 3, cs_transpose (prob.A, true), prob.b) ;
+	}
+
+	public void test_lookup()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = cs_transpose (cs_transpose (prob.A, true), true) ;	/* sorted */
+
+		Dcscache C = cs_scache (2) ;
+		Dcss S = cs_sqr (C, 3, A, false) ;
+		assertNotNull (S) ;
+		assertSame (S, cs_sqr (C, 3, A, false)) ;
+		assertSame (S, cs_sqr (C, 3, cs_transpose (cs_transpose (A, true), true), false)) ;
+		assert_hits (C, 2, 1) ;
+
+		/* a different ordering or kind of analysis is a different entry */
+		Dcss Sqr = cs_sqr (C, 3, A, true) ;
+		assertNotSame (S, Sqr) ;
+		assertSame (S, cs_sqr (C, 3, A, false)) ;
+		assertNotSame (S, cs_sqr (C, 2, A, false)) ;
+		assert_hits (C, 3, 3) ;
+
+		/* the QR analysis was the least recently used and has been evicted */
+		assertEquals (2, C.map.size ()) ;
+		assertSame (S, cs_sqr (C, 3, A, false)) ;
+		assertNotSame (Sqr, cs_sqr (C, 3, A, true)) ;
+		assert_hits (C, 4, 4) ;
+
+		cs_sclear (C) ;
+		assertEquals (0, C.map.size ()) ;
+		assertNotSame (S, cs_sqr (C, 3, A, false)) ;
+	}
+
+	public void test_pattern()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs A = prob.C ;
+
+		Dcscache C = cs_scache (8) ;
+		Dcss S = cs_schol (C, 1, A) ;
+		int i = A.i [A.p [A.n] - 1] ;
+
+		/* same values, new pattern */
+		A.i [A.p [A.n] - 1] = (i == 0) ? 1 : 0 ;
+		assertNotSame (S, cs_schol (C, 1, A)) ;
+		A.i [A.p [A.n] - 1] = i ;
+		assertSame (S, cs_schol (C, 1, A)) ;
+
+		/* new values, same pattern */
+		A.x [0] *= 2 ;
+		assertSame (S, cs_schol (C, 1, A)) ;
+		assert_hits (C, 2, 2) ;
+	}
+
+	public void test_invalid()
+	{
+		assertNull (cs_scache (0)) ;
+		assertNull (cs_schol (cs_scache (1), 1, null)) ;
+		assertNull (cs_sqr (null, 1, null, false)) ;
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_chol.cs_chol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ipvec.cs_ipvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_lsolve.cs_lsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ltsolve.cs_ltsolve ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_pvec.cs_pvec ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_schol.cs_schol ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_ssuper.cs_ssuper ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_supchol.cs_supchol ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcsn ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcss ;
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcssuper ;
+
+/**
+ * Supernodal Cholesky factorization.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_supchol_test extends Dcs_test {
+
+	/**
+	 * Compares the supernodal factor with cs_chol and solves Ax=b.
+	 *
+	 * @param prob problem
+	 * @param order ordering method to use (0 or 1)
+	 * @return supernodal analysis
+	 */
+	protected static Dcssuper test_supchol(Dproblem prob, int order)
+	{
+		Dcs C ;
+		Dcss S ;
+		Dcssuper SS ;
+		Dcsn N, N2 ;
+		double[] x, b, y ;
+		int n ;
+		C = prob.C ; b = prob.b ; x = prob.x ;
+		n = C.n ;
+		S = cs_schol (order, C) ;
+		SS = cs_ssuper (C, S) ;
+		assertNotNull (SS) ;
+		N = cs_chol (C, S) ;
+		N2 = cs_supchol (C, S, SS) ;
+		assertNotNull (N2) ;
+		assert_factor (N.L, N2.L, 1e-8) ;
+		rhs (x, b, n) ;
+		y = new double [n] ;
+		cs_ipvec (S.pinv, b, y, n) ;		/* y = P*b */
+		cs_lsolve (N2.L, y) ;			/* y = L\y */
+		cs_ltsolve (N2.L, y) ;			/* y = L'\y */
+		cs_pvec (S.pinv, y, x, n) ;		/* x = P'*y */
+		print_resid (true, C, x, b, prob.resid, prob) ;
+		return SS ;
+	}
+
+	public void test_bcsstk01()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_supchol (prob, 0) ;
+		test_supchol (prob, 1) ;
+
+		double x_norm = 0.0005 ;
+		assertEquals(x_norm, prob.norms.get(0), 1e-04) ;
+		assertEquals(x_norm, prob.norms.get(1), 1e-04) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		Dcssuper SS = test_supchol (prob, 1) ;
+		assertTrue (SS.nsuper < prob.C.n / 2) ;
+
+		double x_norm = 1.9998 ;
+		assertEquals(x_norm, prob.norms.get(0), DELTA) ;
+	}
+
+	public void test_not_pos_def()
+	{
+		InputStream in = get_stream (BCSSTK01) ;
+		Dproblem prob = get_problem (in, 0) ;
+		Dcs C = prob.C ;
+		for (int j = 0 ; j < C.n ; j++)		/* negate the matrix */
+		{
+			for (int p = C.p [j] ; p < C.p [j+1] ; p++) C.x [p] = -C.x [p] ;
+		}
+		Dcss S = cs_schol (1, C) ;
+		assertNull (cs_supchol (C, S)) ;
+	}
+
+}
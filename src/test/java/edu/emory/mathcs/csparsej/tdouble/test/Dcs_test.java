@@ -151,6 +151,67 @@ abstract public class Dcs_test extends TestCase {
 		assertEquals (nnz, nz);
 	}
 
+	/**
+	 * Asserts that two triplet or compressed-column matrices are identical,
+	 * and that B has no extra space.
+	 */
+	protected static void assert_equals(Dcs A, Dcs B) {
+		assertEquals (A.m, B.m) ;
+		assertEquals (A.n, B.n) ;
+		assertEquals (A.nz, B.nz) ;
+		int nz = (A.nz < 0) ? A.p [A.n] : A.nz ;
+		int np = (A.nz < 0) ? A.n + 1 : nz ;
+		assertEquals (nz, B.nzmax) ;
+		for (int k = 0 ; k < np ; k++) assertEquals (A.p [k], B.p [k]) ;
+		for (int k = 0 ; k < nz ; k++)
+		{
+			assertEquals (A.i [k], B.i [k]) ;
+			assertEquals (A.x [k], B.x [k], 0) ;
+		}
+	}
+
+	/**
+	 * Asserts that two int arrays are both null or identical.
+	 */
+	protected static void assert_equals(int[] a, int[] b) {
+		if (a == null)
+		{
+			assertNull (b) ;
+			return ;
+		}
+		assertEquals (a.length, b.length) ;
+		for (int k = 0 ; k < a.length ; k++) assertEquals (a [k], b [k]) ;
+	}
+
+	/**
+	 * Asserts that P is a permutation of 0..n-1.
+	 */
+	protected static void assert_perm(int[] P, int n) {
+		boolean[] seen = new boolean [n] ;
+		assertNotNull (P) ;
+		for (int k = 0 ; k < n ; k++)
+		{
+			assertFalse (seen [P [k]]) ;
+			seen [P [k]] = true ;
+		}
+	}
+
+	/**
+	 * Asserts that two factors have the same pattern and values equal to
+	 * within a relative tolerance.
+	 */
+	protected static void assert_factor(Dcs L1, Dcs L2, double tol) {
+		assertEquals (L1.m, L2.m) ;
+		assertEquals (L1.n, L2.n) ;
+		int n = L1.n ;
+		for (int j = 0 ; j <= n ; j++) assertEquals (L1.p [j], L2.p [j]) ;
+		for (int p = 0 ; p < L1.p [n] ; p++)
+		{
+			assertEquals (L1.i [p], L2.i [p]) ;
+			assertEquals (L1.x [p], L2.x [p], tol * Math.max (1, Math.abs (L1.x [p]))) ;
+		}
+	}
+
 	protected static void assert_problem(Dproblem prob, int m, int n, int nnz, int sym, int sym_nnz,
 			double norm) {
 		assertEquals (m, prob.A.m) ;
@@ -245,6 +306,18 @@ abstract public class Dcs_test extends TestCase {
 		return (C) ;
 	}
 
+	/**
+	 * Adds s to each diagonal entry of A.
+	 */
+	protected static void shift(Dcs A, double s)
+	{
+		for (int j = 0 ; j < A.n ; j++)
+		{
+			for (int p = A.p [j] ; p < A.p [j+1] ; p++)
+				if (A.i [p] == j) A.x [p] += s ;
+		}
+	}
+
 	/**
 	 * create a right-hand side
 	 */
@@ -255,6 +328,37 @@ abstract public class Dcs_test extends TestCase {
 		for (i = 0; i < m; i++) x[i] = b[i] ;
 	}
 
+	/**
+	 * Right-hand side of size n, b[i] = 1 + (i % 7).
+	 */
+	protected static double[] rhs(int n)
+	{
+		double[] b = new double [n] ;
+		for (int i = 0 ; i < n ; i++) b [i] = 1 + (i % 7) ;
+		return (b) ;
+	}
+
+	/**
+	 * Right-hand side of size n, b[i] = 1 + (i % 13) / 3.
+	 */
+	protected static double[] rhs_vec(int n)
+	{
+		double[] b = new double [n] ;
+		for (int i = 0 ; i < n ; i++) b [i] = 1 + (i % 13) / 3.0 ;
+		return (b) ;
+	}
+
+	/**
+	 * Right-hand side for A of size max(m,n), large enough for a least-squares
+	 * solution; its first m entries are shifted by seed.
+	 */
+	protected static double[] rhs_vec(Dcs A, int seed)
+	{
+		double[] b = new double [Math.max (A.m, A.n)] ;
+		for (int i = 0 ; i < A.m ; i++) b [i] = 1 + ((i + 7 * seed) % 13) / 3.0 ;
+		return (b) ;
+	}
+
 	/**
 	 * infinity-norm of x
 	 */
@@ -317,6 +421,12 @@ abstract public class Dcs_test extends TestCase {
 		case 3:
 		    System.out.print ("amd(A'*A)  ") ;
 		    break ;
+		case 4:
+		    System.out.print ("colamd(A)  ") ;
+		    break ;
+		case 5:
+		    System.out.print ("nd         ") ;
+		    break ;
 		}
 	}
 
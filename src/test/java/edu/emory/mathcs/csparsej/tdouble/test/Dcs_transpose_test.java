@@ -0,0 +1,99 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tdouble.test ;
+
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose ;
+import static edu.emory.mathcs.csparsej.tdouble.Dcs_transpose.cs_transpose_values ;
+
+import edu.emory.mathcs.csparsej.tdouble.Dcs_common.Dcs ;
+
+/**
+ * Transpose with a map for value-only refreshes.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Dcs_transpose_test extends Dcs_test {
+
+	protected static void test_transpose(Dcs A, ForkJoinPool pool)
+	{
+		int nz = A.p [A.n] ;
+		int[] map = new int [nz] ;
+		Dcs C = cs_transpose (A, map) ;
+		assert_equals (cs_transpose (A, true), C) ;
+
+		double[] Cx = C.x ;
+		for (int p = 0 ; p < nz ; p++) A.x [p] = 3 * A.x [p] + p ;
+		assertTrue (cs_transpose_values (A, C, map)) ;
+		assertSame (Cx, C.x) ;
+		assert_equals (cs_transpose (A, true), C) ;
+
+		for (int p = 0 ; p < nz ; p++) A.x [p] = -A.x [p] ;
+		assertTrue (cs_transpose_values (A, C, map, pool)) ;
+		assert_equals (cs_transpose (A, true), C) ;
+	}
+
+	public void test_ash219()
+	{
+		InputStream in = get_stream (ASH219) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		test_transpose (prob.A, null) ;
+	}
+
+	public void test_bcsstk16()
+	{
+		InputStream in = get_stream (BCSSTK16) ;
+		Dproblem prob = get_problem (in, 0) ;
+
+		ForkJoinPool pool = new ForkJoinPool (4) ;
+		try
+		{
+			test_transpose (prob.C, pool) ;	/* more than CS_GRAIN entries */
+		}
+		finally
+		{
+			pool.shutdown () ;
+		}
+	}
+
+	public void test_errors()
+	{
+		InputStream in = get_stream (WEST0067) ;
+		Dcs A = get_problem (in, 0).A ;
+		int[] map = new int [A.p [A.n]] ;
+		Dcs C = cs_transpose (A, map) ;
+
+		assertNull (cs_transpose (A, new int [1])) ;
+		assertNull (cs_transpose (null, map)) ;
+		assertFalse (cs_transpose_values (A, A, null)) ;
+		assertFalse (cs_transpose_values (A, cs_transpose (A, false), map)) ;
+		assertTrue (cs_transpose_values (A, C, map, null)) ;
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * CXSparse: a Concise Sparse matrix package.
+ * Copyright (C) 2006-2011, Timothy A. Davis.
+ * Copyright (C) 2011-2012, Richard W. Lincoln.
+ * http://www.cise.ufl.edu/research/sparse/CXSparse
+ *
+ * -------------------------------------------------------------------------
+ *
+ * CXSparseJ is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * CXSparseJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this Module; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301
+ *
+ */
+
+package edu.emory.mathcs.csparsej.tfloat.test ;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import static edu.emory.mathcs.csparsej.tfloat.Scs_mmread.cs_mmread ;
+
+import edu.emory.mathcs.csparsej.tfloat.Scs_common.Scs ;
+
+/**
+ * Read a single precision matrix in Matrix Market format.
+ *
+ * @author Richard Lincoln (r.w.lincoln@gmail.com)
+ *
+ */
+public class Scs_mmread_test extends TestCase {
+
+	/**
+	 * Writes s to a temporary .mtx file and returns its name.
+	 */
+	protected static String write(String s) throws IOException
+	{
+		File f = File.createTempFile ("csparsej", ".mtx") ;
+		f.deleteOnExit () ;
+		FileOutputStream out = new FileOutputStream (f) ;
+		out.write (s.getBytes ("US-ASCII")) ;
+		out.close () ;
+		return (f.getPath ()) ;
+	}
+
+	/**
+	 * Matrix Market text of a column vector with the given entries.
+	 */
+	protected static String to_mtx(String[] x)
+	{
+		StringBuilder s = new StringBuilder () ;
+		s.append ("%%MatrixMarket matrix coordinate real general\n") ;
+		s.append (x.length + " 1 " + x.length + "\n") ;
+		for (int k = 0 ; k < x.length ; k++)
+			s.append ((k + 1) + " 1 " + x [k] + "\n") ;
+		return (s.toString ()) ;
+	}
+
+	public void test_rounding() throws IOException
+	{
+		/* the first four are nearest a double halfway between two floats */
+		String[] x = { "1.207714855670929", "1.152736246585846", "-1.963704764842987", "1.761674702167511",
+			"16777217", "0.1", "-2.5e-3", "3.4028235e38", "1e-45", "0" } ;
+		Scs T = cs_mmread (write (to_mtx (x)), false) ;
+		assertEquals (x.length, T.nz) ;
+		for (int k = 0 ; k < x.length ; k++) assertEquals (Float.parseFloat (x [k]), T.x [k], 0) ;
+	}
+
+	public void test_window() throws IOException
+	{
+		String[] x = new String [500] ;
+		for (int k = 0 ; k < x.length ; k++) x [k] = Double.toString ((k - 250) * 1.0137) ;
+		String file = write (to_mtx (x)) ;
+		Scs T = cs_mmread (file, false) ;
+
+		/* small windows, so numbers and lines straddle remapped regions */
+		for (int window = 1 ; window <= 4096 ; window *= 8)
+		{
+			Scs W = cs_mmread (file, false, window) ;
+			assertEquals (T.nz, W.nz) ;
+			for (int k = 0 ; k < T.nz ; k++)
+			{
+				assertEquals (T.i [k], W.i [k]) ;
+				assertEquals (T.p [k], W.p [k]) ;
+				assertEquals (Float.parseFloat (x [k]), W.x [k], 0) ;
+			}
+		}
+		assertNull (cs_mmread (file, false, 0)) ;
+	}
+
+}